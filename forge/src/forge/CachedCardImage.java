@@ -16,19 +16,32 @@ public abstract class CachedCardImage implements ImageFetcher.Callback {
         this.viewers = viewers;
         this.width = width;
         this.height = height;
-        BufferedImage image = ImageCache.getImageNoDefault(card, viewers, width, height);
-        if (image == null) {
-            String key = card.getCurrentState().getImageKey(viewers);
+        final String key = card.getCurrentState().getImageKey(viewers);
+        if (ImageCache.isImageMissing(key)) {
             ImageFetcher.fetchImage(card, key, this);
+        } else {
+            // Decode in the background, downloading the image if there turns out to be no file.
+            ImageCache.getImageAsync(key, width, height, false, new ImageFetcher.Callback() {
+                @Override
+                public void onImageFetched() {
+                    if (ImageCache.isImageMissing(key)) {
+                        ImageFetcher.fetchImage(card, key, CachedCardImage.this);
+                    }
+                }
+            });
         }
     }
 
+    /**
+     * Returns the image, the default image if there is none, or null while it is
+     * still being read; onImageFetched() is called once it is ready.
+     */
     public BufferedImage getImage() {
-        return ImageCache.getImage(card, viewers, width, height);
+        return ImageCache.getImageAsync(card.getCurrentState().getImageKey(viewers), width, height, true, this);
     }
 
     public BufferedImage getFrontImage() {
-        return ImageCache.getImage(card, null, width, height);
+        return ImageCache.getImageAsync(card.getCurrentState().getImageKey(null), width, height, true, this);
     }
 
     public abstract void onImageFetched();
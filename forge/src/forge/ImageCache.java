@@ -17,19 +17,26 @@
  */
 package forge;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import javax.imageio.ImageIO;
 
 import org.apache.commons.lang3.StringUtils;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
-import com.google.common.cache.LoadingCache;
 import com.mortennobel.imagescaling.ResampleOp;
 
 import forge.assets.FSkinProp;
@@ -44,14 +51,16 @@ import forge.toolbox.FSkin.SkinIcon;
 import forge.util.ImageUtil;
 
 /**
- * This class stores ALL card images in a cache with soft values. this means
- * that the images may be collected when they are not needed any more, but will
- * be kept as long as possible.
+ * This class stores card images in a least recently used cache that is limited
+ * by the memory taken by their decoded pixels, rather than left to the garbage
+ * collector. Images that are requested asynchronously are decoded and scaled
+ * on a background pool, so the EDT never waits for a file to be read.
  * <p/>
  * The keys are the following:
  * <ul>
  * <li>Keys start with the file name, extension is skipped</li>
  * <li>The key without suffix belongs to the unmodified image from the file</li>
+ * <li>Scaled images append #WIDTHxHEIGHT to the key</li>
  * </ul>
  * 
  * @author Forge
@@ -60,8 +69,26 @@ import forge.util.ImageUtil;
 public class ImageCache {
     // short prefixes to save memory
 
+    private static final String DEFAULT_KEY = "__DEFAULT__";
+
     private static final Set<String> _missingIconKeys = new HashSet<String>();
-    private static final LoadingCache<String, BufferedImage> _CACHE = CacheBuilder.newBuilder().softValues().build(new ImageLoader());
+    /** File keys known to have no image file, so that they are not looked up again. */
+    private static final Set<String> _missingKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private static final PixelCache _CACHE = new PixelCache(Math.max(32L << 20, Runtime.getRuntime().maxMemory() / 4));
+    /** Callbacks waiting for an image that is being decoded, by scaled key. Only used on the EDT. */
+    private static final Map<String, Set<ImageFetcher.Callback>> _pending = new HashMap<String, Set<ImageFetcher.Callback>>();
+    private static final ExecutorService _decoder = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), new ThreadFactory() {
+                private int count = 0;
+
+                @Override
+                public synchronized Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ImageDecoder-" + count++);
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }
+            });
     private static final BufferedImage _defaultImage;
     static {
         BufferedImage defImage = null;
@@ -75,7 +102,8 @@ public class ImageCache {
     }
 
     public static void clear() {
-        _CACHE.invalidateAll();
+        _CACHE.clear();
+        _missingKeys.clear();
         _missingIconKeys.clear();
     }
 
@@ -106,6 +134,80 @@ public class ImageCache {
         return scaleImage(ii.getImageKey(false), width, height, true);
     }
 
+    /**
+     * retrieve an image from the cache without waiting for it to be read from disk.  if the image
+     * has not been decoded yet, this queues it on the decoder threads and returns null; the callback
+     * is notified on the EDT once this method can return the image.  images without a file resolve
+     * straight away, to the default image if useDefaultImage is set and otherwise to null.
+     */
+    public static BufferedImage getImageAsync(final String key, final int width, final int height,
+            final boolean useDefaultImage, final ImageFetcher.Callback callback) {
+        FThreads.assertExecutedByEdt(true);
+        if (StringUtils.isEmpty(key) || (3 > width && -1 != width) || (3 > height && -1 != height)) {
+            return null;
+        }
+
+        final String resizedKey = getResizedKey(key, width, height);
+        final BufferedImage cached = _CACHE.get(resizedKey);
+        if (null != cached) {
+            return cached;
+        }
+        if (isImageMissing(key)) {
+            return useDefaultImage ? scaleDefaultImage(width, height) : null;
+        }
+
+        Set<ImageFetcher.Callback> callbacks = _pending.get(resizedKey);
+        if (callbacks != null) {
+            // Already being decoded, simply wait for it as well.
+            if (callback != null) {
+                callbacks.add(callback);
+            }
+            return null;
+        }
+        callbacks = new LinkedHashSet<ImageFetcher.Callback>();
+        if (callback != null) {
+            callbacks.add(callback);
+        }
+        _pending.put(resizedKey, callbacks);
+
+        final Runnable notifyCallbacks = new Runnable() {
+            @Override
+            public void run() {
+                for (ImageFetcher.Callback c : _pending.remove(resizedKey)) {
+                    c.onImageFetched();
+                }
+            }
+        };
+        _decoder.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loadScaledImage(key, width, height, resizedKey);
+                } finally {
+                    FThreads.invokeInEdtLater(notifyCallbacks);
+                }
+            }
+        });
+        return null;
+    }
+
+    /**
+     * Returns whether the key is known to have no image file, either because it cannot be
+     * resolved or because reading it found nothing.
+     */
+    public static boolean isImageMissing(final String key) {
+        final String fileKey = getFileKey(key);
+        return fileKey == null || _missingKeys.contains(fileKey);
+    }
+
+    /**
+     * Forgets which images were found missing, to be called once a new image file
+     * has been downloaded.
+     */
+    public static void clearMissingImages() {
+        _missingKeys.clear();
+    }
+
     /**
      * retrieve an icon from the cache.  returns the current skin's ICO_UNKNOWN if the icon image is not found
      * in the cache and cannot be loaded from disk.
@@ -132,19 +234,14 @@ public class ImageCache {
         if (null == imageKey) { 
             return null;
         }
-        
-        boolean altState = imageKey.endsWith(ImageKeys.BACKFACE_POSTFIX);
-        if(altState)
-            imageKey = imageKey.substring(0, imageKey.length() - ImageKeys.BACKFACE_POSTFIX.length());
-        if (imageKey.startsWith(ImageKeys.CARD_PREFIX)) {
-            imageKey = ImageUtil.getImageKey(ImageUtil.getPaperCardFromImageKey(imageKey), altState, true);
-            if (StringUtils.isBlank(imageKey)) { 
-                return _defaultImage;
-            }
+
+        final String fileKey = getFileKey(imageKey);
+        if (fileKey == null) {
+            return _defaultImage;
         }
 
         // Load from file and add to cache if not found in cache initially. 
-        BufferedImage original = getImage(imageKey);
+        BufferedImage original = getImage(fileKey);
 
         // No image file exists for the given key so optionally associate with
         // a default "not available" image, however do not add it to the cache,
@@ -156,35 +253,121 @@ public class ImageCache {
         return original;
     }
 
+    /**
+     * Resolves card keys to the key of their image file, or returns null when
+     * the card has no image.
+     */
+    private static String getFileKey(String imageKey) {
+        boolean altState = imageKey.endsWith(ImageKeys.BACKFACE_POSTFIX);
+        if(altState)
+            imageKey = imageKey.substring(0, imageKey.length() - ImageKeys.BACKFACE_POSTFIX.length());
+        if (imageKey.startsWith(ImageKeys.CARD_PREFIX)) {
+            imageKey = ImageUtil.getImageKey(ImageUtil.getPaperCardFromImageKey(imageKey), altState, true);
+            if (StringUtils.isBlank(imageKey)) { 
+                return null;
+            }
+        }
+        return imageKey;
+    }
+
+    private static String getResizedKey(String key, int width, int height) {
+        return key + '#' + width + 'x' + height;
+    }
+
     private static BufferedImage scaleImage(String key, final int width, final int height, boolean useDefaultImage) {
         if (StringUtils.isEmpty(key) || (3 > width && -1 != width) || (3 > height && -1 != height)) {
             // picture too small or key not defined; return a blank
             return null;
         }
 
-        String resizedKey = String.format("%s#%dx%d", key, width, height);
-
-        final BufferedImage cached = _CACHE.getIfPresent(resizedKey);
+        final String resizedKey = getResizedKey(key, width, height);
+        final BufferedImage cached = _CACHE.get(resizedKey);
         if (null != cached) {
             //System.out.println("found cached image: " + resizedKey);
             return cached;
         }
-        
-        BufferedImage original = getOriginalImage(key, useDefaultImage);
-        if (original == null) { return null; }
-
-        if (original == _defaultImage) {
-            // Don't put the default image in the cache under the key for the card.
-            // Instead, cache it under its own key, to avoid duplication of the
-            // default image and to remove the need to invalidate the cache when
-            // an image gets downloaded.
-            resizedKey = String.format("__DEFAULT__#%dx%d", width, height);
-            final BufferedImage cachedDefault = _CACHE.getIfPresent(resizedKey);
-            if (null != cachedDefault) {
-                return cachedDefault;
+
+        final BufferedImage result = loadScaledImage(key, width, height, resizedKey);
+        if (result == null && useDefaultImage) {
+            return scaleDefaultImage(width, height);
+        }
+        return result;
+    }
+
+    /**
+     * Reads and scales the image for the key and adds it to the cache, or returns null if it has no
+     * image file. This may run on any thread.
+     */
+    private static BufferedImage loadScaledImage(String key, int width, int height, String resizedKey) {
+        final String fileKey = getFileKey(key);
+        if (fileKey == null || _missingKeys.contains(fileKey)) {
+            return null;
+        }
+
+        // Reuse the original if it is at hand, otherwise prefer a stored thumbnail
+        // and only decode as many pixels as are needed.
+        final BufferedImage original = _CACHE.get(fileKey);
+        BufferedImage source = original;
+        if (source == null) {
+            final File file = ImageKeys.getImageFile(fileKey);
+            if (file != null) {
+                source = loadThumbnail(fileKey, file, width, height);
+            }
+        }
+        if (source == null) {
+            _missingKeys.add(fileKey);
+            return null;
+        }
+
+        final BufferedImage result = fitImage(source, width, height);
+        if (result != original) {
+            //System.out.println("caching image: " + resizedKey);
+            _CACHE.put(resizedKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the image at the size of its thumbnail bucket, read from the thumbnail store
+     * when possible and otherwise decoded and stored for next time. Sizes too large to
+     * store are decoded directly.
+     */
+    private static BufferedImage loadThumbnail(String fileKey, File file, int width, int height) {
+        final Dimension box = ThumbnailStore.getBox(width, height);
+        if (box == null) {
+            return ImageLoader.load(file, width, height);
+        }
+        BufferedImage thumbnail = ThumbnailStore.read(fileKey, file, box);
+        if (thumbnail == null) {
+            thumbnail = ImageLoader.load(file, box.width, box.height);
+            if (thumbnail == null) {
+                return null;
+            }
+            if (thumbnail.getWidth() > box.width || thumbnail.getHeight() > box.height) {
+                final double scale = Math.min((double)box.width / thumbnail.getWidth(), (double)box.height / thumbnail.getHeight());
+                thumbnail = new ResampleOp((int)(thumbnail.getWidth() * scale), (int)(thumbnail.getHeight() * scale)).filter(thumbnail, null);
+            }
+            ThumbnailStore.write(fileKey, file, box, thumbnail);
+        }
+        return thumbnail;
+    }
+
+    private static BufferedImage scaleDefaultImage(int width, int height) {
+        // The default image is cached under its own key, to avoid duplication of the
+        // default image and to remove the need to invalidate the cache when
+        // an image gets downloaded.
+        final String resizedKey = getResizedKey(DEFAULT_KEY, width, height);
+        BufferedImage result = _CACHE.get(resizedKey);
+        if (null == result) {
+            result = fitImage(_defaultImage, width, height);
+            if (result != _defaultImage) {
+                _CACHE.put(resizedKey, result);
             }
         }
-        
+        return result;
+    }
+
+    private static BufferedImage fitImage(BufferedImage original, int width, int height) {
         // Calculate the scale required to best fit the image into the requested
         // (width x height) dimensions whilst retaining aspect ratio.
         double scaleX = (-1 == width ? 1 : (double)width / original.getWidth());
@@ -194,21 +377,15 @@ public class ImageCache {
             bestFitScale = 1;
         }
 
-        BufferedImage result;
         if (1 == bestFitScale) { 
-            result = original;
-        } else {
-            
-            int destWidth  = (int)(original.getWidth()  * bestFitScale);
-            int destHeight = (int)(original.getHeight() * bestFitScale);
-                         
-            ResampleOp resampler = new ResampleOp(destWidth, destHeight);
-            result = resampler.filter(original, null);
-        }
-        
-        //System.out.println("caching image: " + resizedKey);
-        _CACHE.put(resizedKey, result);
-        return result;
+            return original;
+        }
+
+        int destWidth  = (int)(original.getWidth()  * bestFitScale);
+        int destHeight = (int)(original.getHeight() * bestFitScale);
+
+        ResampleOp resampler = new ResampleOp(destWidth, destHeight);
+        return resampler.filter(original, null);
     }
 
     /**
@@ -216,17 +393,58 @@ public class ImageCache {
      */
     private static BufferedImage getImage(final String key) {
         FThreads.assertExecutedByEdt(true);
-        try {
-            return ImageCache._CACHE.get(key);
-        } catch (final ExecutionException ex) {
-            if (ex.getCause() instanceof NullPointerException) {
-                return null;
+        BufferedImage image = _CACHE.get(key);
+        if (image == null && !_missingKeys.contains(key)) {
+            image = ImageLoader.load(key);
+            if (image == null) {
+                // should be when a card legitimately has no image
+                _missingKeys.add(key);
+            } else {
+                _CACHE.put(key, image);
             }
-            ex.printStackTrace();
-            return null;
-        } catch (final InvalidCacheLoadException ex) {
-            // should be when a card legitimately has no image
-            return null;
+        }
+        return image;
+    }
+
+    /**
+     * Least recently used images, evicted once their decoded pixels take more than
+     * the given number of bytes.
+     */
+    private static final class PixelCache {
+        private final long budget;
+        private long used = 0;
+        private final LinkedHashMap<String, BufferedImage> images = new LinkedHashMap<String, BufferedImage>(256, 0.75f, true);
+
+        PixelCache(long budget) {
+            this.budget = budget;
+        }
+
+        synchronized BufferedImage get(String key) {
+            return images.get(key);
+        }
+
+        synchronized void put(String key, BufferedImage image) {
+            used += sizeOf(image);
+            final BufferedImage old = images.put(key, image);
+            if (old != null) {
+                used -= sizeOf(old);
+            }
+            // Always keep the newest image, even if it alone is over budget.
+            final Iterator<BufferedImage> it = images.values().iterator();
+            while (used > budget && images.size() > 1) {
+                used -= sizeOf(it.next());
+                it.remove();
+            }
+        }
+
+        synchronized void clear() {
+            images.clear();
+            used = 0;
+        }
+
+        private static long sizeOf(BufferedImage image) {
+            final int bytesPerPixel = Math.max(1, (image.getColorModel().getPixelSize() + 7) / 8);
+            return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
         }
     }
 }
@@ -113,6 +113,7 @@ public class ImageFetcher {
             public void run() {
                 FThreads.assertExecutedByEdt(true);
 
+                ImageCache.clearMissingImages();
                 for (Callback o : currentFetches.get(destPath)) {
                     o.onImageFetched();
                 }
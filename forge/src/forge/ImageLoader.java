@@ -1,26 +1,80 @@
 package forge;
 
-import com.google.common.cache.CacheLoader;
-
 import forge.error.BugReporter;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
+
+final class ImageLoader {
+    private ImageLoader() { }
 
-final class ImageLoader extends CacheLoader<String, BufferedImage> {
-    @Override
-    public BufferedImage load(String key) {
+    /** Decodes the full size image for the key, or returns null if there is no image file. */
+    public static BufferedImage load(String key) {
+        return load(key, -1, -1);
+    }
+
+    /**
+     * Decodes the image for the key, skipping pixels while reading when it will be shown much
+     * smaller than its full size. The result stays at least twice the requested size in each
+     * constrained dimension so it still scales down smoothly. Pass -1 to leave a dimension free.
+     */
+    public static BufferedImage load(String key, int width, int height) {
         File file = ImageKeys.getImageFile(key);
-        if (file != null) {
+        return file == null ? null : load(file, width, height);
+    }
+
+    public static BufferedImage load(File file, int width, int height) {
+        try {
+            return read(file, width, height);
+        }
+        catch (IOException ex) {
+            BugReporter.reportException(ex, "Could not read image file " + file.getAbsolutePath() + " ");
+        }
+        return null;
+    }
+
+    private static BufferedImage read(File file, int width, int height) throws IOException {
+        if (width == -1 && height == -1) {
+            return ImageIO.read(file);
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
             try {
-                return ImageIO.read(file);
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = getSubsampling(reader.getWidth(0), reader.getHeight(0), width, height);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
             }
-            catch (IOException ex) {
-                BugReporter.reportException(ex, "Could not read image file " + file.getAbsolutePath() + " ");
+            finally {
+                reader.dispose();
             }
         }
-        return null;
+    }
+
+    private static int getSubsampling(int sourceWidth, int sourceHeight, int width, int height) {
+        int subsampling = Integer.MAX_VALUE;
+        if (width != -1) {
+            subsampling = sourceWidth / (2 * width);
+        }
+        if (height != -1) {
+            subsampling = Math.min(subsampling, sourceHeight / (2 * height));
+        }
+        return Math.max(1, subsampling);
     }
 }
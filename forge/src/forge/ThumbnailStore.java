@@ -0,0 +1,383 @@
+package forge;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import forge.properties.ForgeConstants;
+import forge.util.FileUtil;
+
+/**
+ * Keeps scaled down card images on disk between sessions, so that browsing large collections
+ * does not decode every image file again. Thumbnails are grouped in size buckets, one pack file
+ * per bucket, holding raw pixels that are copied straight into an image when read back. Each pack
+ * is limited to room for {@link #MAX_PACK_THUMBNAILS} thumbnails of its bucket, and is rebuilt
+ * without the least recently stored thumbnails when it runs out of room.
+ * <p>
+ * Each thumbnail is keyed by its image key and remembers the modification time and length
+ * of the file it was made from, so that replaced image files are picked up again.
+ */
+final class ThumbnailStore {
+    private static final int MAGIC = 0x46544842; // FTHB
+    private static final int VERSION = 1;
+    /** The number of thumbnails with alpha a pack is sized for, which makes the packs of larger buckets larger. */
+    private static final int MAX_PACK_THUMBNAILS = 2048;
+    /** Widths of the thumbnail buckets; larger images are not stored. */
+    private static final int[] BUCKETS = { 64, 96, 144, 216 };
+    private static final byte TYPE_RGB = 0, TYPE_ARGB = 1;
+
+    private static final Map<Dimension, Pack> packs = new ConcurrentHashMap<Dimension, Pack>();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "ThumbnailWriter");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+    /** Set once a pack can't be opened or rebuilt, read by the threads looking up and storing thumbnails. */
+    private static volatile boolean disabled = false;
+
+    private ThumbnailStore() { }
+
+    /**
+     * Returns the box thumbnails are stored at for images shown at the given size, which is at
+     * least as large in both dimensions, or null if the size is too large to be stored.
+     */
+    static Dimension getBox(int width, int height) {
+        if (width == -1 && height == -1) {
+            return null;
+        }
+        for (int bucket : BUCKETS) {
+            int bucketHeight = bucket * 3 / 2;
+            if ((width == -1 || width <= bucket) && (height == -1 || height <= bucketHeight)) {
+                return new Dimension(bucket, bucketHeight);
+            }
+        }
+        return null;
+    }
+
+    /** Returns the stored thumbnail if it was made from the current image file, otherwise null. */
+    static BufferedImage read(String key, File file, Dimension box) {
+        Pack pack = getPack(box);
+        return pack == null ? null : pack.read(key, file.lastModified(), file.length());
+    }
+
+    /** Stores the thumbnail in the background. It must fit in the box. */
+    static void write(final String key, File file, final Dimension box, BufferedImage thumbnail) {
+        if (disabled) {
+            return;
+        }
+        final long modified = file.lastModified(), length = file.length();
+        final BufferedImage image = toStoredType(thumbnail);
+        writer.submit(new Runnable() {
+            @Override
+            public void run() {
+                Pack pack = getPack(box);
+                if (pack != null) {
+                    pack.write(key, modified, length, image);
+                }
+            }
+        });
+    }
+
+    private static Pack getPack(Dimension box) {
+        if (disabled) {
+            return null;
+        }
+        Pack pack = packs.get(box);
+        if (pack == null) {
+            synchronized (packs) {
+                pack = packs.get(box);
+                if (pack == null) {
+                    try {
+                        if (!FileUtil.ensureDirectoryExists(ForgeConstants.CACHE_THUMBNAILS_DIR)) {
+                            throw new IOException("could not create " + ForgeConstants.CACHE_THUMBNAILS_DIR);
+                        }
+                        pack = new Pack(new File(ForgeConstants.CACHE_THUMBNAILS_DIR, box.width + "x" + box.height + ".pack"), box);
+                        packs.put(box, pack);
+                    } catch (IOException e) {
+                        System.err.println("Thumbnail cache disabled: " + e.getMessage());
+                        disabled = true;
+                    }
+                }
+            }
+        }
+        return pack;
+    }
+
+    /** Converts the image to one whose raster is laid out the way pixels are stored. */
+    private static BufferedImage toStoredType(BufferedImage image) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_4BYTE_ABGR : BufferedImage.TYPE_3BYTE_BGR;
+        if (image.getType() == type) {
+            return image;
+        }
+        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = result.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return result;
+    }
+
+    private static byte[] encodeUTF(String key) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            new DataOutputStream(bytes).writeUTF(key);
+        } catch (IOException e) {
+            throw new RuntimeException(e); // not thrown by an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void skipFully(DataInputStream in, int count) throws IOException {
+        while (count > 0) {
+            int skipped = in.skipBytes(count);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            count -= skipped;
+        }
+    }
+
+    private static final class Entry {
+        final long offset, modified, length;
+        final int width, height;
+        final byte type;
+
+        Entry(long offset, long modified, long length, int width, int height, byte type) {
+            this.offset = offset;
+            this.modified = modified;
+            this.length = length;
+            this.width = width;
+            this.height = height;
+            this.type = type;
+        }
+
+        int getPixelBytes() {
+            return width * height * (type == TYPE_ARGB ? 4 : 3);
+        }
+    }
+
+    /**
+     * A file of thumbnails, indexed in memory. Thumbnails are appended, and a later thumbnail for
+     * the same key replaces the earlier one. When the next thumbnail would take the file past its
+     * size limit, the file is rebuilt from the index: replaced thumbnails are dropped, and so are
+     * the least recently stored ones for as long as the rest takes more than three quarters of the
+     * limit.
+     */
+    private static final class Pack {
+        /** The open file and its index, replaced together by a rebuild. */
+        private static final class Contents {
+            final FileChannel channel;
+            final Map<String, Entry> index;
+
+            Contents(FileChannel channel, Map<String, Entry> index) {
+                this.channel = channel;
+                this.index = index;
+            }
+        }
+
+        private final File file;
+        private final long maxSize;
+        private volatile Contents contents;
+        private long end;
+
+        Pack(File file, Dimension box) throws IOException {
+            this.file = file;
+            maxSize = 8 + MAX_PACK_THUMBNAILS * (box.width * box.height * 4L + 64);
+            FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+            Map<String, Entry> index = new ConcurrentHashMap<String, Entry>();
+            if (channel.size() < 8 || !loadIndex(channel, index)) {
+                index.clear();
+                ByteBuffer header = ByteBuffer.allocate(8);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                end = 8;
+            }
+            contents = new Contents(channel, index);
+        }
+
+        /** Reads the record headers, dropping a record cut off by an interrupted write. */
+        private boolean loadIndex(FileChannel channel, Map<String, Entry> index) throws IOException {
+            channel.position(0);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            long position = 8;
+            final long size = channel.size();
+            try {
+                while (position < size) {
+                    String key = in.readUTF();
+                    Entry entry = new Entry(0, in.readLong(), in.readLong(), in.readInt(), in.readInt(), in.readByte());
+                    long offset = position + encodeUTF(key).length + 8 + 8 + 4 + 4 + 1;
+                    if (entry.width <= 0 || entry.height <= 0 || offset + entry.getPixelBytes() > size) {
+                        break;
+                    }
+                    index.put(key, new Entry(offset, entry.modified, entry.length, entry.width, entry.height, entry.type));
+                    skipFully(in, entry.getPixelBytes());
+                    position = offset + entry.getPixelBytes();
+                }
+            } catch (EOFException e) {
+                // last record incomplete
+            }
+            end = position;
+            channel.truncate(end);
+            return true;
+        }
+
+        private static ByteBuffer encodeHeader(String key, long modified, long length, int width, int height, byte type) {
+            byte[] keyBytes = encodeUTF(key);
+            ByteBuffer header = ByteBuffer.allocate(keyBytes.length + 8 + 8 + 4 + 4 + 1);
+            header.put(keyBytes).putLong(modified).putLong(length).putInt(width).putInt(height).put(type).flip();
+            return header;
+        }
+
+        BufferedImage read(String key, long modified, long length) {
+            // A rebuild closes the channel read from here, which fails the read rather than mixing up files
+            Contents contents = this.contents;
+            Entry entry = contents.index.get(key);
+            if (entry == null || entry.modified != modified || entry.length != length) {
+                return null;
+            }
+            BufferedImage image = new BufferedImage(entry.width, entry.height,
+                    entry.type == TYPE_ARGB ? BufferedImage.TYPE_4BYTE_ABGR : BufferedImage.TYPE_3BYTE_BGR);
+            byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            ByteBuffer buffer = ByteBuffer.wrap(pixels);
+            try {
+                while (buffer.hasRemaining()) {
+                    if (contents.channel.read(buffer, entry.offset + buffer.position()) < 0) {
+                        return null;
+                    }
+                }
+            } catch (IOException e) {
+                return null;
+            }
+            return image;
+        }
+
+        synchronized void write(String key, long modified, long length, BufferedImage image) {
+            Entry old = contents.index.get(key);
+            if (old != null && old.modified == modified && old.length == length) {
+                return;
+            }
+            byte type = image.getType() == BufferedImage.TYPE_4BYTE_ABGR ? TYPE_ARGB : TYPE_RGB;
+            byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            ByteBuffer header = encodeHeader(key, modified, length, image.getWidth(), image.getHeight(), type);
+            if (end + header.remaining() + pixels.length > maxSize) {
+                try {
+                    rebuild();
+                } catch (IOException e) {
+                    System.err.println("Thumbnail cache disabled: could not rebuild " + file + ": " + e.getMessage());
+                    disabled = true;
+                    return;
+                }
+            }
+            Contents contents = this.contents;
+            long offset = end + header.remaining();
+            try {
+                long position = end;
+                while (header.hasRemaining()) {
+                    position += contents.channel.write(header, position);
+                }
+                ByteBuffer data = ByteBuffer.wrap(pixels);
+                while (data.hasRemaining()) {
+                    position += contents.channel.write(data, position);
+                }
+                end = position;
+                contents.index.put(key, new Entry(offset, modified, length, image.getWidth(), image.getHeight(), type));
+            } catch (IOException e) {
+                System.err.println("Could not store thumbnail for " + key + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * Copies the thumbnails in the index to a new file, the most recently stored first, until they
+         * would take more than three quarters of the size limit, and then replaces the file with it.
+         */
+        private void rebuild() throws IOException {
+            Contents old = contents;
+            List<Map.Entry<String, Entry>> records = new ArrayList<Map.Entry<String, Entry>>(old.index.entrySet());
+            // Later records are further into the file
+            Collections.sort(records, new Comparator<Map.Entry<String, Entry>>() {
+                @Override
+                public int compare(Map.Entry<String, Entry> a, Map.Entry<String, Entry> b) {
+                    return Long.compare(b.getValue().offset, a.getValue().offset);
+                }
+            });
+            long size = 8;
+            int kept = 0;
+            for (Map.Entry<String, Entry> record : records) {
+                long recordSize = encodeUTF(record.getKey()).length + 8 + 8 + 4 + 4 + 1 + record.getValue().getPixelBytes();
+                if (size + recordSize > maxSize * 3 / 4) {
+                    break;
+                }
+                size += recordSize;
+                kept++;
+            }
+            records = records.subList(0, kept);
+            Collections.reverse(records);
+
+            File rebuilt = new File(file.getPath() + ".tmp");
+            Map<String, Entry> index = new ConcurrentHashMap<String, Entry>();
+            long position = 8;
+            RandomAccessFile out = new RandomAccessFile(rebuilt, "rw");
+            try {
+                FileChannel channel = out.getChannel();
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(8);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                channel.write(header, 0);
+                for (Map.Entry<String, Entry> record : records) {
+                    Entry entry = record.getValue();
+                    header = encodeHeader(record.getKey(), entry.modified, entry.length, entry.width, entry.height, entry.type);
+                    while (header.hasRemaining()) {
+                        position += channel.write(header, position);
+                    }
+                    index.put(record.getKey(), new Entry(position, entry.modified, entry.length, entry.width, entry.height, entry.type));
+                    long copied = 0;
+                    while (copied < entry.getPixelBytes()) {
+                        long count = old.channel.transferTo(entry.offset + copied, entry.getPixelBytes() - copied, channel.position(position + copied));
+                        if (count <= 0) {
+                            throw new EOFException("thumbnail for " + record.getKey() + " cut off");
+                        }
+                        copied += count;
+                    }
+                    position += copied;
+                }
+            } finally {
+                out.close();
+            }
+
+            old.channel.close();
+            if (!file.delete() || !rebuilt.renameTo(file)) {
+                throw new IOException("could not replace it with " + rebuilt);
+            }
+            contents = new Contents(new RandomAccessFile(file, "rw").getChannel(), index);
+            end = position;
+        }
+    }
+}
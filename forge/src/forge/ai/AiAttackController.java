@@ -23,6 +23,8 @@ import com.google.common.collect.Lists;
 import forge.ai.ability.AnimateAi;
 import forge.card.CardTypeView;
 import forge.game.GameEntity;
+import forge.game.GameStateCache;
+import forge.game.GameStateCache.Query;
 import forge.game.ability.AbilityFactory;
 import forge.game.ability.ApiType;
 import forge.game.ability.effects.ProtectEffect;
@@ -57,6 +59,8 @@ import java.util.List;
  */
 public class AiAttackController {
 
+    private static final Query<List<Card>> OPPONENT_CREATURES = new Query<>("opponent creatures");
+
     // possible attackers and blockers
     private final List<Card> attackers;
     private final List<Card> blockers;
@@ -103,6 +107,15 @@ public class AiAttackController {
     } // overloaded constructor to evaluate single specified attacker
     
     public static List<Card> getOpponentCreatures(final Player defender) {
+        final GameStateCache cache = defender.getGame().getStateCache();
+        List<Card> defenders = cache.get(OPPONENT_CREATURES, defender);
+        if (defenders == null) {
+            defenders = cache.put(OPPONENT_CREATURES, defender, findOpponentCreatures(defender));
+        }
+        return new ArrayList<Card>(defenders);
+    }
+
+    private static List<Card> findOpponentCreatures(final Player defender) {
         List<Card> defenders = new ArrayList<Card>();
         defenders.addAll(defender.getCreaturesInPlay());
         Predicate<Card> canAnimate = new Predicate<Card>() {
@@ -19,6 +19,7 @@ package forge.ai;
 
 import com.esotericsoftware.minlog.Log;
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
@@ -33,6 +34,7 @@ import forge.deck.CardPool;
 import forge.deck.Deck;
 import forge.deck.DeckSection;
 import forge.game.*;
+import forge.game.GameStateCache.Query;
 import forge.game.ability.AbilityFactory;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
@@ -73,6 +75,8 @@ import java.util.Map.Entry;
  * @version $Id$
  */
 public class AiController {
+    private static final Query<Optional<SpellAbility>> PREDICTED_MAIN2_SPELL = new Query<>("predicted main 2 spell");
+
     private final Player player;
     private final Game game;
     private final AiCardMemory memory;
@@ -550,7 +554,13 @@ public class AiController {
     }
 
     public SpellAbility predictSpellToCastInMain2(ApiType exceptSA) {
-        return predictSpellToCastInMain2(exceptSA, true);
+        // asked again for every pump and attach ability considered, while the hand stays the same
+        final GameStateCache cache = game.getStateCache();
+        Optional<SpellAbility> predicted = cache.get(PREDICTED_MAIN2_SPELL, player, exceptSA);
+        if (predicted == null) {
+            predicted = cache.put(PREDICTED_MAIN2_SPELL, player, exceptSA, Optional.fromNullable(predictSpellToCastInMain2(exceptSA, true)));
+        }
+        return predicted.orNull();
     }
 
     private SpellAbility predictSpellToCastInMain2(ApiType exceptSA, boolean handOnly) {
@@ -106,6 +106,8 @@ public enum AiProps { /** */
     MOJHOSTO_NUM_LANDS_TO_ACTIVATE_JHOIRA("5"), /** */
     MOJHOSTO_CHANCE_TO_PREFER_JHOIRA_OVER_MOMIR ("50"), /** */
     MOJHOSTO_CHANCE_TO_USE_JHOIRA_COPY_INSTANT ("20"), /** */
+    SIMULATION_THREADS ("1"), /** */
+    SIMULATION_TIME_BUDGET ("0"), /** */
     // Experimental features, must be removed after extensive testing and, ideally, defaulting
     // <-- There are no experimental options here -->
     AI_IN_DANGER_THRESHOLD("4"),
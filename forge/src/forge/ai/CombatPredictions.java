@@ -0,0 +1,99 @@
+package forge.ai;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import forge.game.card.Card;
+import forge.game.combat.Combat;
+import forge.game.player.Player;
+
+/**
+ * Predicted outcomes of the fights between attackers and blockers in one arrangement of a combat, so that the attack
+ * and block heuristics, which try the same pairs over and over, work out each pair once.
+ * <p>
+ * There is one table per combat in the state cache of the game, see
+ * {@link ComputerUtilCombat#getCombatPredictions(Card, Card, Combat)}. The game drops it when the game state changes,
+ * and the table forgets its answers when the combat changes, as told by {@link Combat#getStateVersion()}.
+ */
+final class CombatPredictions {
+    enum Outcome {
+        ATTACKER_DESTROYED,
+        BLOCKER_DESTROYED
+    }
+
+    private static final class Key {
+        private final Outcome outcome;
+        private final Player ai;
+        private final Card attacker;
+        private final Card blocker;
+        private final int flags;
+
+        private Key(final Outcome outcome, final Player ai, final Card attacker, final Card blocker, final int flags) {
+            this.outcome = outcome;
+            this.ai = ai;
+            this.attacker = attacker;
+            this.blocker = blocker;
+            this.flags = flags;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = outcome.ordinal();
+            hash = hash * 31 + System.identityHashCode(ai);
+            hash = hash * 31 + System.identityHashCode(attacker);
+            hash = hash * 31 + System.identityHashCode(blocker);
+            return hash * 31 + flags;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return outcome == other.outcome && ai == other.ai && attacker == other.attacker
+                    && blocker == other.blocker && flags == other.flags;
+        }
+    }
+
+    private final Combat combat;
+    private final Map<Key, Boolean> answers = new HashMap<Key, Boolean>();
+    private long combatVersion;
+
+    CombatPredictions(final Combat combat) {
+        this.combat = combat;
+        this.combatVersion = getCombatVersion();
+    }
+
+    /**
+     * @return the predicted outcome of the fight, or null if it wasn't predicted for the current arrangement yet.
+     */
+    synchronized Boolean get(final Outcome outcome, final Player ai, final Card attacker, final Card blocker,
+            final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
+        checkVersion();
+        return answers.get(new Key(outcome, ai, attacker, blocker, getFlags(withoutAbilities, withoutAttackerStaticAbilities)));
+    }
+
+    synchronized boolean put(final Outcome outcome, final Player ai, final Card attacker, final Card blocker,
+            final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities, final boolean answer) {
+        checkVersion();
+        answers.put(new Key(outcome, ai, attacker, blocker, getFlags(withoutAbilities, withoutAttackerStaticAbilities)), answer);
+        return answer;
+    }
+
+    private static int getFlags(final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
+        return (withoutAbilities ? 1 : 0) | (withoutAttackerStaticAbilities ? 2 : 0);
+    }
+
+    private long getCombatVersion() {
+        return combat == null ? 0 : combat.getStateVersion();
+    }
+
+    private void checkVersion() {
+        final long current = getCombatVersion();
+        if (combatVersion != current) {
+            combatVersion = current;
+            answers.clear();
+        }
+    }
+}
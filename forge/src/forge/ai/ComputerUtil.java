@@ -28,6 +28,8 @@ import forge.card.mana.ManaCostShard;
 import forge.game.CardTraitPredicates;
 import forge.game.Game;
 import forge.game.GameObject;
+import forge.game.GameStateCache;
+import forge.game.GameStateCache.Query;
 import forge.game.ability.AbilityFactory;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
@@ -67,6 +69,8 @@ import java.util.*;
  * @version $Id$
  */
 public class ComputerUtil {
+    private static final Query<List<SpellAbility>> REGENERATE_ABILITIES = new Query<>("regenerate abilities");
+
     public static boolean handlePlayingSpellAbility(final Player ai, SpellAbility sa, final Game game) {
         return handlePlayingSpellAbility(ai, sa, game, null);
     }
@@ -846,12 +850,77 @@ public class ComputerUtil {
 
         final Player controller = card.getController();
         final Game game = controller.getGame();
-        final CardCollectionView l = controller.getCardsIn(ZoneType.Battlefield);
-        for (final Card c : l) {
+        for (final SpellAbility sa : getRegenerateAbilities(controller)) {
+            final Card c = sa.getHostCard();
+            // This try/catch should fix the "computer is thinking" bug
+            try {
+                sa.setActivatingPlayer(controller);
+
+                if (controller == ai) {
+                    final Cost abCost = sa.getPayCosts();
+                    if (abCost != null) {
+                        if (!ComputerUtilCost.checkLifeCost(controller, abCost, c, 4, sa)) {
+                            continue; // Won't play ability
+                        }
+
+                        if (!ComputerUtilCost.checkSacrificeCost(controller, abCost, c, sa)) {
+                            continue; // Won't play ability
+                        }
+
+                        if (!ComputerUtilCost.checkCreatureSacrificeCost(controller, abCost, c, sa)) {
+                            continue; // Won't play ability
+                        }
+                    }
+                } else if(checkCost) {
+                	final Cost abCost = sa.getPayCosts();
+                    boolean sacrifice = false;
+                    for (final CostPart part : abCost.getCostParts()) {
+                        if (part instanceof CostSacrifice) {
+                        	sacrifice = true;
+                        	break;
+                        }
+                    }
+                    if(sacrifice) {
+                    	continue;
+                    }
+                }
+
+                final TargetRestrictions tgt = sa.getTargetRestrictions();
+                if (tgt != null) {
+                    if (CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), tgt.getValidTgts(), controller, sa.getHostCard(), sa).contains(card)) {
+                        canRegen = true;
+                    }
+                } else if (AbilityUtils.getDefinedCards(sa.getHostCard(), sa.getParam("Defined"), sa).contains(card)) {
+                    canRegen = true;
+                }
+
+            }  catch (final Exception ex) {
+                throw new RuntimeException(TextUtil.concatNoSpace("There is an error in the card code for ", c.getName(), ":", ex.getMessage()), ex);
+            } 
+        }
+
+        ComputerUtilCombat.setCombatRegenTestSuppression(false);
+        return canRegen;
+    }
+
+    /**
+     * @return the regenerate abilities the player can activate and pay for right now.
+     */
+    private static List<SpellAbility> getRegenerateAbilities(final Player controller) {
+        final GameStateCache cache = controller.getGame().getStateCache();
+        List<SpellAbility> abilities = cache.get(REGENERATE_ABILITIES, controller);
+        if (abilities == null) {
+            abilities = cache.put(REGENERATE_ABILITIES, controller, findRegenerateAbilities(controller));
+        }
+        return abilities;
+    }
+
+    private static List<SpellAbility> findRegenerateAbilities(final Player controller) {
+        final List<SpellAbility> abilities = Lists.newArrayList();
+        for (final Card c : controller.getCardsIn(ZoneType.Battlefield)) {
             for (final SpellAbility sa : c.getSpellAbilities()) {
                 // This try/catch should fix the "computer is thinking" bug
                 try {
-
                     if (!sa.isAbility() || sa.getApi() != ApiType.Regenerate) {
                         continue; // Not a Regenerate ability
                     }
@@ -859,53 +928,13 @@ public class ComputerUtil {
                     if (!(sa.canPlay() && ComputerUtilCost.canPayCost(sa, controller))) {
                         continue; // Can't play ability
                     }
-
-                    if (controller == ai) {
-                        final Cost abCost = sa.getPayCosts();
-                        if (abCost != null) {
-                            if (!ComputerUtilCost.checkLifeCost(controller, abCost, c, 4, sa)) {
-                                continue; // Won't play ability
-                            }
-
-                            if (!ComputerUtilCost.checkSacrificeCost(controller, abCost, c, sa)) {
-                                continue; // Won't play ability
-                            }
-
-                            if (!ComputerUtilCost.checkCreatureSacrificeCost(controller, abCost, c, sa)) {
-                                continue; // Won't play ability
-                            }
-                        }
-                    } else if(checkCost) {
-                    	final Cost abCost = sa.getPayCosts();
-                        boolean sacrifice = false;
-                        for (final CostPart part : abCost.getCostParts()) {
-                            if (part instanceof CostSacrifice) {
-                            	sacrifice = true;
-                            	break;
-                            }
-                        }
-                        if(sacrifice) {
-                        	continue;
-                        }
-                    }
-
-                    final TargetRestrictions tgt = sa.getTargetRestrictions();
-                    if (tgt != null) {
-                        if (CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), tgt.getValidTgts(), controller, sa.getHostCard(), sa).contains(card)) {
-                            canRegen = true;
-                        }
-                    } else if (AbilityUtils.getDefinedCards(sa.getHostCard(), sa.getParam("Defined"), sa).contains(card)) {
-                        canRegen = true;
-                    }
-
+                    abilities.add(sa);
                 }  catch (final Exception ex) {
                     throw new RuntimeException(TextUtil.concatNoSpace("There is an error in the card code for ", c.getName(), ":", ex.getMessage()), ex);
-                } 
+                }
             }
         }
-
-        ComputerUtilCombat.setCombatRegenTestSuppression(false);
-        return canRegen;
+        return abilities;
     }
 
     public static int possibleDamagePrevention(final Card card) {
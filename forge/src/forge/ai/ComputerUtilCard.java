@@ -1,5 +1,6 @@
 package forge.ai;
 
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
@@ -15,6 +16,8 @@ import forge.deck.Deck;
 import forge.deck.DeckSection;
 import forge.game.Game;
 import forge.game.GameObject;
+import forge.game.GameStateCache;
+import forge.game.GameStateCache.Query;
 import forge.game.ability.AbilityFactory;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
@@ -267,7 +270,7 @@ public class ComputerUtilCard {
      * @return the card
      */
     public static Card getBestCreatureAI(final Iterable<Card> list) {
-        return Aggregates.itemWithMax(Iterables.filter(list, CardPredicates.Presets.CREATURES), ComputerUtilCard.creatureEvaluator);
+        return Aggregates.itemWithMax(Iterables.filter(list, CardPredicates.Presets.CREATURES), ComputerUtilCard.cachedCreatureEvaluator);
     }
 
     /**
@@ -279,7 +282,7 @@ public class ComputerUtilCard {
      * @return a {@link forge.game.card.Card} object.
      */
     public static Card getWorstCreatureAI(final Iterable<Card> list) {
-        return Aggregates.itemWithMin(Iterables.filter(list, CardPredicates.Presets.CREATURES), ComputerUtilCard.creatureEvaluator);
+        return Aggregates.itemWithMin(Iterables.filter(list, CardPredicates.Presets.CREATURES), ComputerUtilCard.cachedCreatureEvaluator);
     }
 
     // This selection rates tokens higher
@@ -425,6 +428,13 @@ public class ComputerUtilCard {
     };
 
     private static final CreatureEvaluator creatureEvaluator = new CreatureEvaluator();
+    private static final Query<Integer> CREATURE_VALUE = new Query<>("creature value");
+    private static final Function<Card, Integer> cachedCreatureEvaluator = new Function<Card, Integer>() {
+        @Override
+        public Integer apply(final Card c) {
+            return evaluateCreature(c);
+        }
+    };
 
     /**
      * <p>
@@ -436,11 +446,22 @@ public class ComputerUtilCard {
      * @return a int.
      */
     public static int evaluateCreature(final Card c) {
-        return creatureEvaluator.evaluateCreature(c);
+        return evaluateCreature(c, true, true);
     }
 
     public static int evaluateCreature(final Card c, final boolean considerPT, final boolean considerCMC) {
-        return creatureEvaluator.evaluateCreature(c, considerPT, considerCMC);
+        final Game game = c.getGame();
+        if (game == null || !game.isCardObjectInZone(c)) {
+            // changes to copies don't update the state version
+            return creatureEvaluator.evaluateCreature(c, considerPT, considerCMC);
+        }
+        final Integer flags = (considerPT ? 2 : 0) + (considerCMC ? 1 : 0);
+        final GameStateCache cache = game.getStateCache();
+        Integer value = cache.get(CREATURE_VALUE, c, flags);
+        if (value == null) {
+            value = cache.put(CREATURE_VALUE, c, flags, creatureEvaluator.evaluateCreature(c, considerPT, considerCMC));
+        }
+        return value;
     }
 
     public static int evaluatePermanentList(final CardCollectionView list) {
@@ -452,7 +473,7 @@ public class ComputerUtilCard {
     }
 
     public static int evaluateCreatureList(final CardCollectionView list) {
-        return Aggregates.sum(list, creatureEvaluator);
+        return Aggregates.sum(list, cachedCreatureEvaluator);
     }
     
     public static Map<String, Integer> evaluateCreatureListByName(final CardCollectionView list) {
@@ -25,9 +25,14 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import org.apache.commons.lang3.tuple.Pair;
+
+import forge.ai.CombatPredictions.Outcome;
 import forge.game.CardTraitBase;
 import forge.game.Game;
 import forge.game.GameEntity;
+import forge.game.GameStateCache;
+import forge.game.GameStateCache.Query;
 import forge.game.GlobalRuleChange;
 import forge.game.ability.AbilityFactory;
 import forge.game.ability.AbilityUtils;
@@ -64,10 +69,20 @@ import forge.util.collect.FCollection;
  */
 public class ComputerUtilCombat {
 
-    // A special flag used in ComputerUtil#canRegenerate to avoid recursive reentry and stack overflow
-    private static boolean dontTestRegen = false;
+    private static final Query<Boolean> CAN_ATTACK_NEXT_TURN = new Query<>("can attack next turn");
+    private static final Query<CombatPredictions> COMBAT_PREDICTIONS = new Query<>("combat predictions");
+    private static final Query<List<Pair<Card, SpellAbility>>> KEYWORD_PUMP_ABILITIES = new Query<>("keyword pump abilities");
+
+    // A special flag used in ComputerUtil#canRegenerate to avoid recursive reentry and stack overflow.
+    // Tracked per thread, so that games simulated side by side don't suppress each other's tests.
+    private static final ThreadLocal<Boolean> dontTestRegen = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return Boolean.FALSE;
+        }
+    };
     public static void setCombatRegenTestSuppression(boolean shouldSuppress) {
-        dontTestRegen = shouldSuppress;
+        dontTestRegen.set(shouldSuppress);
     }
 
     /**
@@ -103,6 +118,19 @@ public class ComputerUtilCombat {
         if (!atacker.isCreature()) {
             return false;
         }
+        final Game game = atacker.getGame();
+        if (game == null || !game.isCardObjectInZone(atacker)) {
+            return checkCanAttackNextTurn(atacker, defender);
+        }
+        final GameStateCache cache = game.getStateCache();
+        Boolean canAttack = cache.get(CAN_ATTACK_NEXT_TURN, atacker, defender);
+        if (canAttack == null) {
+            canAttack = cache.put(CAN_ATTACK_NEXT_TURN, atacker, defender, checkCanAttackNextTurn(atacker, defender));
+        }
+        return canAttack;
+    }
+
+    private static boolean checkCanAttackNextTurn(final Card atacker, final GameEntity defender) {
         if (!CombatUtil.canAttackNextTurn(atacker, defender)) {
             return false;
         }
@@ -1818,6 +1846,20 @@ public class ComputerUtilCombat {
     }
     public static boolean canDestroyAttacker(Player ai, Card attacker, Card blocker, final Combat combat,
             final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
+        final CombatPredictions predictions = getCombatPredictions(attacker, blocker, combat);
+        if (predictions == null) {
+            return checkCanDestroyAttacker(ai, attacker, blocker, combat, withoutAbilities, withoutAttackerStaticAbilities);
+        }
+        Boolean destroyed = predictions.get(Outcome.ATTACKER_DESTROYED, ai, attacker, blocker, withoutAbilities, withoutAttackerStaticAbilities);
+        if (destroyed == null) {
+            destroyed = predictions.put(Outcome.ATTACKER_DESTROYED, ai, attacker, blocker, withoutAbilities, withoutAttackerStaticAbilities,
+                    checkCanDestroyAttacker(ai, attacker, blocker, combat, withoutAbilities, withoutAttackerStaticAbilities));
+        }
+        return destroyed;
+    }
+
+    private static boolean checkCanDestroyAttacker(Player ai, Card attacker, Card blocker, final Combat combat,
+            final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
         // Can activate transform ability
         if (!withoutAbilities) {
             attacker = canTransform(attacker);
@@ -1997,7 +2039,7 @@ public class ComputerUtilCombat {
             }
         } // flanking
         
-        if (blocker.hasKeyword(Keyword.INDESTRUCTIBLE) || dontTestRegen
+        if (blocker.hasKeyword(Keyword.INDESTRUCTIBLE) || dontTestRegen.get()
                 || ComputerUtil.canRegenerate(blocker.getController(), blocker, true)) {
             return false;
         }
@@ -2074,6 +2116,20 @@ public class ComputerUtilCombat {
     }
     public static boolean canDestroyBlocker(Player ai, Card blocker, Card attacker, final Combat combat,
             final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
+        final CombatPredictions predictions = getCombatPredictions(attacker, blocker, combat);
+        if (predictions == null) {
+            return checkCanDestroyBlocker(ai, blocker, attacker, combat, withoutAbilities, withoutAttackerStaticAbilities);
+        }
+        Boolean destroyed = predictions.get(Outcome.BLOCKER_DESTROYED, ai, attacker, blocker, withoutAbilities, withoutAttackerStaticAbilities);
+        if (destroyed == null) {
+            destroyed = predictions.put(Outcome.BLOCKER_DESTROYED, ai, attacker, blocker, withoutAbilities, withoutAttackerStaticAbilities,
+                    checkCanDestroyBlocker(ai, blocker, attacker, combat, withoutAbilities, withoutAttackerStaticAbilities));
+        }
+        return destroyed;
+    }
+
+    private static boolean checkCanDestroyBlocker(Player ai, Card blocker, Card attacker, final Combat combat,
+            final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
         // Can activate transform ability
         if (!withoutAbilities) {
             attacker = canTransform(attacker);
@@ -2521,44 +2577,84 @@ public class ComputerUtilCombat {
 
     public final static boolean canGainKeyword(final Card combatant, final List<String> keywords, final Combat combat) {
     	final Player controller = combatant.getController();
-    	for (Card c : controller.getCardsIn(ZoneType.Battlefield)) {
-	    	for (SpellAbility ability : c.getAllSpellAbilities()) {
-	            if (!(ability instanceof AbilityActivated) || ability.getPayCosts() == null) {
-	                continue;
-	            }
-	            if (ability.getApi() != ApiType.Pump) {
-	                continue;
-	            }
-	
-	            if (ability.hasParam("ActivationPhases") || ability.hasParam("SorcerySpeed")) {
-	                continue;
-	            }
-	
-	            if (!ability.hasParam("KW") || !ComputerUtilCost.canPayCost(ability, controller)) {
-	                continue;
-	            }
-	            if (c != combatant) {
-	            	if (ability.getTargetRestrictions() == null || !ability.canTarget(combatant)) {
+    	for (Pair<Card, SpellAbility> pump : getKeywordPumpAbilities(controller)) {
+    	    final Card c = pump.getLeft();
+    	    final SpellAbility ability = pump.getRight();
+            if (c != combatant) {
+            	if (ability.getTargetRestrictions() == null || !ability.canTarget(combatant)) {
+            		continue;
+            	}
+            	//the AI will will fail to predict tapping of attackers
+            	if (controller.getGame().getPhaseHandler().isPlayerTurn(controller)) {
+	            	if (combat == null || !combat.isAttacking(combatant) || combat.isAttacking(c)) {
 	            		continue;
 	            	}
-	            	//the AI will will fail to predict tapping of attackers
-	            	if (controller.getGame().getPhaseHandler().isPlayerTurn(controller)) {
-		            	if (combat == null || !combat.isAttacking(combatant) || combat.isAttacking(c)) {
-		            		continue;
-		            	}
-	            	}
+            	}
 
-	            }
-	            for (String keyword : keywords) {
-	            	if (ability.getParam("KW").contains(keyword)) {
-	            		return true;
-	            	}
-	            }
-	        }
+            }
+            for (String keyword : keywords) {
+            	if (ability.getParam("KW").contains(keyword)) {
+            		return true;
+            	}
+            }
     	}
     
         return false;
     }
+
+    /**
+     * @return the instant speed pump abilities granting keywords that the player can pay for, with their cards.
+     */
+    private static List<Pair<Card, SpellAbility>> getKeywordPumpAbilities(final Player controller) {
+        final GameStateCache cache = controller.getGame().getStateCache();
+        List<Pair<Card, SpellAbility>> pumps = cache.get(KEYWORD_PUMP_ABILITIES, controller);
+        if (pumps == null) {
+            pumps = cache.put(KEYWORD_PUMP_ABILITIES, controller, findKeywordPumpAbilities(controller));
+        }
+        return pumps;
+    }
+
+    private static List<Pair<Card, SpellAbility>> findKeywordPumpAbilities(final Player controller) {
+        final List<Pair<Card, SpellAbility>> pumps = Lists.newArrayList();
+        for (Card c : controller.getCardsIn(ZoneType.Battlefield)) {
+            for (SpellAbility ability : c.getAllSpellAbilities()) {
+                if (!(ability instanceof AbilityActivated) || ability.getPayCosts() == null) {
+                    continue;
+                }
+                if (ability.getApi() != ApiType.Pump) {
+                    continue;
+                }
+
+                if (ability.hasParam("ActivationPhases") || ability.hasParam("SorcerySpeed")) {
+                    continue;
+                }
+
+                if (!ability.hasParam("KW") || !ComputerUtilCost.canPayCost(ability, controller)) {
+                    continue;
+                }
+                pumps.add(Pair.of(c, ability));
+            }
+        }
+        return pumps;
+    }
+
+    /**
+     * @return the predictions for fights in the combat, or null if they can't be cached: when the attacker or the
+     *         blocker isn't the card object in its zone, like the transformed copies made to look ahead, or when
+     *         regeneration isn't tested because this is asked from {@link ComputerUtil#canRegenerate}.
+     */
+    static CombatPredictions getCombatPredictions(final Card attacker, final Card blocker, final Combat combat) {
+        final Game game = attacker.getGame();
+        if (game == null || dontTestRegen.get() || !game.isCardObjectInZone(attacker) || !game.isCardObjectInZone(blocker)) {
+            return null;
+        }
+        final GameStateCache cache = game.getStateCache();
+        CombatPredictions predictions = cache.get(COMBAT_PREDICTIONS, combat);
+        if (predictions == null) {
+            predictions = cache.put(COMBAT_PREDICTIONS, combat, new CombatPredictions(combat));
+        }
+        return predictions;
+    }
     
     /**
      * Transforms into alternate state if possible
@@ -12,6 +12,8 @@ import forge.card.mana.ManaCostParser;
 import forge.card.mana.ManaCostShard;
 import forge.game.Game;
 import forge.game.GameActionUtil;
+import forge.game.GameStateCache;
+import forge.game.GameStateCache.Query;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
 import forge.game.card.*;
@@ -42,6 +44,11 @@ import java.util.*;
 public class ComputerUtilMana {
     private final static boolean DEBUG_MANA_PAYMENT = false;
 
+    private static final Query<Integer> MANA_ESTIMATE_FROM_SOURCES = new Query<>("mana estimate from sources");
+    private static final Query<CardCollection> AVAILABLE_MANA_SOURCES = new Query<>("available mana sources");
+    private static final Query<ListMultimap<Integer, SpellAbility>> SOURCES_BY_MANA_COLOR = new Query<>("sources by mana color");
+    private static final Query<List<ReplacementEffect>> MANA_REPLACEMENTS = new Query<>("mana replacement effects");
+
     public static boolean canPayManaCost(ManaCostBeingPaid cost, final SpellAbility sa, final Player ai) {
         cost = new ManaCostBeingPaid(cost); //check copy of cost so it doesn't modify the exist cost being paid
         return payManaCost(cost, sa, ai, true, true);
@@ -1165,6 +1172,16 @@ public class ComputerUtilMana {
     }
 
     public static int getAvailableManaEstimate(final Player p, final boolean checkPlayable) {
+        final GameStateCache cache = p.getGame().getStateCache();
+        Integer fromSources = cache.get(MANA_ESTIMATE_FROM_SOURCES, p, checkPlayable);
+        if (fromSources == null) {
+            fromSources = cache.put(MANA_ESTIMATE_FROM_SOURCES, p, checkPlayable, getManaEstimateFromSources(p, checkPlayable));
+        }
+        // the mana pool isn't part of the state version, so it's added outside of the cache
+        return fromSources + p.getManaPool().totalMana();
+    }
+
+    private static int getManaEstimateFromSources(final Player p, final boolean checkPlayable) {
         int availableMana = 0;
 
         final CardCollectionView list = new CardCollection(p.getCardsIn(ZoneType.Battlefield));
@@ -1206,8 +1223,6 @@ public class ComputerUtilMana {
             availableMana += maxProduced;
         }
 
-        availableMana += p.getManaPool().totalMana();
-
         if (producedWithCost > 0 && !hasSourcesWithNoManaCost) {
             availableMana -= producedWithCost; // probably can't activate them, no other mana available
         }
@@ -1217,6 +1232,15 @@ public class ComputerUtilMana {
 
     //This method is currently used by AI to estimate available mana
     public static CardCollection getAvailableManaSources(final Player ai, final boolean checkPlayable) {
+        final GameStateCache cache = ai.getGame().getStateCache();
+        CardCollection sources = cache.get(AVAILABLE_MANA_SOURCES, ai, checkPlayable);
+        if (sources == null) {
+            sources = cache.put(AVAILABLE_MANA_SOURCES, ai, checkPlayable, findAvailableManaSources(ai, checkPlayable));
+        }
+        return new CardCollection(sources);
+    }
+
+    private static CardCollection findAvailableManaSources(final Player ai, final boolean checkPlayable) {
         final CardCollectionView list = CardCollection.combine(ai.getCardsIn(ZoneType.Battlefield), ai.getCardsIn(ZoneType.Hand));
         final List<Card> manaSources = CardLists.filter(list, new Predicate<Card>() {
             @Override
@@ -1327,10 +1351,22 @@ public class ComputerUtilMana {
 
     //This method is currently used by AI to estimate mana available
     private static ListMultimap<Integer, SpellAbility> groupSourcesByManaColor(final Player ai, boolean checkPlayable) {
-        final ListMultimap<Integer, SpellAbility> manaMap = ArrayListMultimap.create();
-        final Game game = ai.getGame();
+        final GameStateCache cache = ai.getGame().getStateCache();
+        ListMultimap<Integer, SpellAbility> manaMap = cache.get(SOURCES_BY_MANA_COLOR, ai, checkPlayable);
+        if (manaMap == null) {
+            manaMap = cache.put(SOURCES_BY_MANA_COLOR, ai, checkPlayable, findSourcesByManaColor(ai, checkPlayable));
+        }
+        return ArrayListMultimap.create(manaMap);
+    }
+
+    private static List<ReplacementEffect> getManaReplacementEffects(final Game game) {
+        final GameStateCache cache = game.getStateCache();
+        List<ReplacementEffect> replacementEffects = cache.get(MANA_REPLACEMENTS, game);
+        if (replacementEffects != null) {
+            return replacementEffects;
+        }
 
-        List<ReplacementEffect> replacementEffects = new ArrayList<ReplacementEffect>();
+        replacementEffects = new ArrayList<ReplacementEffect>();
         for (final Player p : game.getPlayers()) {
             for (final Card crd : p.getAllCards()) {
                 for (final ReplacementEffect replacementEffect : crd.getReplacementEffects()) {
@@ -1342,6 +1378,12 @@ public class ComputerUtilMana {
                 }
             }
         }
+        return cache.put(MANA_REPLACEMENTS, game, replacementEffects);
+    }
+
+    private static ListMultimap<Integer, SpellAbility> findSourcesByManaColor(final Player ai, boolean checkPlayable) {
+        final ListMultimap<Integer, SpellAbility> manaMap = ArrayListMultimap.create();
+        final List<ReplacementEffect> replacementEffects = getManaReplacementEffects(ai.getGame());
 
         // Loop over all current available mana sources
         for (final Card sourceCard : getAvailableManaSources(ai, checkPlayable)) {
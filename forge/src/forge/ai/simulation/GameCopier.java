@@ -3,6 +3,7 @@ package forge.ai.simulation;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
@@ -36,6 +37,8 @@ import forge.game.staticability.StaticAbility;
 import forge.game.trigger.TriggerType;
 import forge.game.zone.PlayerZoneBattlefield;
 import forge.game.zone.ZoneType;
+import forge.util.MyRandom;
+import forge.util.SplitMixRandom;
 
 public class GameCopier {
     private static final ZoneType[] ZONES = new ZoneType[] {
@@ -69,6 +72,27 @@ public class GameCopier {
         return makeCopy(null);
     }
     public Game makeCopy(PhaseType advanceToPhase) {
+        // Copying revalidates caches and static effects of the original game, so copies of the
+        // same game requested from different simulation threads must not overlap.
+        synchronized (origGame) {
+            return copyGame(advanceToPhase);
+        }
+    }
+
+    /**
+     * Seeds copies without drawing from the original game's random, so that simulating doesn't change
+     * the sequence of the real game. Simulation workers draw from their own split random; on the thread
+     * playing the game the seed is derived from the game's seed and state version instead.
+     */
+    private long nextCopySeed() {
+        Random rnd = MyRandom.getRandom();
+        if (rnd != origGame.getRandom()) {
+            return rnd.nextLong();
+        }
+        return new SplitMixRandom(origGame.getSeed() ^ origGame.getStateVersion()).nextLong();
+    }
+
+    private Game copyGame(PhaseType advanceToPhase) {
         List<RegisteredPlayer> origPlayers = origGame.getMatch().getPlayers();
         List<RegisteredPlayer> newPlayers = new ArrayList<>();
         for (RegisteredPlayer p : origPlayers) {
@@ -76,6 +100,7 @@ public class GameCopier {
         }
         GameRules currentRules = origGame.getRules();
         Match newMatch = new Match(currentRules, newPlayers, origGame.getView().getTitle());
+        newMatch.setNextGameSeed(nextCopySeed());
         Game newGame = new Game(newPlayers, currentRules, newMatch);
         for (int i = 0; i < origGame.getPlayers().size(); i++) {
             Player origPlayer = origGame.getPlayers().get(i);
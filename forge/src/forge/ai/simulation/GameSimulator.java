@@ -19,6 +19,13 @@ import forge.game.spellability.TargetChoices;
 import forge.game.spellability.TargetRestrictions;
 import forge.util.TextUtil;
 
+/**
+ * Plays a spell ability out on a full copy of the game made by {@link GameCopier} and scores the result.
+ * <p>
+ * There is no undo or copy-on-write mode: effects change the game through many separate setters on
+ * Game, Card and Player with no single place to record them, so a rollback could not be shown to restore
+ * everything. Simulations pay for one copy each instead, and share the score of the original game.
+ */
 public class GameSimulator {
     public static boolean COPY_STACK = false;
     final private SimulationController controller;
@@ -31,6 +38,17 @@ public class GameSimulator {
     private SpellAbilityChoicesIterator interceptor;
 
     public GameSimulator(SimulationController controller, Game origGame, Player origAiPlayer, PhaseType advanceToPhase) {
+        this(controller, origGame, origAiPlayer, advanceToPhase, null);
+    }
+
+    /**
+     * @param knownOrigScore the score of origGame if the caller has already evaluated it. Evaluating
+     * the original game (and checking the copy against it) makes its own copies of the game to
+     * simulate combat, so sibling simulators on the same original game should share one score
+     * instead of paying for that again. When non-null, the copy is assumed to have been verified
+     * by an earlier simulator of the same game.
+     */
+    public GameSimulator(SimulationController controller, Game origGame, Player origAiPlayer, PhaseType advanceToPhase, Score knownOrigScore) {
         this.controller = controller;
         copier = new GameCopier(origGame);
         simGame = copier.makeCopy(advanceToPhase);
@@ -39,13 +57,21 @@ public class GameSimulator {
         eval = new GameStateEvaluator();
         
         origLines = new ArrayList<String>();
-        debugLines = origLines;
+        setDebugLines(origLines);
 
-        debugPrint = false;
-        origScore = eval.getScoreForGameState(origGame, origAiPlayer);
+        setDebugPrint(false);
+        if (knownOrigScore != null) {
+            origScore = knownOrigScore;
+        } else {
+            // Evaluating fills caches of the original game, so hold the lock GameCopier takes while
+            // simulators on other threads copy it.
+            synchronized (origGame) {
+                origScore = eval.getScoreForGameState(origGame, origAiPlayer);
 
-        if (advanceToPhase == null) {
-            ensureGameCopyScoreMatches(origGame, origAiPlayer);
+                if (advanceToPhase == null) {
+                    ensureGameCopyScoreMatches(origGame, origAiPlayer);
+                }
+            }
         }
 
         // If the stack on the original game is not empty, resolve it
@@ -53,26 +79,31 @@ public class GameSimulator {
         // want to compare to the eval score after simulating.
         if (COPY_STACK && !origGame.getStackZone().isEmpty()) {
             origLines = new ArrayList<String>();
-            debugLines = origLines;
+            setDebugLines(origLines);
             Game copyOrigGame = copier.makeCopy();
             Player copyOrigAiPlayer = copyOrigGame.getPlayers().get(1);
             resolveStack(copyOrigGame, copyOrigGame.getPlayers().get(0));
             origScore = eval.getScoreForGameState(copyOrigGame, copyOrigAiPlayer);
         }
 
-        debugPrint = false;
-        debugLines = null;
+        setDebugPrint(false);
+        setDebugLines(null);
     }
 
     private void ensureGameCopyScoreMatches(Game origGame, Player origAiPlayer) {
+        // Compare without collecting debug output first, it's only needed to explain a mismatch.
+        setDebugLines(null);
+        if (eval.getScoreForGameState(simGame, aiPlayer).equals(origScore)) {
+            return;
+        }
         eval.setDebugging(true);
         List<String> simLines = new ArrayList<String>();
-        debugLines = simLines;
+        setDebugLines(simLines);
         Score simScore = eval.getScoreForGameState(simGame, aiPlayer);
         if (!simScore.equals(origScore)) {
             // Re-eval orig with debug printing.
             origLines = new ArrayList<String>();
-            debugLines = origLines;
+            setDebugLines(origLines);
             eval.getScoreForGameState(origGame, origAiPlayer);
             // Print debug info.
             printDiff(origLines, simLines);
@@ -113,14 +144,35 @@ public class GameSimulator {
         }
     }
 
-    public static boolean debugPrint;
-    public static List<String> debugLines;
+    // Debug output is tracked per thread, so that simulations running side by side on the
+    // workers of SpellAbilityPicker's evaluation pool don't interleave their lines.
+    private static class DebugState {
+        boolean print;
+        List<String> lines;
+    }
+    private static final ThreadLocal<DebugState> debugState = new ThreadLocal<DebugState>() {
+        @Override
+        protected DebugState initialValue() {
+            return new DebugState();
+        }
+    };
+
+    public static boolean isDebugPrint() {
+        return debugState.get().print;
+    }
+    public static void setDebugPrint(boolean debugPrint) {
+        debugState.get().print = debugPrint;
+    }
+    private static void setDebugLines(List<String> debugLines) {
+        debugState.get().lines = debugLines;
+    }
     public static void debugPrint(String str) {
-        if (debugPrint) {
+        DebugState state = debugState.get();
+        if (state.print) {
             System.out.println(str);
         }
-        if (debugLines!=null) {
-            debugLines.add(str);
+        if (state.lines != null) {
+            state.lines.add(str);
         }
     }
     
@@ -186,7 +238,7 @@ public class GameSimulator {
                 saOrSubSa = saOrSubSa.getSubAbility();
             } while (saOrSubSa != null);
 
-            if (debugPrint && !sa.getAllTargetChoices().isEmpty()) {
+            if (isDebugPrint() && !sa.getAllTargetChoices().isEmpty()) {
                 debugPrint("Targets: ");
                 for (TargetChoices target : sa.getAllTargetChoices()) {
                     System.out.print(target.getTargetedString());
@@ -208,24 +260,32 @@ public class GameSimulator {
         Player opponent = ComputerUtil.getOpponentFor(aiPlayer);
         resolveStack(simGame, opponent);
 
+        // Another branch may already have reached (and searched below) this same state.
+        String state = TranspositionTable.describeGameState(simGame, aiPlayer);
+        Score knownScore = controller.lookupTransposition(state, origSa);
+        if (knownScore != null) {
+            return knownScore;
+        }
+
         // TODO: If this is during combat, before blockers are declared,
         // we should simulate how combat will resolve and evaluate that
         // state instead!
         List<String> simLines = null;
-        if (debugPrint) {
+        if (isDebugPrint()) {
             debugPrint("SimGame:");
             simLines = new ArrayList<String>();
-            debugLines = simLines;
-            debugPrint = false;
+            setDebugLines(simLines);
+            setDebugPrint(false);
         }
         Score score = eval.getScoreForGameState(simGame, aiPlayer);
         if (simLines != null) {
-            debugLines = null;
-            debugPrint = true;
+            setDebugLines(null);
+            setDebugPrint(true);
             printDiff(origLines, simLines);
         }
         controller.possiblyCacheResult(score, origSa);
-        if (controller.shouldRecurse() && !simGame.isGameOver()) {
+        boolean recursed = controller.shouldRecurse() && !simGame.isGameOver();
+        if (recursed) {
             controller.push(sa, score, this);
             SpellAbilityPicker sim = new SpellAbilityPicker(simGame, aiPlayer);
             SpellAbility nextSa = sim.chooseSpellAbilityToPlay(controller);
@@ -234,6 +294,7 @@ public class GameSimulator {
             }
             controller.pop(score, nextSa);
         }
+        controller.storeTransposition(state, score, recursed);
 
         return score;
     }
@@ -136,6 +136,26 @@ public class Plan {
             this.modesStr = modesStr;
         }
 
+        /**
+         * Copies the decisions, linking the first copy to prevDecision and each following one to the
+         * copy before it, so that a line found in one search can be followed in another.
+         */
+        static List<Decision> copyLine(List<Decision> line, Decision prevDecision) {
+            List<Decision> copies = new ArrayList<>(line.size());
+            for (Decision d : line) {
+                Decision copy = new Decision(d.initialScore, prevDecision, d.saRef);
+                copy.targets = d.targets;
+                if (d.choices != null) {
+                    copy.choices = new ArrayList<>(d.choices);
+                }
+                copy.modes = d.modes;
+                copy.modesStr = d.modesStr;
+                copies.add(copy);
+                prevDecision = copy;
+            }
+            return copies;
+        }
+
         public String toString(boolean showHostCard) {
             StringBuilder sb = new StringBuilder();
             if (!showHostCard) {
@@ -11,13 +11,23 @@ import forge.game.player.Player;
 import forge.game.spellability.SpellAbility;
 
 public class SimulationController {
-    private static int MAX_DEPTH = 3;
+    static final int MAX_DEPTH = 3;
+
+    private final int maxDepth;
+    private final long deadline;
+    private final TranspositionTable transpositions;
 
     private List<Plan.Decision> currentStack;
     private List<Score> scoreStack;
     private List<GameSimulator> simulatorStack;
     private Plan.Decision bestSequence; // last action of sequence
     private Score bestScore;
+    // best line found below each recursion level, by its last decision, null while none beats the level's state
+    private List<Score> levelBestScores;
+    private List<Plan.Decision> levelBestSequences;
+    // last decision of the line that reached the score last done evaluating, or of the line found below a level
+    private Plan.Decision lastSequence;
+    private Score lastSequenceScore;
     private List<CachedEffect> effectCache = new ArrayList<CachedEffect>();
     private GameObject[] currentHostAndTarget;
 
@@ -38,11 +48,27 @@ public class SimulationController {
     }
 
     public SimulationController(Score score) {
+        this(score, MAX_DEPTH, 0, new TranspositionTable());
+    }
+
+    /**
+     * @param maxDepth how many actions deep to search after the evaluated one
+     * @param deadline wall-clock time in milliseconds after which no further recursion happens, or 0 for none
+     * @param transpositions results of earlier searches, can be shared with other controllers of the same game
+     */
+    public SimulationController(Score score, int maxDepth, long deadline, TranspositionTable transpositions) {
+        this.maxDepth = maxDepth;
+        this.deadline = deadline;
+        this.transpositions = transpositions;
         bestScore = score;
         scoreStack = new ArrayList<Score>();
         scoreStack.add(score);
         simulatorStack = new ArrayList<GameSimulator>();
         currentStack = new ArrayList<Plan.Decision>();
+        levelBestScores = new ArrayList<Score>();
+        levelBestScores.add(score);
+        levelBestSequences = new ArrayList<Plan.Decision>();
+        levelBestSequences.add(null);
     }
     
     private int getRecursionDepth() {
@@ -50,7 +76,51 @@ public class SimulationController {
     }
     
     public boolean shouldRecurse() {
-        return bestScore.value != Integer.MAX_VALUE && getRecursionDepth() < MAX_DEPTH;
+        if (bestScore.value == Integer.MAX_VALUE || getRecursionDepth() >= maxDepth) {
+            return false;
+        }
+        return deadline == 0 || System.currentTimeMillis() < deadline;
+    }
+
+    private int getRemainingDepth() {
+        return maxDepth - getRecursionDepth();
+    }
+
+    /**
+     * Looks the state up among the results of earlier searches. On a hit, the stored line is followed
+     * from the current decision, so that it becomes part of the plan if its score is the best.
+     */
+    public Score lookupTransposition(String state, SpellAbility sa) {
+        TranspositionTable.Entry entry = transpositions.lookup(state, getRemainingDepth());
+        if (entry == null) {
+            return null;
+        }
+        List<Plan.Decision> line = Plan.Decision.copyLine(entry.getLine(), getLastDecision());
+        lastSequence = line.isEmpty() ? null : line.get(line.size() - 1);
+        lastSequenceScore = entry.getScore();
+        currentHostAndTarget = null;
+        printState(entry.getScore(), sa, " (transposition)", true);
+        return entry.getScore();
+    }
+
+    public void storeTransposition(String state, Score score, boolean recursed) {
+        List<Plan.Decision> line = new ArrayList<Plan.Decision>();
+        if (recursed) {
+            // Only keep a score whose line is known: the best one found below this state, which is
+            // none if nothing beat the state itself.
+            if (lastSequenceScore == null || lastSequenceScore.value != score.value) {
+                return;
+            }
+            Plan.Decision last = getLastDecision();
+            for (Plan.Decision d = lastSequence; d != last; d = d.prevDecision) {
+                if (d == null) {
+                    return;
+                }
+                line.add(d);
+            }
+            Collections.reverse(line);
+        }
+        transpositions.store(state, recursed ? getRemainingDepth() : 0, score, line);
     }
     
     private Plan.Decision getLastDecision() {
@@ -81,12 +151,35 @@ public class SimulationController {
     }
 
     public void doneEvaluating(Score score) {
+        Plan.Decision decision = currentStack.get(currentStack.size() - 1);
+        // The score may have been reached by a line going on below this decision, through a deeper
+        // search or a transposition.
+        Plan.Decision sequence = decision;
+        if (lastSequence != null && lastSequenceScore.value == score.value && isLineOf(lastSequence, decision)) {
+            sequence = lastSequence;
+        }
+        lastSequence = sequence;
+        lastSequenceScore = score;
         if (score.value > bestScore.value) {
             bestScore = score;
-            bestSequence = currentStack.get(currentStack.size() - 1);
+            bestSequence = sequence;
+        }
+        int level = getRecursionDepth();
+        if (score.value > levelBestScores.get(level).value) {
+            levelBestScores.set(level, score);
+            levelBestSequences.set(level, sequence);
         }
         currentStack.remove(currentStack.size() - 1);
     }
+
+    private static boolean isLineOf(Plan.Decision last, Plan.Decision decision) {
+        for (Plan.Decision d = last; d != null; d = d.prevDecision) {
+            if (d == decision) {
+                return true;
+            }
+        }
+        return false;
+    }
     
     public Score getBestScore() {
         return bestScore;
@@ -163,11 +256,15 @@ public class SimulationController {
         GameSimulator.debugPrint("  With: " + sa);
         scoreStack.add(score);
         simulatorStack.add(simulator);
+        levelBestScores.add(score);
+        levelBestSequences.add(null);
     }
 
     public void pop(Score score, SpellAbility nextSa) {
         scoreStack.remove(scoreStack.size() - 1);
         simulatorStack.remove(simulatorStack.size() - 1);
+        lastSequenceScore = levelBestScores.remove(levelBestScores.size() - 1);
+        lastSequence = levelBestSequences.remove(levelBestSequences.size() - 1);
         GameSimulator.debugPrint("DEPTH"+getRecursionDepth()+" best score " + score + " " + nextSa);
     }
 
@@ -1,9 +1,11 @@
 package forge.ai.simulation;
 
 import forge.ai.AiPlayDecision;
+import forge.ai.AiProps;
 import forge.ai.ComputerUtil;
 import forge.ai.ComputerUtilAbility;
 import forge.ai.ComputerUtilCost;
+import forge.ai.PlayerControllerAi;
 import forge.ai.ability.ChangeZoneAi;
 import forge.ai.ability.ExploreAi;
 import forge.ai.simulation.GameStateEvaluator.Score;
@@ -18,13 +20,27 @@ import forge.game.spellability.LandAbility;
 import forge.game.spellability.SpellAbility;
 import forge.game.spellability.SpellAbilityCondition;
 import forge.game.zone.ZoneType;
+import forge.util.MyRandom;
 import forge.util.TextUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SpellAbilityPicker {
+    // Thread pools used to simulate the top-level candidates of a decision side by side, by their number
+    // of threads. Every candidate then gets its own SimulationController and its own game copies.
+    private static final Map<Integer, ExecutorService> evaluationPools = new HashMap<>();
+
     private Game game;
     private Player player;
     private Score bestScore;
@@ -41,6 +57,49 @@ public class SpellAbilityPicker {
     public void setInterceptor(SpellAbilityChoicesIterator in) {
         this.interceptor = in;
     }
+
+    /**
+     * Returns the number of threads simulating the candidates of a decision, as set by the SIMULATION_THREADS
+     * property of the AI profile.
+     */
+    private int getParallelism() {
+        if (!(player.getController() instanceof PlayerControllerAi)) {
+            return 1;
+        }
+        return Math.max(1, ((PlayerControllerAi) player.getController()).getAi().getIntProperty(AiProps.SIMULATION_THREADS));
+    }
+
+    /**
+     * Returns the wall-clock budget in milliseconds for formulating a plan, as set by the SIMULATION_TIME_BUDGET
+     * property of the AI profile, or 0 for none. The budget is shared by the searches for the current phase and
+     * for after blockers. With a budget, searches go one action deeper at a time, and once it runs out the plan
+     * of the deepest search that completed is used, so the choice depends on the speed of the machine.
+     */
+    private long getSearchTimeBudget() {
+        if (!(player.getController() instanceof PlayerControllerAi)) {
+            return 0;
+        }
+        return Math.max(0, ((PlayerControllerAi) player.getController()).getAi().getIntProperty(AiProps.SIMULATION_TIME_BUDGET));
+    }
+
+    private static synchronized ExecutorService getEvaluationPool(int threads) {
+        ExecutorService evaluationPool = evaluationPools.get(threads);
+        if (evaluationPool == null) {
+            evaluationPool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    // Named as a game thread, since the rules engine expects to be run from one
+                    Thread thread = new Thread(r, "Game-Simulation-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            evaluationPools.put(threads, evaluationPool);
+        }
+        return evaluationPool;
+    }
     
     private void print(String str) {
         if (printOutput) {
@@ -120,8 +179,33 @@ public class SpellAbilityPicker {
         return getPlannedSpellAbility(origGameScore, candidateSAs);
     }
 
-    private Plan formulatePlanWithPhase(Score origGameScore, List<SpellAbility> candidateSAs, PhaseType phase) {
-        SimulationController controller = new SimulationController(origGameScore);
+    private Plan formulatePlanWithPhase(Score origGameScore, List<SpellAbility> candidateSAs, PhaseType phase, long deadline) {
+        // Shared by all iterations, so that the deeper searches don't need to re-evaluate
+        // the states already searched by the shallower ones.
+        TranspositionTable transpositions = new TranspositionTable();
+        Plan bestPlan = null;
+        // Without a deadline, there's no shallower plan to fall back on, so search to the full depth at once.
+        int firstDepth = deadline == 0 ? SimulationController.MAX_DEPTH : 0;
+        for (int depth = firstDepth; depth <= SimulationController.MAX_DEPTH; depth++) {
+            Plan plan = formulatePlanToDepth(origGameScore, candidateSAs, phase, depth, deadline, transpositions);
+            if (depth > firstDepth && System.currentTimeMillis() >= deadline) {
+                // This search may have been cut short, so stick with the previous one.
+                print("Out of time at depth " + depth + ", using the plan searched to depth " + (depth - 1));
+                break;
+            }
+            bestPlan = plan;
+        }
+        print("Transposition table: " + transpositions.getHits() + " hits, " + transpositions.getMisses() + " misses");
+        return bestPlan;
+    }
+
+    private Plan formulatePlanToDepth(Score origGameScore, List<SpellAbility> candidateSAs, PhaseType phase,
+            int depth, long deadline, TranspositionTable transpositions) {
+        int threads = getParallelism();
+        if (threads > 1 && candidateSAs.size() > 1) {
+            return formulatePlanInParallel(threads, origGameScore, candidateSAs, phase, depth, deadline, transpositions);
+        }
+        SimulationController controller = new SimulationController(origGameScore, depth, deadline, transpositions);
         SpellAbility sa = chooseSpellAbilityToPlayImpl(controller, candidateSAs, origGameScore, phase);
         if (sa != null) {
             return controller.getBestPlan();
@@ -129,6 +213,59 @@ public class SpellAbilityPicker {
         return null;
     }
 
+    private Plan formulatePlanInParallel(int threads, final Score origGameScore, final List<SpellAbility> candidateSAs, final PhaseType phase,
+            int depth, long deadline, TranspositionTable transpositions) {
+        long startTime = System.currentTimeMillis();
+        print("Evaluating on " + threads + " threads... (orig score = " + origGameScore +  ")");
+
+        final SimulationController[] controllers = new SimulationController[candidateSAs.size()];
+        List<Callable<Score>> tasks = new ArrayList<>();
+        for (int i = 0; i < candidateSAs.size(); i++) {
+            final int saIndex = i;
+            controllers[i] = new SimulationController(origGameScore, depth, deadline, transpositions);
+            // each worker gets its own random, split off in candidate order so that the game's sequence stays reproducible
+            final Random taskRandom = game.getRandom().split();
+            tasks.add(new Callable<Score>() {
+                @Override
+                public Score call() {
+                    Random previousRandom = MyRandom.setGameRandom(taskRandom);
+                    try {
+                        // as in the sequential search, only the first candidate checks its copy against the original
+                        return evaluateSa(controllers[saIndex], phase, candidateSAs, saIndex, origGameScore, saIndex == 0);
+                    } finally {
+                        MyRandom.setGameRandom(previousRandom);
+                    }
+                }
+            });
+        }
+
+        Score[] values = new Score[candidateSAs.size()];
+        try {
+            List<Future<Score>> results = getEvaluationPool(threads).invokeAll(tasks);
+            for (int i = 0; i < values.length; i++) {
+                values[i] = results.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Simulation of a candidate ability failed", e.getCause());
+        }
+
+        if (pickBestSa(candidateSAs, values, origGameScore, startTime) == null) {
+            return null;
+        }
+        // Merge in candidate order with a strict comparison, so that ties are resolved
+        // the same way as by the sequential search.
+        SimulationController best = controllers[0];
+        for (SimulationController controller : controllers) {
+            if (controller.getBestScore().value > best.getBestScore().value) {
+                best = controller;
+            }
+        }
+        return best.getBestPlan();
+    }
+
     private void printPlan(Plan plan, String intro) {
         if (plan == null) {
             print(intro + ": no plan!");
@@ -157,14 +294,17 @@ public class SpellAbilityPicker {
     private void createNewPlan(Score origGameScore, List<SpellAbility> candidateSAs) {
         plan = null;
 
-        Plan bestPlan = formulatePlanWithPhase(origGameScore, candidateSAs, null);
+        // The budget is for the whole decision, both plans below share it.
+        long budget = getSearchTimeBudget();
+        long deadline = budget > 0 ? System.currentTimeMillis() + budget : 0;
+        Plan bestPlan = formulatePlanWithPhase(origGameScore, candidateSAs, null, deadline);
         if (bestPlan == null) {
             print("No good plan at this time");
             return;
         }
 
         PhaseType currentPhase = game.getPhaseHandler().getPhase();
-        if (currentPhase.isBefore(PhaseType.COMBAT_DECLARE_BLOCKERS)) {
+        if (currentPhase.isBefore(PhaseType.COMBAT_DECLARE_BLOCKERS) && (deadline == 0 || System.currentTimeMillis() < deadline)) {
             List<SpellAbility> candidateSAs2 = new ArrayList<SpellAbility>();
             for (SpellAbility sa : candidateSAs) {
                 if (!isSorcerySpeed(sa, player)) {
@@ -174,7 +314,7 @@ public class SpellAbilityPicker {
             }
             if (!candidateSAs2.isEmpty()) {
                 System.err.println("Formula plan with phase bloom");
-                Plan afterBlockersPlan = formulatePlanWithPhase(origGameScore, candidateSAs2, PhaseType.COMBAT_DECLARE_BLOCKERS);
+                Plan afterBlockersPlan = formulatePlanWithPhase(origGameScore, candidateSAs2, PhaseType.COMBAT_DECLARE_BLOCKERS, deadline);
                 if (afterBlockersPlan != null && afterBlockersPlan.getFinalScore().value >= bestPlan.getFinalScore().value) {
                     printPlan(afterBlockersPlan, "After blockers");
                     print("Deciding to wait until after declare blockers.");
@@ -190,13 +330,22 @@ public class SpellAbilityPicker {
     private SpellAbility chooseSpellAbilityToPlayImpl(SimulationController controller, List<SpellAbility> candidateSAs, Score origGameScore, PhaseType phase) {
         long startTime = System.currentTimeMillis();
 
+        print("Evaluating... (orig score = " + origGameScore +  ")");
+        Score[] values = new Score[candidateSAs.size()];
+        for (int i = 0; i < candidateSAs.size(); i++) {
+            // Only the first copy of this game needs to be checked against the original, the
+            // copier is deterministic so the remaining ones can reuse its score.
+            values[i] = evaluateSa(controller, phase, candidateSAs, i, origGameScore, i == 0);
+        }
+        return pickBestSa(candidateSAs, values, origGameScore, startTime);
+    }
+
+    private SpellAbility pickBestSa(List<SpellAbility> candidateSAs, Score[] values, Score origGameScore, long startTime) {
         SpellAbility bestSa = null;
         Score bestSaValue = origGameScore;
-        print("Evaluating... (orig score = " + origGameScore +  ")");
         for (int i = 0; i < candidateSAs.size(); i++) {
-            Score value = evaluateSa(controller, phase, candidateSAs, i);
-            if (value.value > bestSaValue.value) {
-                bestSaValue = value;
+            if (values[i].value > bestSaValue.value) {
+                bestSaValue = values[i];
                 bestSa = candidateSAs.get(i);
             }
         }
@@ -353,7 +502,8 @@ public class SpellAbilityPicker {
         return AiPlayDecision.WillPlay;
     }
 
-    private Score evaluateSa(final SimulationController controller, PhaseType phase, List<SpellAbility> saList, int saIndex) {
+    private Score evaluateSa(final SimulationController controller, PhaseType phase, List<SpellAbility> saList, int saIndex,
+            Score origGameScore, boolean verifyCopy) {
         controller.evaluateSpellAbility(saList, saIndex);
         SpellAbility sa = saList.get(saIndex);
 
@@ -361,7 +511,8 @@ public class SpellAbilityPicker {
         final SpellAbilityChoicesIterator choicesIterator = new SpellAbilityChoicesIterator(controller);
         Score lastScore = null;
         do {
-            GameSimulator simulator = new GameSimulator(controller, game, player, phase);
+            GameSimulator simulator = new GameSimulator(controller, game, player, phase, verifyCopy ? null : origGameScore);
+            verifyCopy = false;
             simulator.setInterceptor(choicesIterator);
             lastScore = simulator.simulateSpellAbility(sa);
             if (lastScore.value > bestScore.value) {
@@ -0,0 +1,243 @@
+package forge.ai.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import forge.ai.simulation.GameStateEvaluator.Score;
+import forge.card.MagicColor;
+import forge.game.Game;
+import forge.game.GameEntity;
+import forge.game.card.Card;
+import forge.game.card.CounterType;
+import forge.game.combat.Combat;
+import forge.game.keyword.KeywordInterface;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbilityStackInstance;
+import forge.game.zone.ZoneType;
+
+/**
+ * Bounded cache of simulation results keyed by a description of the resulting game state, so that
+ * sibling branches of a search (and later iterations of an iterative deepening search) reaching
+ * the same state don't evaluate it and search below it again.
+ * <p>
+ * The description leaves parts of the game out (see {@link #describeGameState}), so a hit means the
+ * described parts match, and a state differing only in the rest gets the result stored for the other.
+ * <p>
+ * Along with the score, an entry keeps the decisions that reach it from the state, so that a plan
+ * using a stored result can still be played out decision by decision.
+ */
+public class TranspositionTable {
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final ZoneType[] DESCRIBED_ZONES = new ZoneType[] {
+        ZoneType.Battlefield,
+        ZoneType.Hand,
+        ZoneType.Graveyard,
+        ZoneType.Exile,
+        ZoneType.Stack,
+        ZoneType.Command,
+    };
+
+    public static class Entry {
+        private final Score score;
+        private final int depth;
+        private final List<Plan.Decision> line;
+
+        private Entry(Score score, int depth, List<Plan.Decision> line) {
+            this.score = score;
+            this.depth = depth;
+            this.line = line;
+        }
+
+        public Score getScore() {
+            return score;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return the decisions that lead from the state to the score, empty if the score is the
+         * evaluation of the state itself. They don't belong to any search, see {@link Plan.Decision#copyLine}.
+         */
+        public List<Plan.Decision> getLine() {
+            return line;
+        }
+    }
+
+    private final Map<String, Entry> entries;
+    private int hits;
+    private int misses;
+
+    public TranspositionTable() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public TranspositionTable(final int maxEntries) {
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the entry stored for the given state, provided it was searched at least depth
+     * plies deep. Otherwise null.
+     */
+    public synchronized Entry lookup(String state, int depth) {
+        Entry entry = entries.get(state);
+        if (entry == null || entry.depth < depth) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry;
+    }
+
+    /**
+     * @param line the decisions after the state that reach the score, they are copied
+     */
+    public synchronized void store(String state, int depth, Score score, List<Plan.Decision> line) {
+        Entry entry = entries.get(state);
+        if (entry == null || entry.depth <= depth) {
+            entries.put(state, new Entry(score, depth, Plan.Decision.copyLine(line, null)));
+        }
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Describes the parts of the state the evaluator and the next plies of the search mostly look at:
+     * phase and turn, the players' life, counters, land drops, spells cast and mana pools, library
+     * order, the stack, and the cards in the described zones with their counters, status, damage,
+     * power and toughness, keywords, choices, attachments and combat role. Entries are matched on
+     * the whole description, so two states only share an entry if they read the same.
+     * <p>
+     * Everything else is left out, such as effects lasting until end of turn, delayed and pending
+     * triggers, damage prevention, abilities activated this turn and the cards in other zones. States
+     * differing only there read the same, so a hit doesn't guarantee an identical game.
+     * <p>
+     * Card ids differ between game copies, so cards are described by name and characteristics,
+     * and sorted so that the order of cards within a zone doesn't matter.
+     */
+    public static String describeGameState(Game game, Player aiPlayer) {
+        List<Player> players = game.getPlayers();
+        StringBuilder sb = new StringBuilder();
+        sb.append(game.getPhaseHandler().getPhase()).append(' ').append(game.getPhaseHandler().getTurn());
+        sb.append(' ').append(players.indexOf(game.getPhaseHandler().getPlayerTurn()));
+        sb.append(' ').append(players.indexOf(aiPlayer));
+        sb.append(game.isGameOver() ? " over" : "").append('\n');
+
+        for (Player p : players) {
+            sb.append(p.getLife()).append(' ').append(describeCounters(p.getCounters()));
+            sb.append(' ').append(p.getLandsPlayedThisTurn()).append(' ').append(p.getSpellsCastThisTurn());
+            for (byte color : MagicColor.WUBRGC) {
+                sb.append(' ').append(p.getManaPool().getAmountOfColor(color));
+            }
+            // Library order matters for whatever gets drawn deeper in the search.
+            for (Card c : p.getCardsIn(ZoneType.Library)) {
+                sb.append('|').append(c.getName());
+            }
+            sb.append('\n');
+        }
+
+        for (SpellAbilityStackInstance si : game.getStack()) {
+            sb.append(players.indexOf(si.getActivatingPlayer())).append(' ').append(si.getStackDescription()).append('\n');
+        }
+
+        Combat combat = game.getCombat();
+        List<String> cards = new ArrayList<String>();
+        for (ZoneType zone : DESCRIBED_ZONES) {
+            for (Card c : game.getCardsIn(zone)) {
+                cards.add(describeCard(c, zone, players, combat));
+            }
+        }
+        Collections.sort(cards);
+        for (String card : cards) {
+            sb.append(card).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String describeCard(Card c, ZoneType zone, List<Player> players, Combat combat) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(zone).append(' ').append(describeObject(c, players));
+        sb.append(' ').append(players.indexOf(c.getOwner())).append(' ').append(c.getCurrentStateName());
+        sb.append(c.isFaceDown() ? " face down" : "");
+        sb.append(' ').append(describeCounters(c.getCounters()));
+        if (zone != ZoneType.Battlefield) {
+            return sb.toString();
+        }
+        sb.append(c.isTapped() ? " tapped" : "").append(c.isSick() ? " sick" : "");
+        sb.append(c.isToken() ? " token" : "").append(c.isPhasedOut() ? " phased out" : "");
+        sb.append(' ').append(c.getDamage());
+        if (c.isCreature()) {
+            sb.append(' ').append(c.getNetPower()).append('/').append(c.getNetToughness());
+        }
+        List<String> keywords = new ArrayList<String>();
+        for (KeywordInterface kw : c.getKeywords()) {
+            keywords.add(kw.getOriginal());
+        }
+        Collections.sort(keywords);
+        sb.append(' ').append(keywords);
+        if (c.getChosenType() != null && !c.getChosenType().isEmpty()) {
+            sb.append(" type ").append(c.getChosenType());
+        }
+        if (c.hasChosenColor()) {
+            sb.append(" colors ").append(c.getChosenColors());
+        }
+        if (c.getEnchanting() != null) {
+            sb.append(" enchanting ").append(describeObject(c.getEnchanting(), players));
+        }
+        if (c.getEquipping() != null) {
+            sb.append(" equipping ").append(describeObject(c.getEquipping(), players));
+        }
+        if (c.getFortifying() != null) {
+            sb.append(" fortifying ").append(describeObject(c.getFortifying(), players));
+        }
+        if (combat != null) {
+            if (combat.isAttacking(c)) {
+                sb.append(" attacking ").append(describeObject(combat.getDefenderByAttacker(c), players));
+                sb.append(combat.isBlocked(c) ? " blocked" : "");
+            }
+            if (combat.isBlocking(c)) {
+                List<String> attackers = new ArrayList<String>();
+                for (Card attacker : combat.getAttackersBlockedBy(c)) {
+                    attackers.add(describeObject(attacker, players));
+                }
+                Collections.sort(attackers);
+                sb.append(" blocking ").append(attackers);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String describeObject(GameEntity entity, List<Player> players) {
+        if (entity instanceof Player) {
+            return "player " + players.indexOf(entity);
+        }
+        if (entity instanceof Card) {
+            return ((Card) entity).getName() + " of " + players.indexOf(((Card) entity).getController());
+        }
+        return String.valueOf(entity);
+    }
+
+    private static String describeCounters(Map<CounterType, Integer> counters) {
+        return counters.isEmpty() ? "{}" : new TreeMap<CounterType, Integer>(counters).toString();
+    }
+}
@@ -594,6 +594,8 @@ public final class CardType implements Comparable<CardType>, CardTypeView {
         public static final List<String> BASIC_TYPES = Lists.newArrayList();
         public static final List<String> LAND_TYPES = Lists.newArrayList();
         public static final List<String> CREATURE_TYPES = Lists.newArrayList();
+        // the same creature types hashed, as every subtype check of a card looks them up
+        public static final Set<String> CREATURE_TYPE_SET = Sets.newHashSet();
         public static final List<String> SPELL_TYPES = Lists.newArrayList();
         public static final List<String> ENCHANTMENT_TYPES = Lists.newArrayList();
         public static final List<String> ARTIFACT_TYPES = Lists.newArrayList();
@@ -711,7 +713,7 @@ public final class CardType implements Comparable<CardType>, CardTypeView {
     }
 
     public static boolean isACreatureType(final String cardType) {
-        return (Constant.CREATURE_TYPES.contains(cardType));
+        return (Constant.CREATURE_TYPE_SET.contains(cardType));
     }
 
     public static boolean isALandType(final String cardType) {
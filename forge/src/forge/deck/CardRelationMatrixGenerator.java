@@ -15,17 +15,20 @@ import forge.model.FModel;
 import forge.properties.ForgeConstants;
 import forge.util.storage.IStorage;
 import forge.util.storage.StorageImmediatelySerialized;
-import org.apache.commons.lang3.ArrayUtils;
-
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Created by maustin on 09/05/2017.
  */
 public final class CardRelationMatrixGenerator {
 
-    public static HashMap<String,HashMap<String,List<Map.Entry<PaperCard,Integer>>>> cardPools = new HashMap<>();
+    public static HashMap<String,Map<String,List<Map.Entry<PaperCard,Integer>>>> cardPools = new HashMap<>();
 
     public static Map<String, Map<String,List<List<String>>>> ldaPools = new HashMap();
     /**
@@ -50,7 +53,7 @@ public final class CardRelationMatrixGenerator {
 
     /** Try to load matrix .dat files, otherwise check for deck folders and build .dat, otherwise return false **/
     public static boolean initializeFormat(String format){
-        HashMap<String,List<Map.Entry<PaperCard,Integer>>> formatMap = CardThemedMatrixIO.loadMatrix(format);
+        Map<String,List<Map.Entry<PaperCard,Integer>>> formatMap = CardThemedMatrixIO.loadMatrix(format);
         if(formatMap==null) {
             if (CardThemedMatrixIO.getMatrixFolder(format).exists()) {
                 if(format.equals(FModel.getFormats().getStandard().getName())){
@@ -79,61 +82,58 @@ public final class CardRelationMatrixGenerator {
                 , Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES));
         List<PaperCard> cardList = Lists.newArrayList(cards);
         cardList.add(FModel.getMagicDb().getCommonCards().getCard("Wastes"));
-        Map<String, Integer> cardIntegerMap = new HashMap<>();
+        return buildFormatPools(Lists.newArrayList(decks), cardList);
+    }
+
+    static HashMap<String,List<Map.Entry<PaperCard,Integer>>> buildFormatPools(List<Deck> decks, final List<PaperCard> cardList){
+        final Map<String, Integer> cardIntegerMap = new HashMap<>();
         Map<Integer, PaperCard> integerCardMap = new HashMap<>();
         for (int i=0; i<cardList.size(); ++i){
             cardIntegerMap.put(cardList.get(i).getName(), i);
             integerCardMap.put(i, cardList.get(i));
         }
+        final Map<PaperCard, Integer> rowCards = countOccurrences(cardList);
 
-        int[][] matrix = new int[cardList.size()][cardList.size()];
-
-        for (PaperCard card:cardList){
-            for (Deck deck:decks){
-                if (deck.getMain().contains(card)){
-                    for (PaperCard pairCard:Iterables.filter(deck.getMain().toFlatList(),
-                            Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES))){
-                        if (!pairCard.getName().equals(card.getName())){
-                            try {
-                                int old = matrix[cardIntegerMap.get(card.getName())][cardIntegerMap.get(pairCard.getName())];
-                                matrix[cardIntegerMap.get(card.getName())][cardIntegerMap.get(pairCard.getName())] = old + 1;
-                            }catch (NullPointerException ne){
-                                //Todo: Not sure what was failing here
-                            }
-                        }
-
+        //each deck adds its co-occurrences to the rows of the listed cards it contains
+        SparseMatrix matrix = accumulate(decks, new DeckAccumulator() {
+            @Override
+            public void add(Deck deck, SparseMatrix matrix) {
+                List<PaperCard> pairCards = null;
+                //listed printings count once per deck however many copies it has
+                for (Map.Entry<PaperCard, Integer> entry : deck.getMain()) {
+                    PaperCard card = entry.getKey();
+                    Integer times = rowCards.get(card);
+                    if (times == null) {
+                        continue;
+                    }
+                    if (pairCards == null) {
+                        pairCards = getPairCards(deck);
                     }
+                    addPairs(matrix, cardIntegerMap.get(card.getName()), card.getName(), pairCards, cardIntegerMap, times);
                 }
             }
-        }
+        });
+
         HashMap<String,List<Map.Entry<PaperCard,Integer>>> cardPools = new HashMap<>();
-        for (PaperCard card:cardList){
-            int col=cardIntegerMap.get(card.getName());
-            int[] distances = matrix[col];
-            int max = (Integer) Collections.max(Arrays.asList(ArrayUtils.toObject(distances)));
-            if (max>0) {
-                ArrayIndexComparator comparator = new ArrayIndexComparator(ArrayUtils.toObject(distances));
-                Integer[] indices = comparator.createIndexArray();
-                Arrays.sort(indices, comparator);
-                List<Map.Entry<PaperCard,Integer>> deckPool=new ArrayList<>();
-                int k=0;
-                boolean excludeThisCard=false;//if there are too few cards with at least one connection
-                for (int j=0;j<MIN_REQUIRED_CONNECTIONS;++k){
-                    if(distances[indices[cardList.size()-1-k]]==0){
-                        excludeThisCard = true;
-                        break;
-                    }
-                    PaperCard cardToAdd=integerCardMap.get(indices[cardList.size()-1-k]);
-                    if(!cardToAdd.getRules().getMainPart().getType().isLand()){//need x non-land cards
-                        ++j;
-                    }
-                    deckPool.add(new AbstractMap.SimpleEntry<PaperCard, Integer>(cardToAdd,distances[indices[cardList.size()-1-k]]));
-                };
-                if(excludeThisCard){
-                    continue;
+        for (Map.Entry<Integer, Map<Integer, int[]>> row : matrix.rows.entrySet()){
+            List<Map.Entry<Integer, int[]>> neighbours = new ArrayList<>(row.getValue().entrySet());
+            Collections.sort(neighbours, STRONGEST_FIRST);
+            List<Map.Entry<PaperCard,Integer>> deckPool=new ArrayList<>();
+            int j=0;
+            for (Map.Entry<Integer, int[]> neighbour : neighbours){
+                if (j>=MIN_REQUIRED_CONNECTIONS){
+                    break;
                 }
-                cardPools.put(card.getName(), deckPool);
+                PaperCard cardToAdd=integerCardMap.get(neighbour.getKey());
+                if(!cardToAdd.getRules().getMainPart().getType().isLand()){//need x non-land cards
+                    ++j;
+                }
+                deckPool.add(new AbstractMap.SimpleEntry<PaperCard, Integer>(cardToAdd,neighbour.getValue()[0]));
+            }
+            if(j<MIN_REQUIRED_CONNECTIONS){//if there are too few cards with at least one connection
+                continue;
             }
+            cardPools.put(integerCardMap.get(row.getKey()).getName(), deckPool);
         }
         return cardPools;
     }
@@ -150,9 +150,13 @@ public final class CardRelationMatrixGenerator {
                 , Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES));
         List<PaperCard> cardList = Lists.newArrayList(cards);
         cardList.add(FModel.getMagicDb().getCommonCards().getCard("Wastes"));
-        Map<String, Integer> cardIntegerMap = new HashMap<>();
+        return buildCommanderPools(Lists.newArrayList(decks), cardList);
+    }
+
+    static HashMap<String,List<Map.Entry<PaperCard,Integer>>> buildCommanderPools(List<Deck> decks, List<PaperCard> cardList){
+        final Map<String, Integer> cardIntegerMap = new HashMap<>();
         Map<Integer, PaperCard> integerCardMap = new HashMap<>();
-        Map<String, Integer> legendIntegerMap = new HashMap<>();
+        final Map<String, Integer> legendIntegerMap = new HashMap<>();
         Map<Integer, PaperCard> integerLegendMap = new HashMap<>();
         //generate lookups for cards to link card names to matrix columns
         for (int i=0; i<cardList.size(); ++i){
@@ -174,89 +178,155 @@ public final class CardRelationMatrixGenerator {
             legendIntegerMap.put(legends.get(i).getName(), i);
             integerLegendMap.put(i, legends.get(i));
         }
-        int[][] matrix = new int[legends.size()][cardList.size()];
+        final Map<PaperCard, Integer> rowLegends = countOccurrences(legends);
 
-        //loop through commanders and decks
-        for (PaperCard legend:legends){
-            for (Deck deck:decks){
-                //if the deck has the commander
-                if (deck.getCommanders().contains(legend)){
-                    //update the matrix by incrementing the connectivity count for each card in the deck
-                    updateLegendMatrix(deck, legend, cardIntegerMap, legendIntegerMap, matrix);
+        //each deck adds its cards to the rows of the listed commanders leading it
+        SparseMatrix matrix = accumulate(decks, new DeckAccumulator() {
+            @Override
+            public void add(Deck deck, SparseMatrix matrix) {
+                List<PaperCard> commanders = deck.getCommanders();
+                List<PaperCard> pairCards = null;
+                for (PaperCard legend : new LinkedHashSet<>(commanders)) {
+                    Integer times = rowLegends.get(legend);
+                    if (times == null) {
+                        continue;
+                    }
+                    if (pairCards == null) {
+                        pairCards = getPairCards(deck);
+                    }
+                    int row = legendIntegerMap.get(legend.getName());
+                    addPairs(matrix, row, legend.getName(), pairCards, cardIntegerMap, times);
+                    //add partner commanders to matrix
+                    if (commanders.size() > 1) {
+                        for (PaperCard partner : commanders) {
+                            Integer col = cardIntegerMap.get(partner.getName());
+                            if (!partner.equals(legend) && col != null) {
+                                matrix.add(row, col, times);
+                            }
+                        }
+                    }
                 }
             }
-        }
+        });
 
         //convert the matrix into a map of pools for each commander
         HashMap<String,List<Map.Entry<PaperCard,Integer>>> cardPools = new HashMap<>();
-        for (PaperCard card:legends){
-            int col=legendIntegerMap.get(card.getName());
-            int[] distances = matrix[col];
-            int max = (Integer) Collections.max(Arrays.asList(ArrayUtils.toObject(distances)));
-            if (max>0) {
-                List<Map.Entry<PaperCard,Integer>> deckPool=new ArrayList<>();
-                for(int k=0;k<cardList.size(); k++){
-                    if(matrix[col][k]>0){
-                        deckPool.add(new AbstractMap.SimpleEntry<PaperCard, Integer>(integerCardMap.get(k),matrix[col][k]));
-                    }
-                }
-                cardPools.put(card.getName(), deckPool);
+        for (Map.Entry<Integer, Map<Integer, int[]>> row : matrix.rows.entrySet()){
+            List<Integer> columns = new ArrayList<>(row.getValue().keySet());
+            Collections.sort(columns);
+            List<Map.Entry<PaperCard,Integer>> deckPool=new ArrayList<>();
+            for (Integer k : columns){
+                deckPool.add(new AbstractMap.SimpleEntry<PaperCard, Integer>(integerCardMap.get(k),row.getValue().get(k)[0]));
             }
+            cardPools.put(integerLegendMap.get(row.getKey()).getName(), deckPool);
         }
         return cardPools;
     }
 
-    //update the matrix by incrementing the connectivity count for each card in the deck
-    public static void updateLegendMatrix(Deck deck, PaperCard legend, Map<String, Integer> cardIntegerMap,
-                             Map<String, Integer> legendIntegerMap, int[][] matrix){
-        for (PaperCard pairCard:Iterables.filter(deck.getMain().toFlatList(),
-                Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES))){
-            if (!pairCard.getName().equals(legend.getName())){
-                try {
-                    int old = matrix[legendIntegerMap.get(legend.getName())][cardIntegerMap.get(pairCard.getName())];
-                    matrix[legendIntegerMap.get(legend.getName())][cardIntegerMap.get(pairCard.getName())] = old + 1;
-                }catch (NullPointerException ne){
-                    //Todo: Not sure what was failing here
-                    ne.printStackTrace();
+    /** Counts how often each printing appears in a card list, as every listing contributes to its row. **/
+    private static Map<PaperCard, Integer> countOccurrences(List<PaperCard> cards){
+        Map<PaperCard, Integer> result = new HashMap<>();
+        for (PaperCard card : cards){
+            Integer old = result.get(card);
+            result.put(card, old == null ? 1 : old + 1);
+        }
+        return result;
+    }
+
+    /** All non-basic cards of the main deck, one entry per copy. **/
+    private static List<PaperCard> getPairCards(Deck deck){
+        return Lists.newArrayList(Iterables.filter(deck.getMain().toFlatList(),
+                Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES)));
+    }
+
+    private static void addPairs(SparseMatrix matrix, int row, String name, List<PaperCard> pairCards,
+                                 Map<String, Integer> cardIntegerMap, int times){
+        for (PaperCard pairCard : pairCards){
+            if (!pairCard.getName().equals(name)){
+                Integer col = cardIntegerMap.get(pairCard.getName());
+                if (col != null){
+                    matrix.add(row, col, times);
                 }
             }
+        }
+    }
 
+    /** Splits the decks between worker threads, each filling its own matrix, and sums the results. **/
+    private static SparseMatrix accumulate(final List<Deck> decks, final DeckAccumulator accumulator){
+        final int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), decks.size()));
+        if (threads == 1){
+            SparseMatrix matrix = new SparseMatrix();
+            for (Deck deck : decks){
+                accumulator.add(deck, matrix);
+            }
+            return matrix;
         }
-        //add partner commanders to matrix
-        if(deck.getCommanders().size()>1){
-            for(PaperCard partner:deck.getCommanders()){
-                if(!partner.equals(legend)){
-                    int old = matrix[legendIntegerMap.get(legend.getName())][cardIntegerMap.get(partner.getName())];
-                    matrix[legendIntegerMap.get(legend.getName())][cardIntegerMap.get(partner.getName())] = old + 1;
-                }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SparseMatrix>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++){
+                final int first = t;
+                parts.add(pool.submit(new Callable<SparseMatrix>() {
+                    @Override
+                    public SparseMatrix call() {
+                        SparseMatrix matrix = new SparseMatrix();
+                        for (int i = first; i < decks.size(); i += threads){
+                            accumulator.add(decks.get(i), matrix);
+                        }
+                        return matrix;
+                    }
+                }));
+            }
+            SparseMatrix result = parts.get(0).get();
+            for (int t = 1; t < threads; t++){
+                result.addAll(parts.get(t).get());
             }
+            return result;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdownNow();
         }
     }
 
-    public static class ArrayIndexComparator implements Comparator<Integer>
-    {
-        private final Integer[] array;
+    private interface DeckAccumulator {
+        /** Adds a deck to the given matrix, which is owned by the calling thread. **/
+        void add(Deck deck, SparseMatrix matrix);
+    }
+
+    /** Connection counts keyed by row then column, holding only the pairs seen together in some deck. **/
+    private static final class SparseMatrix {
+        private final Map<Integer, Map<Integer, int[]>> rows = new HashMap<>();
 
-        public ArrayIndexComparator(Integer[] array)
-        {
-            this.array = array;
+        void add(int row, int col, int amount){
+            Map<Integer, int[]> cells = rows.get(row);
+            if (cells == null){
+                cells = new HashMap<>();
+                rows.put(row, cells);
+            }
+            int[] cell = cells.get(col);
+            if (cell == null){
+                cells.put(col, new int[] { amount });
+            } else {
+                cell[0] += amount;
+            }
         }
 
-        public Integer[] createIndexArray()
-        {
-            Integer[] indexes = new Integer[array.length];
-            for (int i = 0; i < array.length; i++)
-            {
-                indexes[i] = i; // Autoboxing
+        void addAll(SparseMatrix other){
+            for (Map.Entry<Integer, Map<Integer, int[]>> row : other.rows.entrySet()){
+                for (Map.Entry<Integer, int[]> cell : row.getValue().entrySet()){
+                    add(row.getKey(), cell.getKey(), cell.getValue()[0]);
+                }
             }
-            return indexes;
         }
+    }
 
+    /** Strongest connections first, ties going to the later card in the list. **/
+    private static final Comparator<Map.Entry<Integer, int[]>> STRONGEST_FIRST = new Comparator<Map.Entry<Integer, int[]>>() {
         @Override
-        public int compare(Integer index1, Integer index2)
-        {
-            // Autounbox from Integer to int to use as array indexes
-            return array[index1].compareTo(array[index2]);
+        public int compare(Map.Entry<Integer, int[]> a, Map.Entry<Integer, int[]> b) {
+            int byWeight = Integer.compare(b.getValue()[0], a.getValue()[0]);
+            return byWeight != 0 ? byWeight : Integer.compare(b.getKey(), a.getKey());
         }
-    }
+    };
 }
@@ -0,0 +1,94 @@
+package forge.deck.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Helpers for the compact binary files of the deck generation data. A file starts with a magic number and a
+ * format version, and strings are stored as a length followed by their UTF-8 bytes. Files are memory mapped
+ * for reading, so only the parts that are actually used get paged in.
+ */
+final class CardDataFile {
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private CardDataFile() {
+    }
+
+    /**
+     * Maps a file for reading, positioned after its header.
+     *
+     * @return null if there is no such file, or it is not of the expected type and version
+     */
+    static ByteBuffer open(final File file, final int magic, final int version) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != magic || buffer.getInt() != version) {
+                return null;
+            }
+            return buffer;
+        } catch (IOException e) {
+            System.out.println("Error reading " + file.getName() + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Starts writing a file. The data goes to a temporary file, which {@link #commit(File)} moves in place,
+     * so that an interrupted write never leaves a truncated file behind.
+     */
+    static DataOutputStream create(final File file, final int magic, final int version) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getTempFile(file))));
+        out.writeInt(magic);
+        out.writeInt(version);
+        return out;
+    }
+
+    static void commit(final File file) throws IOException {
+        File temp = getTempFile(file);
+        if (file.exists() && !file.delete() || !temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file.getName());
+        }
+    }
+
+    private static File getTempFile(final File file) {
+        return new File(file.getPath() + ".tmp");
+    }
+
+    static void writeString(final DataOutputStream out, final String s) throws IOException {
+        byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(final ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    static void writeStrings(final DataOutputStream out, final Iterable<String> strings, final int count) throws IOException {
+        out.writeInt(count);
+        for (String s : strings) {
+            writeString(out, s);
+        }
+    }
+
+    static String[] readStrings(final ByteBuffer buffer) {
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(buffer);
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,242 @@
+package forge.deck.io;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Read-only map from cards to the LDA topics they appear in, backed by a memory mapped file,
+ * see {@link CardThemedLDAIO}. Topics are shared between the cards and only decoded the first
+ * time they are asked for.
+ *
+ * File layout (after the header): the card names; the offset and length of each topic, followed by
+ * the card ids and the probabilities of all topics; the keys with the offset and number of their
+ * topics, followed by the topic ids of all keys.
+ */
+public final class CardThemedLDA extends AbstractMap<String, List<List<Pair<String, Double>>>> {
+    static final int MAGIC = 0x4643544C; // FCTL
+    static final int VERSION = 1;
+
+    private final String[] cardNames;
+
+    private final int[] topicOffsets;
+    private final int[] topicLengths;
+    private final List<List<Pair<String, Double>>> topics;
+    private final int topicCardsStart;
+    private final int topicProbabilitiesStart;
+
+    private final Map<String, Integer> keys;
+    private final int[] keyOffsets;
+    private final int[] keyLengths;
+    private final List<List<List<Pair<String, Double>>>> keyTopics;
+    private final int keyTopicIdsStart;
+
+    private final ByteBuffer buffer;
+
+    private CardThemedLDA(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        cardNames = CardDataFile.readStrings(buffer);
+
+        int topicCount = buffer.getInt();
+        topicOffsets = new int[topicCount];
+        topicLengths = new int[topicCount];
+        topics = new ArrayList<>(Collections.<List<Pair<String, Double>>>nCopies(topicCount, null));
+        for (int i = 0; i < topicCount; i++) {
+            topicOffsets[i] = buffer.getInt();
+            topicLengths[i] = buffer.getInt();
+        }
+        int entryCount = buffer.getInt();
+        topicCardsStart = buffer.position();
+        topicProbabilitiesStart = topicCardsStart + 4 * entryCount;
+        buffer.position(topicProbabilitiesStart + 8 * entryCount);
+
+        int keyCount = buffer.getInt();
+        keys = new LinkedHashMap<>(keyCount * 2);
+        keyOffsets = new int[keyCount];
+        keyLengths = new int[keyCount];
+        keyTopics = new ArrayList<>(Collections.<List<List<Pair<String, Double>>>>nCopies(keyCount, null));
+        for (int i = 0; i < keyCount; i++) {
+            keys.put(cardNames[buffer.getInt()], i);
+            keyOffsets[i] = buffer.getInt();
+            keyLengths[i] = buffer.getInt();
+        }
+        buffer.getInt(); // number of topic ids
+        keyTopicIdsStart = buffer.position();
+    }
+
+    /**
+     * @return the topics in the given file, or null if the file is missing or of another version
+     */
+    public static CardThemedLDA open(final File file) {
+        ByteBuffer buffer = CardDataFile.open(file, MAGIC, VERSION);
+        if (buffer == null) {
+            return null;
+        }
+        try {
+            return new CardThemedLDA(buffer);
+        } catch (RuntimeException e) {
+            System.out.println("Error reading " + file.getName() + ": " + e);
+            return null;
+        }
+    }
+
+    public static void write(final File file, final Map<String, List<List<Pair<String, Double>>>> lda) throws IOException {
+        Map<String, Integer> cardIds = new LinkedHashMap<>();
+        Map<List<Pair<String, Double>>, Integer> topicIds = new LinkedHashMap<>();
+        int entryCount = 0;
+        int topicRefCount = 0;
+        for (Map.Entry<String, List<List<Pair<String, Double>>>> kv : lda.entrySet()) {
+            internCard(cardIds, kv.getKey());
+            for (List<Pair<String, Double>> topic : kv.getValue()) {
+                if (!topicIds.containsKey(topic)) {
+                    topicIds.put(topic, topicIds.size());
+                    for (Pair<String, Double> pair : topic) {
+                        internCard(cardIds, pair.getLeft());
+                    }
+                    entryCount += topic.size();
+                }
+            }
+            topicRefCount += kv.getValue().size();
+        }
+
+        try (DataOutputStream out = CardDataFile.create(file, MAGIC, VERSION)) {
+            CardDataFile.writeStrings(out, cardIds.keySet(), cardIds.size());
+
+            out.writeInt(topicIds.size());
+            int offset = 0;
+            for (List<Pair<String, Double>> topic : topicIds.keySet()) {
+                out.writeInt(offset);
+                out.writeInt(topic.size());
+                offset += topic.size();
+            }
+            out.writeInt(entryCount);
+            for (List<Pair<String, Double>> topic : topicIds.keySet()) {
+                for (Pair<String, Double> pair : topic) {
+                    out.writeInt(cardIds.get(pair.getLeft()));
+                }
+            }
+            for (List<Pair<String, Double>> topic : topicIds.keySet()) {
+                for (Pair<String, Double> pair : topic) {
+                    out.writeDouble(pair.getRight());
+                }
+            }
+
+            out.writeInt(lda.size());
+            offset = 0;
+            for (Map.Entry<String, List<List<Pair<String, Double>>>> kv : lda.entrySet()) {
+                out.writeInt(cardIds.get(kv.getKey()));
+                out.writeInt(offset);
+                out.writeInt(kv.getValue().size());
+                offset += kv.getValue().size();
+            }
+            out.writeInt(topicRefCount);
+            for (List<List<Pair<String, Double>>> cardTopics : lda.values()) {
+                for (List<Pair<String, Double>> topic : cardTopics) {
+                    out.writeInt(topicIds.get(topic));
+                }
+            }
+        }
+        CardDataFile.commit(file);
+    }
+
+    private static void internCard(final Map<String, Integer> cardIds, final String name) {
+        if (!cardIds.containsKey(name)) {
+            cardIds.put(name, cardIds.size());
+        }
+    }
+
+    private List<Pair<String, Double>> getTopic(final int id) {
+        List<Pair<String, Double>> topic = topics.get(id);
+        if (topic == null) {
+            List<Pair<String, Double>> pairs = new ArrayList<>(topicLengths[id]);
+            for (int i = topicOffsets[id]; i < topicOffsets[id] + topicLengths[id]; i++) {
+                String name = cardNames[buffer.getInt(topicCardsStart + 4 * i)];
+                pairs.add(ImmutablePair.of(name, buffer.getDouble(topicProbabilitiesStart + 8 * i)));
+            }
+            topic = Collections.unmodifiableList(pairs);
+            topics.set(id, topic);
+        }
+        return topic;
+    }
+
+    private synchronized List<List<Pair<String, Double>>> getTopics(final int key) {
+        List<List<Pair<String, Double>>> result = keyTopics.get(key);
+        if (result == null) {
+            result = new ArrayList<>(keyLengths[key]);
+            for (int i = keyOffsets[key]; i < keyOffsets[key] + keyLengths[key]; i++) {
+                result.add(getTopic(buffer.getInt(keyTopicIdsStart + 4 * i)));
+            }
+            result = Collections.unmodifiableList(result);
+            keyTopics.set(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public List<List<Pair<String, Double>>> get(final Object key) {
+        Integer index = keys.get(key);
+        return index == null ? null : getTopics(index);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return keys.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(keys.keySet());
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<List<Pair<String, Double>>>>> entrySet() {
+        return new AbstractSet<Map.Entry<String, List<List<Pair<String, Double>>>>>() {
+            @Override
+            public Iterator<Map.Entry<String, List<List<Pair<String, Double>>>>> iterator() {
+                final Iterator<Map.Entry<String, Integer>> it = keys.entrySet().iterator();
+                return new Iterator<Map.Entry<String, List<List<Pair<String, Double>>>>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+                    @Override
+                    public Map.Entry<String, List<List<Pair<String, Double>>>> next() {
+                        if (!it.hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<String, Integer> key = it.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(key.getKey(), getTopics(key.getValue()));
+                    }
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.size();
+            }
+        };
+    }
+}
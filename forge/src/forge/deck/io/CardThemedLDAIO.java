@@ -18,6 +18,8 @@ public class CardThemedLDAIO {
     /** suffix for all gauntlet data files */
     public static final String SUFFIX_DATA = ".lda.dat";
     public static final String RAW_SUFFIX_DATA = ".raw.dat";
+    /** suffix for the binary topic files, see {@link CardThemedLDA} */
+    public static final String SUFFIX_BINARY = ".lda.bin";
 
     public static void saveRawLDA(String format, List<Archetype> lda){
         File file = getRAWLDAFile(format);
@@ -55,29 +57,44 @@ public class CardThemedLDAIO {
     }
 
     public static void saveLDA(String format, Map<String,List<List<Pair<String, Double>>>> map){
-        File file = getLDAFile(format);
-        ObjectOutputStream s = null;
         try {
-            FileOutputStream f = new FileOutputStream(file);
-            s = new ObjectOutputStream(f);
-            s.writeObject(map);
-            s.close();
+            CardThemedLDA.write(getBinaryLDAFile(format), map);
         } catch (IOException e) {
             System.out.println("Error writing matrix data: " + e);
-        } finally {
-            if(s!=null) {
-                try {
-                    s.close();
-                }catch(Exception e){
-                    e.printStackTrace();
-                }
-            }
         }
     }
 
+    /**
+     * Load the topics of a format. Topics only available in the serialized form of older versions are
+     * converted to the binary form on the way, so that later starts can map them instead.
+     */
     public static Map<String,List<List<Pair<String, Double>>>> loadLDA(String format){
+        File binaryFile = getBinaryLDAFile(format);
+        CardThemedLDA lda = CardThemedLDA.open(binaryFile);
+        if (lda != null) {
+            return lda;
+        }
+        Map<String,List<List<Pair<String, Double>>>> serialized = loadSerializedLDA(format);
+        if (serialized == null) {
+            return null;
+        }
         try {
-            FileInputStream fin = new FileInputStream(getLDAFile(format));
+            CardThemedLDA.write(binaryFile, serialized);
+            lda = CardThemedLDA.open(binaryFile);
+        } catch (IOException e) {
+            System.out.println("Error converting LDA data: " + e);
+        }
+        return lda != null ? lda : serialized;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String,List<List<Pair<String, Double>>>> loadSerializedLDA(String format){
+        File file = getLDAFile(format);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            FileInputStream fin = new FileInputStream(file);
             ObjectInputStream s = new ObjectInputStream(fin);
             Map<String,List<List<Pair<String, Double>>>> matrix = (Map<String,List<List<Pair<String, Double>>>>) s.readObject();
             s.close();
@@ -93,6 +110,10 @@ public class CardThemedLDAIO {
         return new File(ForgeConstants.DECK_GEN_DIR, name + SUFFIX_DATA);
     }
 
+    public static File getBinaryLDAFile(final String name) {
+        return new File(ForgeConstants.DECK_GEN_DIR, name + SUFFIX_BINARY);
+    }
+
     public static File getRAWLDAFile(final String name) {
         return new File(ForgeConstants.DECK_GEN_DIR, name + RAW_SUFFIX_DATA);
     }
@@ -0,0 +1,216 @@
+package forge.deck.io;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import forge.StaticData;
+import forge.item.PaperCard;
+
+/**
+ * Read-only card relation matrix backed by a memory mapped file, see {@link CardThemedMatrixIO}.
+ * The pool of a card is only decoded the first time it is asked for.
+ *
+ * File layout (after the header): the cards referenced by the matrix as name, edition and art index;
+ * the keys with the offset and length of their pool; then the card ids and the weights of all pools.
+ */
+public final class CardThemedMatrix extends AbstractMap<String, List<Map.Entry<PaperCard, Integer>>> {
+    static final int MAGIC = 0x4643544D; // FCTM
+    static final int VERSION = 1;
+
+    private final String[] cardNames;
+    private final String[] cardEditions;
+    private final int[] cardArtIndices;
+    private final PaperCard[] cards;
+
+    private final Map<String, Integer> keys;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final List<List<Map.Entry<PaperCard, Integer>>> pools;
+
+    private final ByteBuffer buffer;
+    private final int cardIdsStart;
+    private final int weightsStart;
+
+    private CardThemedMatrix(final ByteBuffer buffer) {
+        int cardCount = buffer.getInt();
+        cardNames = new String[cardCount];
+        cardEditions = new String[cardCount];
+        cardArtIndices = new int[cardCount];
+        cards = new PaperCard[cardCount];
+        for (int i = 0; i < cardCount; i++) {
+            cardNames[i] = CardDataFile.readString(buffer);
+            cardEditions[i] = CardDataFile.readString(buffer);
+            cardArtIndices[i] = buffer.getInt();
+        }
+
+        int keyCount = buffer.getInt();
+        keys = new LinkedHashMap<>(keyCount * 2);
+        offsets = new int[keyCount];
+        lengths = new int[keyCount];
+        pools = new ArrayList<>(Collections.<List<Map.Entry<PaperCard, Integer>>>nCopies(keyCount, null));
+        for (int i = 0; i < keyCount; i++) {
+            keys.put(CardDataFile.readString(buffer), i);
+            offsets[i] = buffer.getInt();
+            lengths[i] = buffer.getInt();
+        }
+
+        int entryCount = buffer.getInt();
+        this.buffer = buffer;
+        cardIdsStart = buffer.position();
+        weightsStart = cardIdsStart + 4 * entryCount;
+    }
+
+    /**
+     * @return the matrix in the given file, or null if the file is missing or of another version
+     */
+    public static CardThemedMatrix open(final File file) {
+        ByteBuffer buffer = CardDataFile.open(file, MAGIC, VERSION);
+        if (buffer == null) {
+            return null;
+        }
+        try {
+            return new CardThemedMatrix(buffer);
+        } catch (RuntimeException e) {
+            System.out.println("Error reading " + file.getName() + ": " + e);
+            return null;
+        }
+    }
+
+    public static void write(final File file, final Map<String, List<Map.Entry<PaperCard, Integer>>> matrix) throws IOException {
+        Map<PaperCard, Integer> cardIds = new LinkedHashMap<>();
+        int entryCount = 0;
+        for (List<Map.Entry<PaperCard, Integer>> pool : matrix.values()) {
+            for (Map.Entry<PaperCard, Integer> entry : pool) {
+                if (!cardIds.containsKey(entry.getKey())) {
+                    cardIds.put(entry.getKey(), cardIds.size());
+                }
+            }
+            entryCount += pool.size();
+        }
+
+        try (DataOutputStream out = CardDataFile.create(file, MAGIC, VERSION)) {
+            out.writeInt(cardIds.size());
+            for (PaperCard card : cardIds.keySet()) {
+                CardDataFile.writeString(out, card.getName());
+                CardDataFile.writeString(out, card.getEdition());
+                out.writeInt(card.getArtIndex());
+            }
+
+            out.writeInt(matrix.size());
+            int offset = 0;
+            for (Map.Entry<String, List<Map.Entry<PaperCard, Integer>>> kv : matrix.entrySet()) {
+                CardDataFile.writeString(out, kv.getKey());
+                out.writeInt(offset);
+                out.writeInt(kv.getValue().size());
+                offset += kv.getValue().size();
+            }
+
+            out.writeInt(entryCount);
+            for (List<Map.Entry<PaperCard, Integer>> pool : matrix.values()) {
+                for (Map.Entry<PaperCard, Integer> entry : pool) {
+                    out.writeInt(cardIds.get(entry.getKey()));
+                }
+            }
+            for (List<Map.Entry<PaperCard, Integer>> pool : matrix.values()) {
+                for (Map.Entry<PaperCard, Integer> entry : pool) {
+                    out.writeInt(entry.getValue());
+                }
+            }
+        }
+        CardDataFile.commit(file);
+    }
+
+    private PaperCard getCard(final int id) {
+        PaperCard card = cards[id];
+        if (card == null) {
+            card = StaticData.instance().getCommonCards().getCard(cardNames[id], cardEditions[id], cardArtIndices[id]);
+            if (card == null) {
+                card = StaticData.instance().getCommonCards().getUniqueByName(cardNames[id]);
+            }
+            cards[id] = card;
+        }
+        return card;
+    }
+
+    private synchronized List<Map.Entry<PaperCard, Integer>> getPool(final int key) {
+        List<Map.Entry<PaperCard, Integer>> pool = pools.get(key);
+        if (pool == null) {
+            List<Map.Entry<PaperCard, Integer>> entries = new ArrayList<>(lengths[key]);
+            for (int i = offsets[key]; i < offsets[key] + lengths[key]; i++) {
+                PaperCard card = getCard(buffer.getInt(cardIdsStart + 4 * i));
+                if (card != null) {
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(card, buffer.getInt(weightsStart + 4 * i)));
+                }
+            }
+            pool = Collections.unmodifiableList(entries);
+            pools.set(key, pool);
+        }
+        return pool;
+    }
+
+    @Override
+    public List<Map.Entry<PaperCard, Integer>> get(final Object key) {
+        Integer index = keys.get(key);
+        return index == null ? null : getPool(index);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return keys.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(keys.keySet());
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<Map.Entry<PaperCard, Integer>>>> entrySet() {
+        return new AbstractSet<Map.Entry<String, List<Map.Entry<PaperCard, Integer>>>>() {
+            @Override
+            public Iterator<Map.Entry<String, List<Map.Entry<PaperCard, Integer>>>> iterator() {
+                final Iterator<Map.Entry<String, Integer>> it = keys.entrySet().iterator();
+                return new Iterator<Map.Entry<String, List<Map.Entry<PaperCard, Integer>>>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+                    @Override
+                    public Map.Entry<String, List<Map.Entry<PaperCard, Integer>>> next() {
+                        if (!it.hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<String, Integer> key = it.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(key.getKey(), getPool(key.getValue()));
+                    }
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.size();
+            }
+        };
+    }
+}
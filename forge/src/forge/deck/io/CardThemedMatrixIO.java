@@ -2,10 +2,8 @@ package forge.deck.io;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,31 +19,48 @@ public class CardThemedMatrixIO {
 
     /** suffix for all gauntlet data files */
     public static final String SUFFIX_DATA = ".dat";
+    /** suffix for the binary matrix files, see {@link CardThemedMatrix} */
+    public static final String SUFFIX_BINARY = ".bin";
 
-    public static void saveMatrix(String format, HashMap<String,List<Map.Entry<PaperCard,Integer>>> map){
-        File file = getMatrixFile(format);
-        ObjectOutputStream s = null;
+    public static void saveMatrix(String format, Map<String,List<Map.Entry<PaperCard,Integer>>> map){
         try {
-            FileOutputStream f = new FileOutputStream(file);
-            s = new ObjectOutputStream(f);
-            s.writeObject(map);
-            s.close();
+            CardThemedMatrix.write(getBinaryMatrixFile(format), map);
         } catch (IOException e) {
             System.out.println("Error writing matrix data: " + e);
-        } finally {
-            if(s!=null) {
-                try {
-                    s.close();
-                }catch(Exception e){
-                    e.printStackTrace();
-                }
-            }
         }
     }
 
-    public static HashMap<String,List<Map.Entry<PaperCard,Integer>>> loadMatrix(String format){
+    /**
+     * Load the matrix of a format. Matrices only available in the serialized form of older versions are
+     * converted to the binary form on the way, so that later starts can map them instead.
+     */
+    public static Map<String,List<Map.Entry<PaperCard,Integer>>> loadMatrix(String format){
+        File binaryFile = getBinaryMatrixFile(format);
+        CardThemedMatrix matrix = CardThemedMatrix.open(binaryFile);
+        if (matrix != null) {
+            return matrix;
+        }
+        HashMap<String,List<Map.Entry<PaperCard,Integer>>> serialized = loadSerializedMatrix(format);
+        if (serialized == null) {
+            return null;
+        }
+        try {
+            CardThemedMatrix.write(binaryFile, serialized);
+            matrix = CardThemedMatrix.open(binaryFile);
+        } catch (IOException e) {
+            System.out.println("Error converting matrix data: " + e);
+        }
+        return matrix != null ? matrix : serialized;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HashMap<String,List<Map.Entry<PaperCard,Integer>>> loadSerializedMatrix(String format){
+        File file = getMatrixFile(format);
+        if (!file.exists()) {
+            return null;
+        }
         try {
-            FileInputStream fin = new FileInputStream(getMatrixFile(format));
+            FileInputStream fin = new FileInputStream(file);
             ObjectInputStream s = new ObjectInputStream(fin);
             HashMap<String, List<Map.Entry<PaperCard,Integer>>> matrix = (HashMap<String, List<Map.Entry<PaperCard,Integer>>>) s.readObject();
             s.close();
@@ -61,6 +76,10 @@ public class CardThemedMatrixIO {
         return new File(ForgeConstants.DECK_GEN_DIR, name + SUFFIX_DATA);
     }
 
+    public static File getBinaryMatrixFile(final String name) {
+        return new File(ForgeConstants.DECK_GEN_DIR, name + SUFFIX_BINARY);
+    }
+
     public static File getMatrixFolder(final String name) {
         return new File(ForgeConstants.DECK_GEN_DIR, name);
     }
@@ -49,6 +49,7 @@ import forge.game.zone.ZoneType;
 import forge.trackable.Tracker;
 import forge.util.Aggregates;
 import forge.util.MyRandom;
+import forge.util.SplitMixRandom;
 import forge.util.Visitor;
 
 import java.util.*;
@@ -82,6 +83,7 @@ public class Game {
     
     private CardCollection lastStateBattlefield = new CardCollection();
     private CardCollection lastStateGraveyard = new CardCollection();
+    private final CardLKICache lastStateCopies = new CardLKICache();
 
     private Map<Player, PlayerCollection> attackedThisTurn = Maps.newHashMap();
     private Map<Player, PlayerCollection> attackedLastTurn = Maps.newHashMap();
@@ -92,11 +94,17 @@ public class Game {
     private Direction turnOrder = Direction.getDefaultDirection();
 
     private long timestamp = 0;
+    private long stateVersion = 0;
+    private final GameStateCache stateCache = new GameStateCache(this);
     public final GameAction action;
     private final Match match;
     private GameStage age = GameStage.BeforeMulligan;
     private GameOutcome outcome;
 
+    // All randomness of the game comes from here, so that a game can be replayed from its seed
+    private final long seed;
+    private final SplitMixRandom random;
+
     private final GameView view; 
     private final Tracker tracker = new Tracker();
 
@@ -148,9 +156,10 @@ public class Game {
     public void copyLastState() {
         lastStateBattlefield.clear();
         lastStateGraveyard.clear();
+        lastStateCopies.startSnapshot();
         for (final Player p : getPlayers()) {
-            lastStateBattlefield.addAll(p.getZone(ZoneType.Battlefield).getLKICopy());
-            lastStateGraveyard.addAll(p.getZone(ZoneType.Graveyard).getLKICopy());
+            lastStateBattlefield.addAll(p.getZone(ZoneType.Battlefield).getLKICopy(lastStateCopies));
+            lastStateGraveyard.addAll(p.getZone(ZoneType.Graveyard).getLKICopy(lastStateCopies));
         }
     }
 
@@ -165,7 +174,7 @@ public class Game {
                 : null;
 
         if (lookup != null && lookup.remove(c)) {
-            lookup.add(CardUtil.getLKICopy(c));
+            lookup.add(lastStateCopies.updateLKICopy(c));
         }
     }
 
@@ -178,6 +187,8 @@ public class Game {
     }
 
     private final GameEntityCache<Card, CardView> cardCache = new GameEntityCache<>();
+    // current object of each card id in the zones of the game, see getCardState
+    private final Map<Integer, Card> cardsInZones = Maps.newHashMap();
     public Card getCard(CardView cardView) {
         return cardCache.get(cardView);
     }
@@ -233,7 +244,8 @@ public class Game {
         rules = rules0;
         match = match0;
 
-        MyRandom.updateSeed(players0, match0.getPlayedGames().size() + 1);
+        seed = match0.takeNextGameSeed();
+        random = new SplitMixRandom(seed);
 
         int highestTeam = -1;
         for (RegisteredPlayer psc : players0) {
@@ -278,6 +290,12 @@ public class Game {
         view = new GameView(this);
 
         subscribeToEvents(gameLog.getEventVisitor());
+        gameLog.setChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                updateGameLogForView(); //log entries are added in place
+            }
+        });
     }
 
     public GameView getView() {
@@ -433,10 +451,39 @@ public class Game {
         return timestamp;
     }
 
+    /**
+     * A number that grows with the changes that call {@link #updateStateVersion()}: a game event being fired, cards
+     * entering, leaving or being reordered in a zone, a spell or ability being put on the stack, the phase or player
+     * turn changing, a pass of continuous abilities, a player's life or counters changing, and, for the card object
+     * in its zone only, tapping, summoning sickness, keywords, pairing and anything that outdates its characteristics
+     * such as counters, power, toughness, types, colors or state. Other changes, and changes to copies of cards, only
+     * move it when they fire an event. Answers derived from those changes alone may be reused while it stays the same.
+     */
+    public final long getStateVersion() {
+        return stateVersion;
+    }
+    public final void updateStateVersion() {
+        stateVersion++;
+    }
+    public final GameStateCache getStateCache() {
+        return stateCache;
+    }
+
     public final GameOutcome getOutcome() {
         return outcome;
     }
 
+    public final long getSeed() {
+        return seed;
+    }
+
+    /**
+     * The random of this game. {@link MyRandom#getRandom()} returns it on the thread playing the game.
+     */
+    public final SplitMixRandom getRandom() {
+        return random;
+    }
+
     public ReplacementHandler getReplacementHandler() {
         return replacementHandler;
     }
@@ -461,6 +508,7 @@ public class Game {
 
         final GameOutcome result = new GameOutcome(reason, getRegisteredPlayers());
         result.setTurnsPlayed(getPhaseHandler().getTurn());
+        result.setSeed(seed);
 
         outcome = result;
         match.addGamePlayed(this);
@@ -559,11 +607,79 @@ public class Game {
     }
 
     public Card getCardState(final Card card, final Card notFound) {
+        final Card found = cardsInZones.get(card.getId());
+        if (found != null) {
+            final Player holder = found.getZone().getPlayer();
+            if (holder == null || ingamePlayers.contains(holder)) {
+                return found;
+            }
+        } else if (!hasInboundTokens()) {
+            return notFound;
+        }
+        // cards of players that left the game and tokens not yet in a zone aren't indexed
         CardStateVisitor visit = new CardStateVisitor(card);
         this.forEachCardInGame(visit);
         return visit.getFound(notFound);
     }
 
+    private boolean hasInboundTokens() {
+        for (final Player p : getPlayers()) {
+            if (!p.getInboundTokens().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the index behind {@link #getCardState} up to date, called by the zones when a card
+     * object is put into one of the zones visited by {@link #forEachCardInGame}.
+     */
+    public void onCardAddedToZone(final Card c, final Zone zone) {
+        if (isIndexedZone(zone)) {
+            cardsInZones.put(c.getId(), c);
+        }
+    }
+
+    public void onCardRemovedFromZone(final Card c, final Zone zone) {
+        if (isIndexedZone(zone)) {
+            final Card indexed = cardsInZones.get(c.getId());
+            // a newer object of the card may have been put into another zone before this one was removed
+            if (indexed != null && indexed.getZone() == zone) {
+                cardsInZones.remove(c.getId());
+            }
+        }
+    }
+
+    /**
+     * Whether this object is the current one of its card in a zone of the game, rather than a copy of it
+     * or a card that hasn't been put into a zone yet.
+     */
+    public boolean isCardObjectInZone(final Card c) {
+        return cardsInZones.get(c.getId()) == c;
+    }
+
+    private boolean isIndexedZone(final Zone zone) {
+        if (zone == stackZone) {
+            return true;
+        }
+        final Player p = zone.getPlayer();
+        if (p == null || p.getZone(zone.getZoneType()) != zone) {
+            return false; // LKI copies of zones
+        }
+        switch (zone.getZoneType()) {
+        case Graveyard:
+        case Hand:
+        case Library:
+        case Battlefield:
+        case Exile:
+        case Command:
+            return true;
+        default:
+            return false;
+        }
+    }
+
     // Allows visiting cards in game without allocating a temporary list.
     public void forEachCardInGame(Visitor<Card> visitor) {
         for (final Player player : getPlayers()) {
@@ -754,6 +870,7 @@ public class Game {
      * The events are sent to UI, log and sound system. Network listeners are under development.
      */
     public void fireEvent(final Event event) {
+        stateVersion++;
         events.post(event);
     }
     public void subscribeToEvents(final Object subscriber) {
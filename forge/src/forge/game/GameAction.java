@@ -241,7 +241,7 @@ public class GameAction {
                     sa.setHostCard(copied);
                 }
                 if (c.getName().equals("Skullbriar, the Walking Grave")) {
-                    copied.setCounters(c.getCounters());
+                    copied.setCounters(Maps.newEnumMap(c.getCounters()));
                 }
 
                 for (final SpellAbility sa : copied.getAllSpellAbilities()) {
@@ -802,17 +802,18 @@ public class GameAction {
     public final void checkStaticAbilities(final boolean runEvents) {
         checkStaticAbilities(runEvents, Sets.<Card>newHashSet(), CardCollection.EMPTY);
     }
-    public final boolean checkStaticAbilities(final boolean runEvents, final Set<Card> affectedCards, final CardCollectionView preList) {
-        if (isCheckingStaticAbilitiesOnHold()) {
-            return false;
-        }
-        if (game.isGameOver()) {
-            return false;
-        }
-        game.getTracker().freeze(); //prevent views flickering during while updating for state-based effects
+
+    /**
+     * Clear the effects of all static abilities and apply the continuous ones again, layer by layer.
+     * 
+     * @return the cards with static commands to check.
+     */
+    private CardCollectionView applyContinuousAbilities(final Set<Card> affectedCards, final CardCollectionView preList) {
+        final StaticEffects staticEffects = game.getStaticEffects();
+        game.updateStateVersion();
 
         // remove old effects
-        game.getStaticEffects().clearStaticEffects(affectedCards);
+        staticEffects.clearStaticEffects(affectedCards);
         game.getTriggerHandler().cleanUpTemporaryTriggers();
         game.getReplacementHandler().cleanUpTemporaryReplacements();
 
@@ -880,11 +881,54 @@ public class GameAction {
             }
         }
 
+        final CardCollection allAffected = new CardCollection();
         for (final CardCollectionView affected : affectedPerAbility.values()) {
             if (affected != null) {
-                Iterables.addAll(affectedCards, affected);
+                Iterables.addAll(allAffected, affected);
+            }
+        }
+        affectedCards.addAll(allAffected);
+
+        // effects applied to last known information don't match the state of the game, and abilities
+        // that read untracked state can't tell whether it changed
+        boolean reusable = preList.isEmpty();
+        final List<StaticAbility> variableAbilities = Lists.newArrayList();
+        for (final StaticAbility stAb : staticAbilities) {
+            if (stAb.dependsOnUntrackedState()) {
+                reusable = false;
+                break;
+            }
+            if (stAb.hasVariableInputs()) {
+                variableAbilities.add(stAb);
             }
         }
+        if (reusable) {
+            staticEffects.setUpToDate(game, allAffected, staticList, variableAbilities);
+        } else {
+            staticEffects.setOutdated();
+        }
+        return staticList;
+    }
+
+    public final boolean checkStaticAbilities(final boolean runEvents, final Set<Card> affectedCards, final CardCollectionView preList) {
+        if (isCheckingStaticAbilitiesOnHold()) {
+            return false;
+        }
+        if (game.isGameOver()) {
+            return false;
+        }
+        game.getTracker().freeze(); //prevent views flickering during while updating for state-based effects
+
+        final StaticEffects staticEffects = game.getStaticEffects();
+        final CardCollectionView staticList;
+        if (preList.isEmpty() && staticEffects.isUpToDate(game)) {
+            // nothing the continuous abilities depend on changed since they were last applied,
+            // so the effects in place are the ones that would be applied again
+            affectedCards.addAll(staticEffects.getAppliedAffectedCards());
+            staticList = staticEffects.getAppliedStaticCommandCards();
+        } else {
+            staticList = applyContinuousAbilities(affectedCards, preList);
+        }
 
         for (final Card c : staticList) {
             List<Object[]> toRemove = Lists.newArrayList();
@@ -1779,7 +1823,7 @@ public class GameAction {
         }
 
         matchPlayer += goesFirst.getName();
-        MyRandom.saveSeed(matchPlayer);
+        MyRandom.saveSeed(game.getSeed(), game.getMatch().getPlayers(), game.getMatch().getPlayedGames().size() + 1, matchPlayer);
 
         for (Player p : game.getPlayers()) {
             if (p != goesFirst) {
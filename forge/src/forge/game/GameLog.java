@@ -40,6 +40,8 @@ public class GameLog extends Observable implements Serializable {
     
     private final boolean quiet = false;
 
+    private transient Runnable changeListener;
+
     /** Logging level:
      * 0 - Turn
      * 2 - Stack items
@@ -61,6 +63,14 @@ public class GameLog extends Observable implements Serializable {
         log.add(entry);
         this.setChanged();
         this.notifyObservers();
+        if (changeListener != null) {
+            changeListener.run();
+        }
+    }
+
+    /** Sets the callback run after each added entry, used by the game to refresh its view. */
+    void setChangeListener(final Runnable changeListener) {
+        this.changeListener = changeListener;
     }
 
     /**
@@ -33,6 +33,7 @@ import forge.game.player.RegisteredPlayer;
 import forge.game.spellability.TargetChoices;
 import forge.game.zone.ZoneType;
 import forge.util.Lang;
+import forge.util.MyRandom;
 import forge.util.maps.MapOfLists;
 
 public class GameLogFormatter extends IGameEventVisitor.Base<GameLogEntry> {
@@ -47,6 +48,7 @@ public class GameLogFormatter extends IGameEventVisitor.Base<GameLogEntry> {
         for(String outcome : ev.result.getOutcomeStrings()) {
             log.add(GameLogEntryType.GAME_OUTCOME, outcome);
         }
+        log.add(GameLogEntryType.GAME_OUTCOME, "Game seed " + MyRandom.seedToString(ev.result.getSeed()));
         return generateSummary(ev.history);
     }
 
@@ -72,6 +72,7 @@ public final class GameOutcome implements Iterable<Entry<RegisteredPlayer, Playe
     }
 
     private int lastTurnNumber = 0;
+    private long seed;
     private int lifeDelta = 0;
     private int winningTeam = -1;
 
@@ -221,6 +222,17 @@ public final class GameOutcome implements Iterable<Entry<RegisteredPlayer, Playe
         lastTurnNumber = turnNumber;
     }
 
+    /**
+     * @return the seed the game was played with, see {@link Match#setNextGameSeed(long)}
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
     public HashMap<RegisteredPlayer, String> getPlayerNames() {
         return playerNames;
     }
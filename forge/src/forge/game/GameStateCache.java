@@ -0,0 +1,138 @@
+package forge.game;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Remembers answers computed from the state of a game for as long as that state doesn't change, as told by
+ * {@link Game#getStateVersion()}. Each game has one, see {@link Game#getStateCache()}.
+ * <p>
+ * Answers are looked up by a {@link Query} and up to two key objects, which are compared by identity. Booleans,
+ * enums and small boxed integers always are the same object for the same value, so they work as keys too.
+ * Answers can't be null, and callers must not change the answers they get, copy them first if they need to.
+ * <p>
+ * Changes to copies of cards don't update the state version, so answers about a card should only be cached
+ * while it is the card object in its zone, see {@link Game#isCardObjectInZone}.
+ */
+public final class GameStateCache {
+    /**
+     * A kind of question asked of the game state. Create one per kind and keep it in a static field.
+     */
+    public static final class Query<T> {
+        private final String name;
+
+        public Query(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class Key {
+        private final Query<?> query;
+        private final Object first;
+        private final Object second;
+
+        private Key(final Query<?> query, final Object first, final Object second) {
+            this.query = query;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(query) * 31 + System.identityHashCode(first)) * 31 + System.identityHashCode(second);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return query == other.query && first == other.first && second == other.second;
+        }
+    }
+
+    private final Game game;
+    private final Map<Key, Object> answers = new HashMap<Key, Object>();
+    private final Map<Query<?>, long[]> statistics = new IdentityHashMap<Query<?>, long[]>();
+    private long version = -1;
+
+    GameStateCache(final Game game) {
+        this.game = game;
+    }
+
+    public <T> T get(final Query<T> query, final Object first) {
+        return get(query, first, null);
+    }
+
+    /**
+     * @return the answer put for these keys at the current state version, or null if there isn't one.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(final Query<T> query, final Object first, final Object second) {
+        checkVersion();
+        final T answer = (T) answers.get(new Key(query, first, second));
+        final long[] counts = getCounts(query);
+        counts[answer == null ? 1 : 0]++;
+        return answer;
+    }
+
+    public <T> T put(final Query<T> query, final Object first, final T answer) {
+        return put(query, first, null, answer);
+    }
+
+    /**
+     * Remembers an answer until the game state changes.
+     * @return the answer.
+     */
+    public synchronized <T> T put(final Query<T> query, final Object first, final Object second, final T answer) {
+        checkVersion();
+        answers.put(new Key(query, first, second), answer);
+        return answer;
+    }
+
+    private void checkVersion() {
+        final long current = game.getStateVersion();
+        if (version != current) {
+            version = current;
+            if (!answers.isEmpty()) {
+                answers.clear();
+            }
+        }
+    }
+
+    private long[] getCounts(final Query<?> query) {
+        long[] counts = statistics.get(query);
+        if (counts == null) {
+            counts = new long[2];
+            statistics.put(query, counts);
+        }
+        return counts;
+    }
+
+    /**
+     * @return the hits and misses of each query asked so far, one query per line in order of their names.
+     */
+    public synchronized String getStatistics() {
+        final Map<String, long[]> byName = new TreeMap<String, long[]>();
+        for (final Entry<Query<?>, long[]> e : statistics.entrySet()) {
+            byName.put(e.getKey().toString(), e.getValue());
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (final Entry<String, long[]> e : byName.entrySet()) {
+            final long hits = e.getValue()[0];
+            final long total = hits + e.getValue()[1];
+            sb.append(e.getKey()).append(": ").append(hits).append(" hits of ").append(total);
+            sb.append(" (").append(total == 0 ? 0 : hits * 100 / total).append("%)\n");
+        }
+        return sb.toString();
+    }
+}
@@ -32,6 +32,8 @@ public class Match {
     private final List<GameOutcome> gamesPlayed = new ArrayList<GameOutcome>();
     private final List<GameOutcome> gamesPlayedRo;
 
+    private Long nextGameSeed = null;
+
     public Match(final GameRules rules0, final List<RegisteredPlayer> players0, final String title) {
         gamesPlayedRo = Collections.unmodifiableList(gamesPlayed);
         players = Collections.unmodifiableList(Lists.newArrayList(players0));
@@ -69,11 +71,37 @@ public class Match {
         return new Game(players, rules, this);
     }
 
+    /**
+     * Makes the next game created for this match play with the given seed, as recorded in a {@link GameOutcome}.
+     * Otherwise each game gets a new seed.
+     */
+    public void setNextGameSeed(long seed) {
+        nextGameSeed = seed;
+    }
+
+    long takeNextGameSeed() {
+        if (nextGameSeed == null) {
+            return MyRandom.nextSeed();
+        }
+        long seed = nextGameSeed;
+        nextGameSeed = null;
+        return seed;
+    }
+
     public void startGame(final Game game) {
         startGame(game, null);
     }
 
     public void startGame(final Game game, Runnable startGameHook) {
+        Random previousRandom = MyRandom.setGameRandom(game.getRandom());
+        try {
+            playGame(game, startGameHook);
+        } finally {
+            MyRandom.setGameRandom(previousRandom);
+        }
+    }
+
+    private void playGame(final Game game, Runnable startGameHook) {
         prepareAllZones(game);
         if (rules.useAnte()) {  // Deciding which cards go to ante
             Multimap<Player, Card> list = game.chooseCardsForAnte(rules.getMatchAnteRarity());
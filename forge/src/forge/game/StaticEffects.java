@@ -18,14 +18,23 @@
 package forge.game;
 
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import forge.game.card.Card;
+import forge.game.card.CardCollection;
+import forge.game.card.CardCollectionView;
+import forge.game.combat.Combat;
+import forge.game.player.Player;
 import forge.game.staticability.StaticAbility;
+import forge.game.zone.ZoneType;
+import forge.util.Visitor;
 
 /**
  * <p>
@@ -42,6 +51,13 @@ public class StaticEffects {
     //Global rule changes
     private final Set<GlobalRuleChange> ruleChanges = EnumSet.noneOf(GlobalRuleChange.class);
 
+    // What the last full application of the continuous abilities was based on and what it affected,
+    // so that it can be skipped while none of its inputs change
+    private List<Object> appliedInputs = null;
+    private final Set<Card> appliedAffectedCards = Sets.newHashSet();
+    private final CardCollection appliedStaticCommandCards = new CardCollection();
+    private final List<StaticAbility> appliedVariableAbilities = Lists.newArrayList();
+
     public final void clearStaticEffects(final Set<Card> affectedCards) {
         ruleChanges.clear();
 
@@ -80,4 +96,102 @@ public class StaticEffects {
     public Iterable<StaticEffect> getEffects() {
         return staticEffects.values();
     }
+
+    /**
+     * Whether the effects currently in place were applied to exactly the current state of the game,
+     * so that clearing and applying the continuous static abilities again would give the same result.
+     */
+    public final boolean isUpToDate(final Game game) {
+        return appliedInputs != null && appliedInputs.equals(getInputs(game));
+    }
+
+    /**
+     * Remember the state the continuous static abilities were just applied to, along with the cards
+     * they affected and the cards with static commands, to be reused while it stays the same.
+     * The values of the SVars the given abilities depend on are part of that state.
+     */
+    public final void setUpToDate(final Game game, final Iterable<Card> affectedCards, final CardCollectionView staticCommandCards,
+            final Iterable<StaticAbility> variableAbilities) {
+        appliedVariableAbilities.clear();
+        Iterables.addAll(appliedVariableAbilities, variableAbilities);
+        appliedInputs = getInputs(game);
+        appliedAffectedCards.clear();
+        Iterables.addAll(appliedAffectedCards, affectedCards);
+        appliedStaticCommandCards.clear();
+        appliedStaticCommandCards.addAll(staticCommandCards);
+    }
+
+    public final void setOutdated() {
+        appliedInputs = null;
+        appliedAffectedCards.clear();
+        appliedStaticCommandCards.clear();
+        appliedVariableAbilities.clear();
+    }
+
+    public final Set<Card> getAppliedAffectedCards() {
+        return appliedAffectedCards;
+    }
+
+    public final CardCollectionView getAppliedStaticCommandCards() {
+        return appliedStaticCommandCards;
+    }
+
+    /**
+     * The state of the game the continuous static abilities can read, as values that compare equal
+     * only while it stays the same.
+     */
+    private List<Object> getInputs(final Game game) {
+        final List<Object> inputs = Lists.newArrayList();
+        inputs.add(staticEffects.size());
+        inputs.add(game.getTimestamp());
+        inputs.add(game.getAge());
+        inputs.add(game.getPhaseHandler().getTurn());
+        inputs.add(game.getPhaseHandler().getPhase());
+        inputs.add(game.getPhaseHandler().getPlayerTurn());
+        inputs.add(game.getMonarch());
+        inputs.add(game.getStack().size());
+
+        final Combat combat = game.getCombat();
+        if (combat != null) {
+            inputs.add(Lists.newArrayList(combat.getAttackers()));
+            inputs.add(Lists.newArrayList(combat.getAllBlockers()));
+        }
+
+        for (final Player p : game.getPlayers()) {
+            inputs.add(p);
+            inputs.add(p.hasLost());
+            inputs.add(p.getLife());
+            inputs.add(Maps.newHashMap(p.getCounters()));
+            inputs.add(p.getLandsPlayedThisTurn());
+            inputs.add(p.getSpellsCastThisTurn());
+            inputs.add(p.getNumDrawnThisTurn());
+            inputs.add(p.getNumDiscardedThisTurn());
+            inputs.add(p.getLifeGainedThisTurn());
+            inputs.add(p.getLifeLostThisTurn());
+            inputs.add(p.getAttackedWithCreatureThisTurn());
+            inputs.add(p.hasBlessing());
+        }
+
+        game.forEachCardInGame(new InputsVisitor(inputs));
+
+        for (final StaticAbility stAb : appliedVariableAbilities) {
+            inputs.add(stAb.getVariableInputs());
+        }
+        return inputs;
+    }
+
+    private static final class InputsVisitor extends Visitor<Card> {
+        private final List<Object> inputs;
+
+        private InputsVisitor(final List<Object> inputs) {
+            this.inputs = inputs;
+        }
+
+        @Override
+        public boolean visit(final Card c) {
+            // only the order of the library matters for the abilities that can look at it
+            inputs.add(c.isInZone(ZoneType.Library) ? c : c.getStaticAbilityInputs());
+            return true;
+        }
+    }
 }
@@ -360,14 +360,13 @@ public class AbilityUtils {
         final Game game = player.getGame();
 
         // Strip and save sign for calculations
-        final boolean startsWithPlus = amount.charAt(0) == '+';
-        final boolean startsWithMinus = amount.charAt(0) == '-';
-        if (startsWithPlus || startsWithMinus) { amount = amount.substring(1); }
-        int multiplier = startsWithMinus ? -1 : 1;
+        final AmountExpression parsedAmount = AmountExpression.of(amount);
+        amount = parsedAmount.getUnsigned();
+        int multiplier = parsedAmount.getMultiplier();
 
         // return result soon for plain numbers
-        if (StringUtils.isNumeric(amount)) {
-            int val = Integer.parseInt(amount);
+        if (parsedAmount.isUnsignedNumeric()) {
+            int val = parsedAmount.getUnsignedValue();
             if (maxto) {
                 val = Math.max(val, 0);
             }
@@ -406,8 +405,9 @@ public class AbilityUtils {
         }
 
         // Handle numeric constant coming in svar value
-        if (StringUtils.isNumeric(svarval)) {
-            int val = Integer.parseInt(svarval);
+        final AmountExpression parsedSVar = AmountExpression.of(svarval);
+        if (parsedSVar.isNumeric()) {
+            int val = parsedSVar.getValue();
             if (maxto) {
                 val = Math.max(val, 0);
             }
@@ -415,10 +415,10 @@ public class AbilityUtils {
         }
 
         // Parse Object$Property string
-        final String[] calcX = svarval.split("\\$", 2);
+        final String[] calcX = { parsedSVar.getCalculationType(), parsedSVar.getCalculation() };
 
         // Incorrect parses mean zero.
-        if (calcX.length == 1 || calcX[1].equals("none")) {
+        if (calcX[1] == null || calcX[1].equals("none")) {
             return 0;
         }
 
@@ -431,9 +431,9 @@ public class AbilityUtils {
         } else if (calcX[0].startsWith("Number")) {
             val = CardFactoryUtil.xCount(card, svarval);
         } else if (calcX[0].startsWith("SVar")) {
-            final String[] l = calcX[1].split("/");
-            final String m = CardFactoryUtil.extractOperators(calcX[1]);
-            val = CardFactoryUtil.doXMath(AbilityUtils.calculateAmount(card, l[0], ability), m, card);
+            final AmountExpression parsedSVarCalc = AmountExpression.of(calcX[1]);
+            val = CardFactoryUtil.doXMath(AbilityUtils.calculateAmount(card, parsedSVarCalc.getHead(), ability),
+                    parsedSVarCalc.getOperators(), card);
         } else if (calcX[0].startsWith("PlayerCount")) {
             final String hType = calcX[0].substring(11);
             final FCollection<Player> players = new FCollection<Player>();
@@ -1540,11 +1540,12 @@ public class AbilityUtils {
      */
     public static int xCount(final Card c, final String s, final CardTraitBase ctb) {
         final String s2 = AbilityUtils.applyAbilityTextChangeEffects(s, ctb);
-        final String[] l = s2.split("/");
-        final String expr = CardFactoryUtil.extractOperators(s2);
+        final AmountExpression parsed = AmountExpression.of(s2);
+        final String head = parsed.getHead();
+        final String expr = parsed.getOperators();
 
         final String[] sq;
-        sq = l[0].split("\\.");
+        sq = parsed.getHeadParts();
 
         if (ctb != null) {
             // Count$Compare <int comparator value>.<True>.<False>
@@ -1620,8 +1621,8 @@ public class AbilityUtils {
                     return count;
                 }
 
-                if (l[0].startsWith("LastStateBattlefield")) {
-                    final String[] k = l[0].split(" ");
+                if (head.startsWith("LastStateBattlefield")) {
+                    final String[] k = head.split(" ");
                     CardCollectionView list = null;
                     if (sa.getLastStateBattlefield() != null && !sa.getLastStateBattlefield().isEmpty()) {
                     	list = new CardCollection(sa.getLastStateBattlefield());
@@ -1632,8 +1633,8 @@ public class AbilityUtils {
                     return CardFactoryUtil.doXMath(list.size(), expr, c);
                 }
 
-                if (l[0].startsWith("LastStateGraveyard")) {
-                    final String[] k = l[0].split(" ");
+                if (head.startsWith("LastStateGraveyard")) {
+                    final String[] k = head.split(" ");
                     CardCollectionView list = null;
                     if (sa.getLastStateGraveyard() != null && !sa.getLastStateGraveyard().isEmpty()) {
                         list = new CardCollection(sa.getLastStateGraveyard());
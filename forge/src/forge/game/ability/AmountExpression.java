@@ -0,0 +1,196 @@
+package forge.game.ability;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Pre-parsed form of the amount and count expressions evaluated by
+ * {@link AbilityUtils#calculateAmount}, the xCount methods and
+ * {@link forge.game.card.CardFactoryUtil#doXMath}, like "-X", "Count$Valid Creature.YouCtrl/Plus.2"
+ * or "Count$Compare X GE3.1.0".
+ *
+ * Each expression is split up only once and shared. Entries are keyed by the text itself, so
+ * an SVar that gets another value simply maps to another entry and nothing needs invalidating.
+ * The arrays handed out are shared as well and must not be modified.
+ */
+public final class AmountExpression {
+    // expressions put together at runtime would otherwise pile up forever
+    private static final int MAX_CACHED = 20000;
+    private static final ConcurrentMap<String, AmountExpression> cache = new ConcurrentHashMap<>();
+
+    public enum Operator {
+        // in order of precedence, the operator name only has to be contained
+        Plus, NMinus, Minus, Twice, Thrice, HalfUp, HalfDown, ThirdUp, ThirdDown, Negative, Times,
+        DivideEvenlyDown, Mod, Abs, LimitMax, LimitMin, None;
+
+        private static Operator find(final String operator) {
+            for (final Operator o : values()) {
+                if (o != None && operator.contains(o.name())) {
+                    return o;
+                }
+            }
+            return None;
+        }
+    }
+
+    private final String text;
+
+    // the whole text as a number
+    private final boolean numeric;
+    private final Integer value;
+
+    // the text as a signed amount
+    private final int multiplier;
+    private final String unsigned;
+    private final boolean unsignedNumeric;
+    private final Integer unsignedValue;
+
+    // Object$Property
+    private final String calculationType;
+    private final String calculation;
+
+    // Count expression with math operators
+    private final String head;
+    private final String operators;
+    private final String[] headParts;
+    private final String countHead;
+    private final String[] countHeadParts;
+
+    // the text as math operators
+    private final Operator operator;
+    private final Integer secondaryNumber;
+    private final String secondarySVar;
+
+    public static AmountExpression of(final String text) {
+        AmountExpression parsed = cache.get(text);
+        if (parsed == null) {
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            parsed = new AmountExpression(text);
+            cache.put(text, parsed);
+        }
+        return parsed;
+    }
+
+    private AmountExpression(final String text0) {
+        text = text0;
+
+        numeric = StringUtils.isNumeric(text);
+        value = numeric ? parseOrNull(text) : null;
+
+        final boolean startsWithPlus = text.startsWith("+");
+        final boolean startsWithMinus = text.startsWith("-");
+        multiplier = startsWithMinus ? -1 : 1;
+        unsigned = startsWithPlus || startsWithMinus ? text.substring(1) : text;
+        unsignedNumeric = StringUtils.isNumeric(unsigned);
+        unsignedValue = unsignedNumeric ? parseOrNull(unsigned) : null;
+
+        final String[] calcX = text.split("\\$", 2);
+        calculationType = calcX[0];
+        calculation = calcX.length > 1 ? calcX[1] : null;
+
+        // a text of only separators splits into nothing at all
+        final String[] l = text.split("/");
+        head = l.length > 0 ? l[0] : "";
+        operators = l.length > 1 ? l[1] : null;
+        headParts = head.split("\\.");
+        if (head.startsWith("Count$")) {
+            countHead = head.substring(6);
+            countHeadParts = countHead.split("\\.");
+        } else {
+            countHead = head;
+            countHeadParts = headParts;
+        }
+
+        final String[] s = text.split("\\.");
+        operator = s.length > 0 ? Operator.find(s[0]) : Operator.None;
+        if (s.length == 2) {
+            secondaryNumber = parseOrNull(s[1]);
+            secondarySVar = secondaryNumber == null ? s[1] : null;
+        } else {
+            secondaryNumber = 0;
+            secondarySVar = null;
+        }
+    }
+
+    private static Integer parseOrNull(final String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /** Whether the whole text is a plain number. */
+    public boolean isNumeric() {
+        return numeric;
+    }
+    public int getValue() {
+        return value != null ? value : Integer.parseInt(text);
+    }
+
+    /** -1 for a leading minus sign, 1 otherwise. */
+    public int getMultiplier() {
+        return multiplier;
+    }
+    /** The text without a leading sign. */
+    public String getUnsigned() {
+        return unsigned;
+    }
+    public boolean isUnsignedNumeric() {
+        return unsignedNumeric;
+    }
+    public int getUnsignedValue() {
+        return unsignedValue != null ? unsignedValue : Integer.parseInt(unsigned);
+    }
+
+    /** The part before the first $, the whole text if there is none. */
+    public String getCalculationType() {
+        return calculationType;
+    }
+    /** The part after the first $, null if there is none. */
+    public String getCalculation() {
+        return calculation;
+    }
+
+    /** The part before the first /. */
+    public String getHead() {
+        return head;
+    }
+    /** The part after the first / (up to the next one), null if there is none. */
+    public String getOperators() {
+        return operators;
+    }
+    public String[] getHeadParts() {
+        return headParts;
+    }
+    /** Same as {@link #getHead()}, without a leading "Count$". */
+    public String getCountHead() {
+        return countHead;
+    }
+    public String[] getCountHeadParts() {
+        return countHeadParts;
+    }
+
+    /** The operator, when the text itself is used as math operators like "Plus.2". */
+    public Operator getOperator() {
+        return operator;
+    }
+    /** The second operand is either a number or the name of an SVar. */
+    public boolean hasSecondarySVar() {
+        return secondarySVar != null;
+    }
+    public int getSecondaryNumber() {
+        return secondaryNumber;
+    }
+    public String getSecondarySVar() {
+        return secondarySVar;
+    }
+}
@@ -41,12 +41,14 @@ import forge.game.event.GameEventCardAttachment.AttachMethod;
 import forge.game.event.GameEventCardDamaged.DamageType;
 import forge.game.keyword.Keyword;
 import forge.game.keyword.KeywordCollection;
+import forge.game.keyword.KeywordIndex;
 import forge.game.keyword.KeywordInterface;
 import forge.game.keyword.KeywordsChange;
 import forge.game.player.Player;
 import forge.game.player.PlayerCollection;
 import forge.game.replacement.ReplaceMoved;
 import forge.game.replacement.ReplacementEffect;
+import forge.game.replacement.ReplacementType;
 import forge.game.replacement.ReplacementResult;
 import forge.game.spellability.*;
 import forge.game.staticability.StaticAbility;
@@ -203,6 +205,13 @@ public class Card extends GameEntity implements Comparable<Card> {
     private int semiPermanentPowerBoost = 0;
     private int semiPermanentToughnessBoost = 0;
 
+    // Power, toughness, colors and type are cached along with the epoch they were computed at. Every change to what
+    // they are derived from (state, counters, boosts, timestamped effects) moves the epoch on.
+    private int characteristicsEpoch = 0;
+    private CachedPT cachedPT = null;
+    private CachedCharacteristic<ColorSet> cachedColor = null;
+    private CachedCharacteristic<CardTypeView> cachedType = null;
+
     private int xManaCostPaid = 0;
     private Map<String, Integer> xManaCostPaidByColor;
 
@@ -413,6 +422,7 @@ public class Card extends GameEntity implements Comparable<Card> {
 
         currentStateName = state;
         currentState = states.get(state);
+        updateCharacteristicsEpoch();
 
         // update the host for static abilities
         for (StaticAbility sa : currentState.getStaticAbilities()) {
@@ -1279,9 +1289,16 @@ public class Card extends GameEntity implements Comparable<Card> {
         }
     }
 
+    @Override
+    public final void setCounters(final CounterType counterType, final Integer num) {
+        super.setCounters(counterType, num);
+        updateCharacteristicsEpoch();
+    }
+
     @Override
     public final void setCounters(final Map<CounterType, Integer> allCounters) {
         counters = allCounters;
+        updateCharacteristicsEpoch();
         view.updateCounters(this);
     }
 
@@ -1289,6 +1306,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void clearCounters() {
         if (counters.isEmpty()) { return; }
         counters.clear();
+        updateCharacteristicsEpoch();
         view.updateCounters(this);
     }
 
@@ -2486,6 +2504,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void setSickness(boolean sickness0) {
         if (sickness == sickness0) { return; }
         sickness = sickness0;
+        updateGameStateVersion();
         view.updateSickness(this);
     }
 
@@ -2890,7 +2909,12 @@ public class Card extends GameEntity implements Comparable<Card> {
         if (changedCardTypes.isEmpty()) {
             return state.getType();
         }
-        return state.getType().getTypeWithChanges(getChangedCardTypes());
+        CachedCharacteristic<CardTypeView> type = cachedType;
+        if (type == null || !type.isCurrent(characteristicsEpoch, state)) {
+            type = new CachedCharacteristic<CardTypeView>(characteristicsEpoch, state, state.getType().getTypeWithChanges(getChangedCardTypes()));
+            cachedType = type;
+        }
+        return type.value;
     }
 
     public Iterable<CardChangedType> getChangedCardTypes() {
@@ -2927,6 +2951,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         changedCardTypes.put(timestamp, new CardChangedType(
                 addType, removeType, removeSuperTypes, removeCardTypes, removeSubTypes,
                 removeLandTypes, removeCreatureTypes, removeArtifactTypes, removeEnchantmentTypes));
+        updateCharacteristicsEpoch();
         if (updateView) {
             currentState.getView().updateType(currentState);
         }
@@ -2967,13 +2992,17 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
 
     public final void removeChangedCardTypes(final long timestamp, final boolean updateView) {
-        if (changedCardTypes.remove(timestamp) != null && updateView) {
-            currentState.getView().updateType(currentState);
+        if (changedCardTypes.remove(timestamp) != null) {
+            updateCharacteristicsEpoch();
+            if (updateView) {
+                currentState.getView().updateType(currentState);
+            }
         }
     }
 
     public final void addColor(final String s, final boolean addToColors, final long timestamp) {
         changedCardColors.put(timestamp, new CardColor(s, addToColors, timestamp));
+        updateCharacteristicsEpoch();
         currentState.getView().updateColors(this);
     }
 
@@ -2981,6 +3010,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         final CardColor removeCol = changedCardColors.remove(timestampIn);
 
         if (removeCol != null) {
+            updateCharacteristicsEpoch();
             currentState.getView().updateColors(this);
         }
     }
@@ -2998,6 +3028,14 @@ public class Card extends GameEntity implements Comparable<Card> {
         return determineColor(currentState);
     }
     public final ColorSet determineColor(CardState state) {
+        CachedCharacteristic<ColorSet> color = cachedColor;
+        if (color == null || !color.isCurrent(characteristicsEpoch, state)) {
+            color = new CachedCharacteristic<ColorSet>(characteristicsEpoch, state, computeColor(state));
+            cachedColor = color;
+        }
+        return color.value;
+    }
+    private ColorSet computeColor(CardState state) {
         final Iterable<CardColor> colorList = changedCardColors.values();
         byte colors = state.getColor();
         for (final CardColor cc : colorList) {
@@ -3113,6 +3151,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         } else {
             newPT.put(timestamp, Pair.of(power, toughness));
         }
+        updateCharacteristicsEpoch();
         currentState.getView().updatePower(this);
         currentState.getView().updateToughness(this);
     }
@@ -3124,6 +3163,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         removed |= newPTCharacterDefining.remove(timestamp) != null;
         
         if (removed) {
+            updateCharacteristicsEpoch();
             currentState.getView().updatePower(this);
             currentState.getView().updateToughness(this);
         }
@@ -3142,7 +3182,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         return new StatBreakdown(getCurrentPower(), getTempPowerBoost(), getSemiPermanentPowerBoost(), getPowerBonusFromCounters());
     }
     public final int getUnswitchedPower() {
-        return getUnswitchedPowerBreakdown().getTotal();
+        return getCachedPT().power;
     }
 
     public final int getPowerBonusFromCounters() {
@@ -3164,6 +3204,38 @@ public class Card extends GameEntity implements Comparable<Card> {
         return getUnswitchedPower();
     }
 
+    private CachedPT getCachedPT() {
+        CachedPT pt = cachedPT;
+        if (pt == null || !pt.isCurrent(characteristicsEpoch, currentState)) {
+            final int epoch = characteristicsEpoch;
+            pt = new CachedPT(epoch, currentState, getUnswitchedPowerBreakdown().getTotal(), getUnswitchedToughnessBreakdown().getTotal());
+            cachedPT = pt;
+        }
+        return pt;
+    }
+
+    /**
+     * Marks the cached power, toughness, colors and type of this card as outdated. This is called whenever something
+     * they are derived from changes.
+     */
+    final void updateCharacteristicsEpoch() {
+        characteristicsEpoch++;
+        updateGameStateVersion();
+    }
+    final int getCharacteristicsEpoch() {
+        return characteristicsEpoch;
+    }
+
+    /**
+     * Tells the game that something about this card changed, see {@link Game#getStateVersion()}. Copies of
+     * cards and cards that aren't in a zone yet aren't part of the game state.
+     */
+    private void updateGameStateVersion() {
+        if (game != null && game.isCardObjectInZone(this)) {
+            game.updateStateVersion();
+        }
+    }
+
     public final int getCurrentToughness() {
         int total = getBaseToughness();
         final int setToughness = getSetToughness();
@@ -3203,7 +3275,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         return new StatBreakdown(getCurrentToughness(), getTempToughnessBoost(), getSemiPermanentToughnessBoost(), getToughnessBonusFromCounters());
     }
     public final int getUnswitchedToughness() {
-        return getUnswitchedToughnessBreakdown().getTotal();
+        return getCachedPT().toughness;
     }
 
     public final int getToughnessBonusFromCounters() {
@@ -3220,7 +3292,10 @@ public class Card extends GameEntity implements Comparable<Card> {
         return getUnswitchedToughnessBreakdown();
     }
     public final int getNetToughness() {
-        return getNetToughnessBreakdown().getTotal();
+        if (getAmountOfKeyword("CARDNAME's power and toughness are switched") % 2 != 0) {
+            return getUnswitchedPower();
+        }
+        return getUnswitchedToughness();
     }
 
     public final boolean toughnessAssignsDamage() {
@@ -3271,6 +3346,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void addTempPowerBoost(final int n) {
         if (n == 0) { return; }
         tempPowerBoost += n;
+        updateCharacteristicsEpoch();
         currentState.getView().updatePower(this);
         currentState.getView().updateToughness(this);
     }
@@ -3278,6 +3354,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void addTempToughnessBoost(final int n) {
         if (n == 0) { return; }
         tempToughnessBoost += n;
+        updateCharacteristicsEpoch();
         currentState.getView().updateToughness(this);
         currentState.getView().updatePower(this);
     }
@@ -3294,6 +3371,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void addSemiPermanentPowerBoost(final int n, final boolean updateViewImmediately) {
         if (n == 0) { return; }
         semiPermanentPowerBoost += n;
+        updateCharacteristicsEpoch();
         if (updateViewImmediately) {
             currentState.getView().updatePower(this);
             currentState.getView().updateToughness(this);
@@ -3303,6 +3381,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void addSemiPermanentToughnessBoost(final int n, final boolean updateViewImmediately) {
         if (n == 0) { return; }
         semiPermanentToughnessBoost += n;
+        updateCharacteristicsEpoch();
         if (updateViewImmediately) {
             currentState.getView().updateToughness(this);
             currentState.getView().updatePower(this);
@@ -3312,6 +3391,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void setSemiPermanentPowerBoost(final int n) {
         if (semiPermanentPowerBoost == n) { return; }
         semiPermanentPowerBoost = n;
+        updateCharacteristicsEpoch();
         currentState.getView().updatePower(this);
         currentState.getView().updateToughness(this);
     }
@@ -3319,6 +3399,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void setSemiPermanentToughnessBoost(final int n) {
         if (semiPermanentToughnessBoost == n) { return; }
         semiPermanentToughnessBoost = n;
+        updateCharacteristicsEpoch();
         currentState.getView().updateToughness(this);
         currentState.getView().updatePower(this);
     }
@@ -3333,6 +3414,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void setTapped(boolean tapped0) {
         if (tapped == tapped0) { return; }
         tapped = tapped0;
+        updateGameStateVersion();
         view.updateTapped(this);
     }
 
@@ -3411,9 +3493,26 @@ public class Card extends GameEntity implements Comparable<Card> {
             keyword = keyword.substring(7);
         }
 
-        HasKeywordVisitor visitor = new HasKeywordVisitor(keyword, false);
-        visitKeywords(state, visitor);
-        return visitor.getResult();
+        return getKeywordIndex(state).contains(KeywordIndex.find(keyword));
+    }
+
+    // Indexes the same keywords that visitKeywords() visits, rebuilding the index of the state only when one of the
+    // collections it was built from has changed since.
+    private KeywordIndex getKeywordIndex(CardState state) {
+        final KeywordCollection unhidden, extrinsic;
+        if (changedCardKeywords.isEmpty()) {
+            unhidden = state.getIntrinsicKeywordCollection();
+            extrinsic = extrinsicKeyword;
+        } else {
+            unhidden = state.getCachedKeywordCollection();
+            extrinsic = null;
+        }
+        KeywordIndex index = state.getKeywordIndex();
+        if (index == null || !index.isCurrent(unhidden, extrinsic, hiddenExtrinsicKeyword)) {
+            index = new KeywordIndex(unhidden, extrinsic, hiddenExtrinsicKeyword);
+            state.setKeywordIndex(index);
+        }
+        return index;
     }
 
     public final void updateKeywords() {
@@ -3443,7 +3542,8 @@ public class Card extends GameEntity implements Comparable<Card> {
             newCks.addKeywordsToCard(this);
             changedCardKeywords.put(timestamp, newCks);
         }
-        
+        updateGameStateVersion();
+
         if (updateView) {
             updateKeywords();
         }
@@ -3470,7 +3570,8 @@ public class Card extends GameEntity implements Comparable<Card> {
             newCks.addKeywordsToCard(this);
             changedCardKeywords.put(timestamp, newCks);
         }
-        
+        updateGameStateVersion();
+
         if (updateView) {
             updateKeywords();
         }
@@ -3498,8 +3599,11 @@ public class Card extends GameEntity implements Comparable<Card> {
 
     public final KeywordsChange removeChangedCardKeywords(final long timestamp, final boolean updateView) {
         KeywordsChange change = changedCardKeywords.remove(timestamp);
-        if (change != null && updateView) {   
-            updateKeywords();
+        if (change != null) {
+            updateGameStateVersion();
+            if (updateView) {
+                updateKeywords();
+            }
         }
         return change;
     }
@@ -3701,6 +3805,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final KeywordInterface addIntrinsicKeyword(final String s) {
         KeywordInterface inst = currentState.addIntrinsicKeyword(s, true);
         if (inst != null) {
+            updateGameStateVersion();
             currentState.getView().updateKeywords(this, currentState);
         }
         return inst;
@@ -3711,12 +3816,14 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final void addIntrinsicKeywords(final Iterable<String> s, boolean initTraits) {
         if (currentState.addIntrinsicKeywords(s, initTraits)) {
+            updateGameStateVersion();
             currentState.getView().updateKeywords(this, currentState);
         }
     }
 
     public final void removeIntrinsicKeyword(final String s) {
         if (currentState.removeIntrinsicKeyword(s)) {
+            updateGameStateVersion();
             currentState.getView().updateKeywords(this, currentState);
         }
     }
@@ -3727,10 +3834,12 @@ public class Card extends GameEntity implements Comparable<Card> {
     public final void setExtrinsicKeyword(final List<String> a) {
         extrinsicKeyword.clear();
         extrinsicKeyword.addAll(a);
+        updateGameStateVersion();
     }
     public void setExtrinsicKeyword(Collection<KeywordInterface> extrinsicKeyword2) {
         extrinsicKeyword.clear();
         extrinsicKeyword.insertAll(extrinsicKeyword2);
+        updateGameStateVersion();
     }
 
     public void addExtrinsicKeyword(final String s) {
@@ -3739,6 +3848,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         }
         else {
             extrinsicKeyword.add(s);
+            updateGameStateVersion();
         }
     }
 
@@ -3747,6 +3857,7 @@ public class Card extends GameEntity implements Comparable<Card> {
             removeHiddenExtrinsicKeyword(s);
         }
         else if (extrinsicKeyword.remove(s)) {
+            updateGameStateVersion();
             currentState.getView().updateKeywords(this, currentState);
         }
     }
@@ -3764,6 +3875,7 @@ public class Card extends GameEntity implements Comparable<Card> {
             needKeywordUpdate = true;
         }
         if (needKeywordUpdate) {
+            updateGameStateVersion();
             currentState.getView().updateKeywords(this, currentState);
         }
     }
@@ -3787,6 +3899,7 @@ public class Card extends GameEntity implements Comparable<Card> {
             s = s.substring(7);
         }
         if (hiddenExtrinsicKeyword.add(s) != null) {
+            updateGameStateVersion();
             view.updateNonAbilityText(this);
             currentState.getView().updateKeywords(this, currentState);
         }
@@ -3794,6 +3907,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     
     public final void addHiddenExtrinsicKeyword(KeywordInterface k) {
         if (hiddenExtrinsicKeyword.insert(k)) {
+            updateGameStateVersion();
             view.updateNonAbilityText(this);
             currentState.getView().updateKeywords(this, currentState);
         }
@@ -3804,6 +3918,7 @@ public class Card extends GameEntity implements Comparable<Card> {
             s = s.substring(7);
         }
         if (hiddenExtrinsicKeyword.remove(s)) {
+            updateGameStateVersion();
             view.updateNonAbilityText(this);
             currentState.getView().updateKeywords(this, currentState);
         }
@@ -4058,9 +4173,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         return getAmountOfKeyword(k, currentState);
     }
     public final int getAmountOfKeyword(final String k, CardState state) {
-        CountKeywordVisitor visitor = new CountKeywordVisitor(k);
-        visitKeywords(state, visitor);
-        return visitor.getCount();
+        return getKeywordIndex(state).count(KeywordIndex.find(k));
     }
 
     public final int getAmountOfKeyword(final Keyword k) {
@@ -4108,41 +4221,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     // Takes one argument like Permanent.Blue+withFlying
     @Override
     public final boolean isValid(final String restriction, final Player sourceController, final Card source, SpellAbility spellAbility) {
-        if (isImmutable() && source != null && !source.isRemembered(this) &&
-                !(restriction.startsWith("Emblem") || restriction.startsWith("Effect"))) { // special case exclusion
-            return false;
-        }
-
-        // Inclusive restrictions are Card types
-        final String[] incR = restriction.split("\\.", 2);
-
-        boolean testFailed = false;
-        if (incR[0].startsWith("!")) {
-            testFailed = true; // a bit counter logical))
-            incR[0] = incR[0].substring(1); // consume negation sign
-        }
-
-        if (incR[0].equals("Spell") && !isSpell()) {
-            return testFailed;
-        }
-        if (incR[0].equals("Permanent") && (isInstant() || isSorcery())) {
-            return testFailed;
-        }
-        if (!incR[0].equals("card") && !incR[0].equals("Card") && !incR[0].equals("Spell")
-                && !incR[0].equals("Permanent") && !getType().hasStringType(incR[0])) {
-            return testFailed; // Check for wrong type
-        }
-
-        if (incR.length > 1) {
-            final String excR = incR[1];
-            final String[] exRs = excR.split("\\+"); // Exclusive Restrictions are ...
-            for (String exR : exRs) {
-                if (!hasProperty(exR, sourceController, source, spellAbility)) {
-                    return testFailed;
-                }
-            }
-        }
-        return !testFailed;
+        return CardRestriction.of(restriction).matches(this, sourceController, source, spellAbility);
     }
 
     // Takes arguments like Blue or withFlying
@@ -5002,6 +5081,7 @@ public class Card extends GameEntity implements Comparable<Card> {
     }
     public final void setPairedWith(final Card c) {
         pairedWith = view.setCard(pairedWith, c, TrackableProperty.PairedWith);
+        updateGameStateVersion();
     }
     public final boolean isPaired() {
         return pairedWith != null;
@@ -5313,6 +5393,10 @@ public class Card extends GameEntity implements Comparable<Card> {
         return currentState.getReplacementEffects();
     }
 
+    public boolean hasReplacementEffectFor(final ReplacementType mode) {
+        return currentState.hasReplacementEffectFor(mode);
+    }
+
     public void setReplacementEffects(final Iterable<ReplacementEffect> res) {
         currentState.clearReplacementEffects();
         for (final ReplacementEffect replacementEffect : res) {
@@ -5708,6 +5792,81 @@ public class Card extends GameEntity implements Comparable<Card> {
         staticCommandList.add(objects);
     }
 
+    /**
+     * The state of this card that continuous static abilities can read, either as their host or when
+     * choosing the cards they affect, as values that compare equal only while that state is the same.
+     * Changes made by the static abilities themselves are keyed by the timestamp of their host, so
+     * applying them again gives equal inputs.
+     */
+    public final List<Object> getStaticAbilityInputs() {
+        final List<Object> inputs = Lists.newArrayList();
+        inputs.add(getId());
+        inputs.add(currentZone == null ? null : currentZone.getZoneType());
+        inputs.add(getController());
+        inputs.add(Maps.newHashMap(tempControllers));
+        inputs.add(timestamp);
+        inputs.add(currentStateName);
+        inputs.add(currentState);
+        inputs.add(currentState.getName());
+        inputs.add(castFrom);
+
+        inputs.add(tapped);
+        inputs.add(sickness);
+        inputs.add(phasedOut);
+        inputs.add(token);
+        inputs.add(monstrous);
+        inputs.add(renowned);
+        inputs.add(isCommander);
+        inputs.add(damage);
+        inputs.add(hasBeenDealtDeathtouchDamage);
+        inputs.add(Maps.newHashMap(receivedDamageFromThisTurn));
+        inputs.add(turnInZone);
+        inputs.add(exertThisTurn);
+        inputs.add(Maps.newHashMap(getCounters()));
+
+        inputs.add(enchanting);
+        inputs.add(equipping);
+        inputs.add(fortifying);
+        inputs.add(pairedWith);
+        inputs.add(Lists.newArrayList(getEnchantedBy(false)));
+        inputs.add(equippedBy == null ? null : Lists.newArrayList(equippedBy));
+        inputs.add(fortifiedBy == null ? null : Lists.newArrayList(fortifiedBy));
+        inputs.add(imprintedCards == null ? null : Lists.newArrayList(imprintedCards));
+        inputs.add(Lists.newArrayList(rememberedObjects));
+        inputs.add(chosenType);
+        inputs.add(chosenColors == null ? null : Lists.newArrayList(chosenColors));
+        inputs.add(namedCard);
+        inputs.add(chosenPlayer);
+        inputs.add(chosenNumber);
+
+        inputs.add(Lists.newArrayList(changedCardTypes.keySet()));
+        inputs.add(Lists.newArrayList(changedCardKeywords.keySet()));
+        inputs.add(Lists.newArrayList(changedCardColors.keySet()));
+        inputs.add(changedTextColors.getTimestamps());
+        inputs.add(changedTextTypes.getTimestamps());
+        inputs.add(Lists.newArrayList(newPT.keySet()));
+        inputs.add(Lists.newArrayList(newPTCharacterDefining.keySet()));
+        inputs.add(tempPowerBoost);
+        inputs.add(tempToughnessBoost);
+        inputs.add(semiPermanentPowerBoost);
+        inputs.add(semiPermanentToughnessBoost);
+        inputs.add(Lists.newArrayList(extrinsicKeyword));
+        inputs.add(Lists.newArrayList(hiddenExtrinsicKeyword));
+        final Map<StaticAbility, Player> mayPlayers = Maps.newHashMap();
+        for (final Entry<StaticAbility, CardPlayOption> e : mayPlay.entrySet()) {
+            mayPlayers.put(e.getKey(), e.getValue().getPlayer());
+        }
+        inputs.add(mayPlayers);
+        inputs.add(HashMultimap.create(withFlash));
+        inputs.add(Maps.newHashMap(goad));
+        final List<List<Object>> staticCommands = Lists.newArrayList();
+        for (final Object[] command : staticCommandList) {
+            staticCommands.add(Arrays.asList(command.clone()));
+        }
+        inputs.add(staticCommands);
+        return inputs;
+    }
+
     //allow special cards to override this function to return another card for the sake of UI logic
     public Card getCardForUi() {
         return this;
@@ -5730,37 +5889,6 @@ public class Card extends GameEntity implements Comparable<Card> {
         return view;
     }
 
-    // Counts number of instances of a given keyword.
-    private static final class CountKeywordVisitor extends Visitor<KeywordInterface> {
-        private String keyword;
-        private int count;
-        private boolean startOf;
-
-        private CountKeywordVisitor(String keyword) {
-            this.keyword = keyword;
-            this.count = 0;
-            this.startOf = false;
-        }
-
-        private CountKeywordVisitor(String keyword, boolean startOf) {
-            this(keyword);
-            this.startOf = startOf;
-        }
-
-        @Override
-        public boolean visit(KeywordInterface inst) {
-            final String kw = inst.getOriginal();
-            if ((startOf && kw.startsWith(keyword)) || kw.equals(keyword)) {
-                count++;
-            }
-            return true;
-        }
-
-        public int getCount() {
-            return count;
-        }
-    }
-
     private static final class HasKeywordVisitor extends Visitor<KeywordInterface> {
         private String keyword;
         private final MutableBoolean result = new MutableBoolean(false);
@@ -5785,6 +5913,42 @@ public class Card extends GameEntity implements Comparable<Card> {
         }
     }
 
+    // A characteristic of the given state, as it was at the given epoch.
+    private static final class CachedCharacteristic<T> {
+        private final int epoch;
+        private final CardState state;
+        private final T value;
+
+        private CachedCharacteristic(int epoch, CardState state, T value) {
+            this.epoch = epoch;
+            this.state = state;
+            this.value = value;
+        }
+
+        private boolean isCurrent(int epoch0, CardState state0) {
+            return epoch == epoch0 && state == state0;
+        }
+    }
+
+    // Unswitched power and toughness of the current state, as they were at the given epoch.
+    private static final class CachedPT {
+        private final int epoch;
+        private final CardState state;
+        private final int power;
+        private final int toughness;
+
+        private CachedPT(int epoch, CardState state, int power, int toughness) {
+            this.epoch = epoch;
+            this.state = state;
+            this.power = power;
+            this.toughness = toughness;
+        }
+
+        private boolean isCurrent(int epoch0, CardState state0) {
+            return epoch == epoch0 && state == state0;
+        }
+    }
+
     // Collects all the keywords into a list.
     private static final class ListKeywordVisitor extends Visitor<KeywordInterface> {
         private List<KeywordInterface> keywords = Lists.newArrayList();
@@ -5805,6 +5969,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         for (Entry<Long, CardChangedType> entry : changedCardTypes.entrySet()) {
             this.changedCardTypes.put(entry.getKey(), entry.getValue());
         }
+        updateCharacteristicsEpoch();
     }
 
     public void setChangedCardKeywords(Map<Long, KeywordsChange> changedCardKeywords) {
@@ -5819,6 +5984,7 @@ public class Card extends GameEntity implements Comparable<Card> {
         for (Entry<Long, CardColor> entry : changedCardColors.entrySet()) {
             this.changedCardColors.put(entry.getKey(), entry.getValue());
         }
+        updateCharacteristicsEpoch();
     }
 
     public void ceaseToExist() {
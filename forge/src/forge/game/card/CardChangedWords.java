@@ -1,10 +1,12 @@
 package forge.game.card;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.SortedMap;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import forge.card.CardType;
@@ -36,6 +38,10 @@ public final class CardChangedWords {
         isDirty = true;
     }
 
+    List<Long> getTimestamps() {
+        return Lists.newArrayList(map.keySet());
+    }
+
     void copyFrom(final CardChangedWords other) {
         map.clear();
         map.putAll(other.map);
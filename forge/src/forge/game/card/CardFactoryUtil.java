@@ -35,6 +35,7 @@ import forge.game.Game;
 import forge.game.GameEntity;
 import forge.game.GameLogEntryType;
 import forge.game.ability.AbilityFactory;
+import forge.game.ability.AmountExpression;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
 import forge.game.card.CardPredicates.Presets;
@@ -343,8 +344,7 @@ public class CardFactoryUtil {
      * @return an array of {@link java.lang.String} objects.
      */
     public static String extractOperators(final String expression) {
-        String[] l = expression.split("/");
-        return l.length > 1 ? l[1] : null;
+        return AmountExpression.of(expression).getOperators();
     }
 
     /**
@@ -644,41 +644,39 @@ public class CardFactoryUtil {
         if (StringUtils.isBlank(expression) || c == null) {
             return 0;
         }
-        if (StringUtils.isNumeric(expression)) {
-            return Integer.parseInt(expression);
+        final AmountExpression parsed = AmountExpression.of(expression);
+        if (parsed.isNumeric()) {
+            return parsed.getValue();
         }
 
         final Player cc = (activitor == null ? c.getController() : activitor);
         final Game game = c.getGame();
         final Player activePlayer = game.getPhaseHandler().getPlayerTurn();
 
-        final String[] l = expression.split("/");
-        final String m = extractOperators(expression);
+        final String m = parsed.getOperators();
 
         // accept straight numbers
-        if (l[0].startsWith("Number$")) {
-            final String number = l[0].substring(7);
+        if (parsed.getHead().startsWith("Number$")) {
+            final String number = parsed.getHead().substring(7);
             if (number.equals("ChosenNumber")) {
                 return doXMath(c.getChosenNumber(), m, c);
             }
             return doXMath(Integer.parseInt(number), m, c);
         }
 
-        if (l[0].startsWith("Count$")) {
-            l[0] = l[0].substring(6);
-        }
+        final String head = parsed.getCountHead();
 
-        if (l[0].startsWith("SVar$")) {
-            return doXMath(xCount(c, c.getSVar(l[0].substring(5))), m, c);
+        if (head.startsWith("SVar$")) {
+            return doXMath(xCount(c, c.getSVar(head.substring(5))), m, c);
         }
 
-        if (l[0].startsWith("Controller$")) {
-            return playerXProperty(cc, l[0].substring(11), c);
+        if (head.startsWith("Controller$")) {
+            return playerXProperty(cc, head.substring(11), c);
         }
 
         // Manapool
-        if (l[0].startsWith("ManaPool")) {
-            final String color = l[0].split(":")[1];
+        if (head.startsWith("ManaPool")) {
+            final String color = head.split(":")[1];
             if (color.equals("All")) {
                 return cc.getManaPool().totalMana();
             }
@@ -686,8 +684,8 @@ public class CardFactoryUtil {
         }
 
         // count valid cards in any specified zone/s
-        if (l[0].startsWith("Valid")) {
-            String[] lparts = l[0].split(" ", 2);
+        if (head.startsWith("Valid")) {
+            String[] lparts = head.split(" ", 2);
             final String[] rest = lparts[1].split(",");
 
             final CardCollectionView cardsInZones = lparts[0].length() > 5 
@@ -698,12 +696,12 @@ public class CardFactoryUtil {
             return doXMath(cards.size(), m, c);
         }
 
-        if (l[0].startsWith("ImprintedCardManaCost") && !c.getImprintedCards().isEmpty()) {
+        if (head.startsWith("ImprintedCardManaCost") && !c.getImprintedCards().isEmpty()) {
             return c.getImprintedCards().get(0).getCMC();
         }
 
-        if (l[0].startsWith("GreatestPower_")) {
-            final String restriction = l[0].substring(14);
+        if (head.startsWith("GreatestPower_")) {
+            final String restriction = head.substring(14);
             final String[] rest = restriction.split(",");
             CardCollection list = CardLists.getValidCards(cc.getGame().getCardsIn(ZoneType.Battlefield), rest, cc, c, null);
             int highest = 0;
@@ -715,8 +713,8 @@ public class CardFactoryUtil {
             return highest;
         }
 
-        if (l[0].startsWith("GreatestToughness_")) {
-            final String restriction = l[0].substring(18);
+        if (head.startsWith("GreatestToughness_")) {
+            final String restriction = head.substring(18);
             final String[] rest = restriction.split(",");
             CardCollection list = CardLists.getValidCards(cc.getGame().getCardsIn(ZoneType.Battlefield), rest, cc, c, null);
             int highest = 0;
@@ -728,8 +726,8 @@ public class CardFactoryUtil {
             return highest;
         }
 
-        if (l[0].startsWith("HighestCMC_")) {
-            final String restriction = l[0].substring(11);
+        if (head.startsWith("HighestCMC_")) {
+            final String restriction = head.substring(11);
             final String[] rest = restriction.split(",");
             CardCollection list = CardLists.getValidCards(cc.getGame().getCardsInGame(), rest, cc, c, null);
             int highest = 0;
@@ -742,8 +740,8 @@ public class CardFactoryUtil {
             return highest;
         }
 
-        if (l[0].startsWith("MostCardName")) {
-        	String[] lparts = l[0].split(" ", 2);
+        if (head.startsWith("MostCardName")) {
+        	String[] lparts = head.split(" ", 2);
             final String[] rest = lparts[1].split(",");
 
             final CardCollectionView cardsInZones = lparts[0].length() > 12 
@@ -767,9 +765,9 @@ public class CardFactoryUtil {
             return max;
         }
 
-        if (l[0].startsWith("DifferentCardNames_")) {
+        if (head.startsWith("DifferentCardNames_")) {
             final List<String> crdname = Lists.newArrayList();
-            final String restriction = l[0].substring(19);
+            final String restriction = head.substring(19);
             final String[] rest = restriction.split(",");
             CardCollection list = CardLists.getValidCards(cc.getGame().getCardsInGame(), rest, cc, c, null);
             for (final Card card : list) {
@@ -780,11 +778,11 @@ public class CardFactoryUtil {
             return doXMath(crdname.size(), m, c);
         }
 
-        if (l[0].startsWith("RememberedSize")) {
+        if (head.startsWith("RememberedSize")) {
             return doXMath(c.getRememberedCount(), m, c);
         }
 
-        if (l[0].startsWith("RememberedNumber")) {
+        if (head.startsWith("RememberedNumber")) {
             int num = 0;
             for (final Object o : c.getRemembered()) {
                 if (o instanceof Integer) {
@@ -794,7 +792,7 @@ public class CardFactoryUtil {
             return doXMath(num, m, c);
         }
 
-        if (l[0].startsWith("RememberedWithSharedCardType")) {
+        if (head.startsWith("RememberedWithSharedCardType")) {
             int maxNum = 1;
             for (final Object o : c.getRemembered()) {
                 if (o instanceof Card) {
@@ -817,16 +815,16 @@ public class CardFactoryUtil {
         }
 
         // Count$CountersAddedToPermYouCtrl <CounterType>
-        if (l[0].startsWith("CountersAddedToPermYouCtrl")) {
-            final String[] components = l[0].split(" ", 2);
+        if (head.startsWith("CountersAddedToPermYouCtrl")) {
+            final String[] components = head.split(" ", 2);
             final CounterType counterType = CounterType.valueOf(components[1]);
             int n = cc.getCounterToPermThisTurn(counterType);
             return doXMath(n, m, c);
         }
 
         // Count$CountersAdded <CounterType> <ValidSource>
-        if (l[0].startsWith("CountersAdded")) {
-            final String[] components = l[0].split(" ", 3);
+        if (head.startsWith("CountersAdded")) {
+            final String[] components = head.split(" ", 3);
             final CounterType counterType = CounterType.valueOf(components[1]);
             String restrictions = components[2];
             final String[] rest = restrictions.split(",");
@@ -839,40 +837,40 @@ public class CardFactoryUtil {
             return doXMath(added, m, c);
         }
 
-        if (l[0].startsWith("CommanderCastFromCommandZone")) {
+        if (head.startsWith("CommanderCastFromCommandZone")) {
             // only used by Opal Palace, and it does add the trigger to the card
             return doXMath(cc.getCommanderCast(c), m, c);
         }
         
-        if (l[0].startsWith("MostProminentCreatureType")) {
-            String restriction = l[0].split(" ")[1];
+        if (head.startsWith("MostProminentCreatureType")) {
+            String restriction = head.split(" ")[1];
             CardCollection list = CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), restriction, cc, c);
             return doXMath(getMostProminentCreatureTypeSize(list), m, c);
         }
 
-        if (l[0].startsWith("SecondMostProminentColor")) {
-            String restriction = l[0].split(" ")[1];
+        if (head.startsWith("SecondMostProminentColor")) {
+            String restriction = head.split(" ")[1];
             CardCollection list = CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), restriction, cc, c);
             int[] colorSize = SortColorsFromList(list);
             return doXMath(colorSize[colorSize.length - 2], m, c);
         }
 
-        if (l[0].startsWith("RolledThisTurn")) {
+        if (head.startsWith("RolledThisTurn")) {
             return game.getPhaseHandler().getPlanarDiceRolledthisTurn();
         }
 
         //SacrificedThisTurn <type>
-        if (l[0].startsWith("SacrificedThisTurn")) {
+        if (head.startsWith("SacrificedThisTurn")) {
             CardCollectionView list = cc.getSacrificedThisTurn();
-            if (l[0].contains(" ")) {
-                final String[] components = l[0].split(" ", 2);
+            if (head.contains(" ")) {
+                final String[] components = head.split(" ", 2);
                 list = CardLists.getValidCards(list, components[1], cc, c);
             }
             return list.size();
         }
 
         final String[] sq;
-        sq = l[0].split("\\.");
+        sq = parsed.getCountHeadParts();
 
         if (sq[0].contains("xPaid")) {
             return doXMath(c.getXManaCostPaid(), m, c);
@@ -1068,7 +1066,7 @@ public class CardFactoryUtil {
         }
 
         if (sq[0].contains("ColorsCtrl")) {
-            final String restriction = l[0].substring(11);
+            final String restriction = head.substring(11);
             final String[] rest = restriction.split(",");
             final CardCollection list = CardLists.getValidCards(cc.getGame().getCardsInGame(), rest, cc, c, null);
             int n = 0;
@@ -1118,7 +1116,7 @@ public class CardFactoryUtil {
         }
 
         if (sq[0].startsWith("Devoured")) {
-            final String validDevoured = l[0].split(" ")[1];
+            final String validDevoured = head.split(" ")[1];
             CardCollection cl = CardLists.getValidCards(c.getDevoured(), validDevoured.split(","), cc, c, null);
             return doXMath(cl.size(), m, c);
         }
@@ -1138,7 +1136,7 @@ public class CardFactoryUtil {
 
         // Count$SumPower_valid
         if (sq[0].contains("SumPower")) {
-            final String[] restrictions = l[0].split("_");
+            final String[] restrictions = head.split("_");
             final String[] rest = restrictions[1].split(",");
             CardCollection filteredCards = CardLists.getValidCards(cc.getGame().getCardsIn(ZoneType.Battlefield), rest, cc, c, null);
             return doXMath(Aggregates.sum(filteredCards, CardPredicates.Accessors.fnGetNetPower), m, c);
@@ -1160,7 +1158,7 @@ public class CardFactoryUtil {
         }
         // Count$SumCMC_valid
         if (sq[0].contains("SumCMC")) {
-            final String[] restrictions = l[0].split("_");
+            final String[] restrictions = head.split("_");
             final String[] rest = restrictions[1].split(",");
             CardCollectionView cardsonbattlefield = game.getCardsIn(ZoneType.Battlefield);
             CardCollection filteredCards = CardLists.getValidCards(cardsonbattlefield, rest, cc, c, null);
@@ -1191,7 +1189,7 @@ public class CardFactoryUtil {
 
         // Count$TotalCounters.<counterType>_<valid>
         if (sq[0].contains("TotalCounters")) {
-            final String[] restrictions = l[0].split("_");
+            final String[] restrictions = head.split("_");
             final CounterType cType = CounterType.getType(restrictions[1]);
             final String[] validFilter = restrictions[2].split(",");
             CardCollectionView validCards = game.getCardsIn(ZoneType.Battlefield);
@@ -1230,7 +1228,7 @@ public class CardFactoryUtil {
 
         // Count$ThisTurnEntered <ZoneDestination> [from <ZoneOrigin>] <Valid>
         if (sq[0].contains("ThisTurnEntered")) {
-            final String[] workingCopy = l[0].split("_");
+            final String[] workingCopy = head.split("_");
             
             ZoneType destination = ZoneType.smartValueOf(workingCopy[1]);
             final boolean hasFrom = workingCopy[2].equals("from");
@@ -1247,7 +1245,7 @@ public class CardFactoryUtil {
 
         // Count$LastTurnEntered <ZoneDestination> [from <ZoneOrigin>] <Valid>
         if (sq[0].contains("LastTurnEntered")) {
-            final String[] workingCopy = l[0].split("_");
+            final String[] workingCopy = head.split("_");
             
             ZoneType destination = ZoneType.smartValueOf(workingCopy[1]);
             final boolean hasFrom = workingCopy[2].equals("from");
@@ -1275,7 +1273,7 @@ public class CardFactoryUtil {
         // Count$LastTurnCast <Valid>
         if (sq[0].contains("ThisTurnCast") || sq[0].contains("LastTurnCast")) {
 
-            final String[] workingCopy = l[0].split("_");
+            final String[] workingCopy = head.split("_");
             final String validFilter = workingCopy[1];
 
             List<Card> res = Lists.newArrayList();
@@ -1322,14 +1320,14 @@ public class CardFactoryUtil {
         }
 
         if (sq[0].startsWith("LastStateBattlefield")) {
-            final String[] k = l[0].split(" ");
+            final String[] k = head.split(" ");
             CardCollection list = new CardCollection(game.getLastStateBattlefield());
             list = CardLists.getValidCards(list, k[1].split(","), cc, c, null);
             return CardFactoryUtil.doXMath(list.size(), m, c);
         }
 
         if (sq[0].startsWith("LastStateGraveyard")) {
-            final String[] k = l[0].split(" ");
+            final String[] k = head.split(" ");
             CardCollection list = new CardCollection(game.getLastStateGraveyard());
             list = CardLists.getValidCards(list, k[1].split(","), cc, c, null);
             return CardFactoryUtil.doXMath(list.size(), m, c);
@@ -1601,63 +1599,60 @@ public class CardFactoryUtil {
             return num;
         }
 
-        final String[] s = operators.split("\\.");
-        int secondaryNum = 0;
-
-        try {
-            if (s.length == 2) {
-                secondaryNum = Integer.parseInt(s[1]);
-            }
-        } catch (final Exception e) {
-            secondaryNum = xCount(c, c.getSVar(s[1]));
+        final AmountExpression math = AmountExpression.of(operators);
+        final int secondaryNum;
+        if (math.hasSecondarySVar()) {
+            secondaryNum = xCount(c, c.getSVar(math.getSecondarySVar()));
+        } else {
+            secondaryNum = math.getSecondaryNumber();
         }
 
-        if (s[0].contains("Plus")) {
+        switch (math.getOperator()) {
+        case Plus:
             return num + secondaryNum;
-        } else if (s[0].contains("NMinus")) {
+        case NMinus:
             return secondaryNum - num;
-        } else if (s[0].contains("Minus")) {
+        case Minus:
             return num - secondaryNum;
-        } else if (s[0].contains("Twice")) {
+        case Twice:
             return num * 2;
-        } else if (s[0].contains("Thrice")) {
+        case Thrice:
             return num * 3;
-        } else if (s[0].contains("HalfUp")) {
+        case HalfUp:
             return (int) (Math.ceil(num / 2.0));
-        } else if (s[0].contains("HalfDown")) {
+        case HalfDown:
             return (int) (Math.floor(num / 2.0));
-        } else if (s[0].contains("ThirdUp")) {
+        case ThirdUp:
             return (int) (Math.ceil(num / 3.0));
-        } else if (s[0].contains("ThirdDown")) {
+        case ThirdDown:
             return (int) (Math.floor(num / 3.0));
-        } else if (s[0].contains("Negative")) {
+        case Negative:
             return num * -1;
-        } else if (s[0].contains("Times")) {
+        case Times:
             return num * secondaryNum;
-        } else if (s[0].contains("DivideEvenlyDown")) {
+        case DivideEvenlyDown:
             if (secondaryNum == 0) {
                 return 0;
             } else {
                 return num / secondaryNum;
             }
-        } else if (s[0].contains("Mod")) {
+        case Mod:
             return num % secondaryNum;
-        } else if (s[0].contains("Abs")) {
+        case Abs:
             return Math.abs(num);
-        } else if (s[0].contains("LimitMax")) {
+        case LimitMax:
             if (num < secondaryNum) {
                 return num;
             } else {
                 return secondaryNum;
             }
-        } else if (s[0].contains("LimitMin")) {
+        case LimitMin:
             if (num > secondaryNum) {
                 return num;
             } else {
                 return secondaryNum;
             }
-
-        } else {
+        default:
             return num;
         }
     }
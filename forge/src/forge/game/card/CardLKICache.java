@@ -0,0 +1,60 @@
+package forge.game.card;
+
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Hands out the LKI copies that make up the last known state of a game, see {@link forge.game.Game#copyLastState()}.
+ * <p>
+ * The last state is copied again at every state check, but most cards don't change in between. A copy made for
+ * the previous snapshot of the same card object is handed out again as long as {@link CardUtil#isLKIUnchanged}
+ * finds that every part it was copied from is still the same, so only the cards that did change get copied.
+ * Copies of cloned cards are never reused.
+ */
+public final class CardLKICache {
+    private static final class Entry {
+        private final Card card;
+        private final Object[] values;
+        private final Card copy;
+
+        private Entry(final Card card, final Object[] values, final Card copy) {
+            this.card = card;
+            this.values = values;
+            this.copy = copy;
+        }
+    }
+
+    private Map<Integer, Entry> previous = Maps.newHashMap();
+    private Map<Integer, Entry> current = Maps.newHashMap();
+
+    /**
+     * Starts a new snapshot. Only the copies handed out for the last snapshot can be reused in it.
+     */
+    public void startSnapshot() {
+        previous = current;
+        current = Maps.newHashMap();
+    }
+
+    /**
+     * @return an LKI copy of the card, the one of the previous snapshot if the card didn't change since.
+     */
+    public Card getLKICopy(final Card in) {
+        final Entry old = previous.get(in.getId());
+        if (old != null && old.card == in && old.values != null && CardUtil.isLKIUnchanged(in, old.values)) {
+            current.put(in.getId(), old);
+            return old.copy;
+        }
+        return updateLKICopy(in);
+    }
+
+    /**
+     * Replaces the copy of a card in the current snapshot with a fresh one.
+     */
+    public Card updateLKICopy(final Card in) {
+        final Object[] values = in.isCloned() ? null : CardUtil.getLKIValues(in);
+        final Card copy = CardUtil.getLKICopy(in);
+        current.put(in.getId(), new Entry(in, values, copy));
+        return copy;
+    }
+}
@@ -0,0 +1,285 @@
+package forge.game.card;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import forge.card.CardType;
+import forge.card.MagicColor;
+import forge.game.combat.Combat;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+
+/**
+ * Compiled form of a card restriction like "Creature.YouCtrl+nonToken", as checked by
+ * {@link Card#isValid(String, Player, Card, SpellAbility)}.
+ *
+ * Restrictions are parsed once and shared, so checking a card no longer splits the string on
+ * every call. Plain type and color properties and the most frequently checked properties are
+ * resolved up front, the rest are still looked up in {@link CardProperty} when checked.
+ */
+public final class CardRestriction {
+    // restrictions built at runtime (e.g. with card ids) would otherwise pile up forever
+    private static final int MAX_CACHED = 20000;
+    private static final ConcurrentMap<String, CardRestriction> cache = new ConcurrentHashMap<>();
+
+    private enum Kind { CARD, SPELL, PERMANENT, TYPE }
+
+    private final boolean negated;
+    private final boolean ignoresImmutable;
+    private final Kind kind;
+    private final String type;
+    private final Property[] properties;
+
+    public static CardRestriction of(final String restriction) {
+        CardRestriction compiled = cache.get(restriction);
+        if (compiled == null) {
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            compiled = new CardRestriction(restriction);
+            cache.put(restriction, compiled);
+        }
+        return compiled;
+    }
+
+    private CardRestriction(final String restriction) {
+        ignoresImmutable = restriction.startsWith("Emblem") || restriction.startsWith("Effect"); // special case exclusion
+
+        // Inclusive restrictions are Card types
+        final String[] incR = restriction.split("\\.", 2);
+        String inc = incR[0];
+        negated = inc.startsWith("!");
+        if (negated) {
+            inc = inc.substring(1);
+        }
+
+        if (inc.equals("card") || inc.equals("Card")) {
+            kind = Kind.CARD;
+        } else if (inc.equals("Spell")) {
+            kind = Kind.SPELL;
+        } else if (inc.equals("Permanent")) {
+            kind = Kind.PERMANENT;
+        } else {
+            kind = Kind.TYPE;
+        }
+        type = inc;
+
+        if (incR.length > 1) {
+            final String[] exRs = incR[1].split("\\+"); // Exclusive Restrictions are ...
+            properties = new Property[exRs.length];
+            for (int i = 0; i < exRs.length; i++) {
+                properties[i] = compileProperty(exRs[i]);
+            }
+        } else {
+            properties = new Property[0];
+        }
+    }
+
+    public boolean matches(final Card card, final Player sourceController, final Card source, final SpellAbility spellAbility) {
+        if (card.isImmutable() && source != null && !source.isRemembered(card) && !ignoresImmutable) {
+            return false;
+        }
+
+        switch (kind) {
+        case SPELL:
+            if (!card.isSpell()) {
+                return negated;
+            }
+            break;
+        case PERMANENT:
+            if (card.isInstant() || card.isSorcery()) {
+                return negated;
+            }
+            break;
+        case TYPE:
+            if (!card.getType().hasStringType(type)) {
+                return negated; // Check for wrong type
+            }
+            break;
+        default:
+            break;
+        }
+
+        for (final Property p : properties) {
+            if (!p.matches(card, sourceController, source, spellAbility)) {
+                return negated;
+            }
+        }
+        return !negated;
+    }
+
+    private abstract static class Property {
+        abstract boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility);
+    }
+
+    /**
+     * Resolves a single property. The shortcuts below must give the same answer as the branch of
+     * {@link CardProperty#cardHasProperty} (or of ForgeScript for types and colors) that the exact
+     * property string ends up in, anything else is passed on to {@link Card#hasProperty}.
+     */
+    private static Property compileProperty(final String property) {
+        switch (property) {
+        case "YouCtrl":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return getLKIController(card).equals(sourceController);
+                }
+            };
+        case "YouDontCtrl":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return !getLKIController(card).equals(sourceController);
+                }
+            };
+        case "OppCtrl":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return getLKIController(card).getOpponents().contains(sourceController);
+                }
+            };
+        case "YouOwn":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return card.getOwner().equals(sourceController);
+                }
+            };
+        case "OppOwn":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return card.getOwner().getOpponents().contains(sourceController);
+                }
+            };
+        case "Other":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return !card.equals(source);
+                }
+            };
+        case "Self":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return card.equals(source);
+                }
+            };
+        case "EncodedWithSource":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return card.getEncodedCards().contains(source);
+                }
+            };
+        case "tapped":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return card.isTapped();
+                }
+            };
+        case "untapped":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return card.isUntapped();
+                }
+            };
+        case "token":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return card.isToken();
+                }
+            };
+        case "nonToken":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    return !card.isToken();
+                }
+            };
+        case "attacking":
+            return new Property() {
+                @Override
+                boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                    final Combat combat = card.getGame().getCombat();
+                    return combat != null && combat.isAttacking(card);
+                }
+            };
+        default:
+            break;
+        }
+
+        if (isColorName(property)) {
+            return new ColorProperty(MagicColor.fromName(property), true);
+        }
+        if (property.startsWith("non") && isColorName(property.substring(3))) {
+            return new ColorProperty(MagicColor.fromName(property.substring(3)), false);
+        }
+        // none of the known type names is caught by CardProperty, so they all end up in the type check
+        if (isTypeName(property)) {
+            return new TypeProperty(property, true);
+        }
+        if (property.startsWith("non") && isTypeName(property.substring(3))) {
+            return new TypeProperty(property.substring(3), false);
+        }
+
+        return new Property() {
+            @Override
+            boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+                return card.hasProperty(property, sourceController, source, spellAbility);
+            }
+        };
+    }
+
+    private static Player getLKIController(final Card card) {
+        // lki can't be null but it does return this
+        return card.getGame().getChangeZoneLKIInfo(card).getController();
+    }
+
+    private static boolean isColorName(final String name) {
+        return name.equals("White") || name.equals("Blue") || name.equals("Black")
+                || name.equals("Red") || name.equals("Green");
+    }
+
+    private static boolean isTypeName(final String name) {
+        return CardType.isACardType(name) || CardType.isASupertype(name) || CardType.isACreatureType(name)
+                || CardType.isALandType(name) || CardType.isAnArtifactType(name) || CardType.isAnEnchantmentType(name)
+                || CardType.isAPlaneswalkerType(name) || CardType.isASpellType(name);
+    }
+
+    private static final class ColorProperty extends Property {
+        private final byte color;
+        private final boolean mustHave;
+
+        ColorProperty(final byte color, final boolean mustHave) {
+            this.color = color;
+            this.mustHave = mustHave;
+        }
+
+        @Override
+        boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+            return card.determineColor().hasAnyColor(color) == mustHave;
+        }
+    }
+
+    private static final class TypeProperty extends Property {
+        private final String type;
+        private final boolean mustHave;
+
+        TypeProperty(final String type, final boolean mustHave) {
+            this.type = type;
+            this.mustHave = mustHave;
+        }
+
+        @Override
+        boolean matches(Card card, Player sourceController, Card source, SpellAbility spellAbility) {
+            return card.getType().hasStringType(type) == mustHave;
+        }
+    }
+}
@@ -29,9 +29,11 @@ import forge.game.GameObject;
 import forge.game.card.CardView.CardStateView;
 import forge.game.keyword.Keyword;
 import forge.game.keyword.KeywordCollection;
+import forge.game.keyword.KeywordIndex;
 import forge.game.keyword.KeywordInterface;
 import forge.game.player.Player;
 import forge.game.replacement.ReplacementEffect;
+import forge.game.replacement.ReplacementType;
 import forge.game.spellability.SpellAbility;
 import forge.game.spellability.SpellAbilityPredicates;
 import forge.game.staticability.StaticAbility;
@@ -40,8 +42,10 @@ import forge.util.collect.FCollection;
 import forge.util.collect.FCollectionView;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class CardState extends GameObject {
     private String name = "";
@@ -62,6 +66,9 @@ public class CardState extends GameObject {
     private Map<String, String> sVars = Maps.newTreeMap();
 
     private KeywordCollection cachedKeywords = new KeywordCollection();
+    private KeywordIndex keywordIndex = null;
+    // modes of getReplacementEffects(), null until needed again after they change
+    private Set<ReplacementType> cachedReplacementModes = null;
     
     private CardRarity rarity = CardRarity.Unknown;
     private String setCode = CardEdition.UNKNOWN.getCode();
@@ -102,6 +109,7 @@ public class CardState extends GameObject {
     }
     public final void addType(String type0) {
         if (type.add(type0)) {
+            card.updateCharacteristicsEpoch();
             view.updateType(this);
         }
     }
@@ -113,17 +121,20 @@ public class CardState extends GameObject {
         if (type0.isEmpty() && type.isEmpty()) { return; }
         type.clear();
         type.addAll(type0);
+        card.updateCharacteristicsEpoch();
         view.updateType(this);
     }
 
     public final void removeType(final CardType.Supertype st) {
         if (type.remove(st)) {
+            card.updateCharacteristicsEpoch();
             view.updateType(this);
         }
     }
     
     public final void setCreatureTypes(Collection<String> ctypes) {
         if (type.setCreatureTypes(ctypes)) {
+            card.updateCharacteristicsEpoch();
             view.updateType(this);
         }
     }
@@ -146,6 +157,7 @@ public class CardState extends GameObject {
     }
     public final void setColor(final byte color) {
         this.color = color;
+        card.updateCharacteristicsEpoch();
         view.updateColors(card);
     }
 
@@ -155,6 +167,7 @@ public class CardState extends GameObject {
     public final void setBasePower(final int basePower0) {
         if (basePower == basePower0) { return; }
         basePower = basePower0;
+        card.updateCharacteristicsEpoch();
         view.updatePower(this);
     }
 
@@ -164,6 +177,7 @@ public class CardState extends GameObject {
     public final void setBaseToughness(final int baseToughness0) {
         if (baseToughness == baseToughness0) { return; }
         baseToughness = baseToughness0;
+        card.updateCharacteristicsEpoch();
         view.updateToughness(this);
     }
 
@@ -185,12 +199,30 @@ public class CardState extends GameObject {
 
     public final void setCachedKeywords(final KeywordCollection col) {
         cachedKeywords = col;
+        cachedReplacementModes = null;
     }
 
     public final boolean hasKeyword(Keyword key) {
         return cachedKeywords.contains(key);
     }
 
+    final KeywordCollection getCachedKeywordCollection() {
+        return cachedKeywords;
+    }
+    final KeywordCollection getIntrinsicKeywordCollection() {
+        return intrinsicKeywords;
+    }
+
+    /**
+     * Gets the index of keyword texts last built for this state by its card, which checks whether it is still current.
+     */
+    final KeywordIndex getKeywordIndex() {
+        return keywordIndex;
+    }
+    final void setKeywordIndex(final KeywordIndex keywordIndex0) {
+        keywordIndex = keywordIndex0;
+    }
+
     public final Collection<KeywordInterface> getIntrinsicKeywords() {
         return intrinsicKeywords.getValues();
     }
@@ -382,15 +414,33 @@ public class CardState extends GameObject {
         return result;
     }
     public boolean addReplacementEffect(final ReplacementEffect replacementEffect) {
+        cachedReplacementModes = null;
         return replacementEffects.add(replacementEffect);
     }
     public boolean removeReplacementEffect(final ReplacementEffect replacementEffect) {
+        cachedReplacementModes = null;
         return replacementEffects.remove(replacementEffect);
     }
     public void clearReplacementEffects() {
+        cachedReplacementModes = null;
         replacementEffects.clear();
     }
 
+    /**
+     * Checks whether any of the replacement effects of this state (including the ones from keywords)
+     * handles the given event, without building the list of replacement effects.
+     */
+    public final boolean hasReplacementEffectFor(final ReplacementType mode) {
+        if (cachedReplacementModes == null) {
+            final Set<ReplacementType> modes = EnumSet.noneOf(ReplacementType.class);
+            for (final ReplacementEffect re : getReplacementEffects()) {
+                modes.add(re.getMode());
+            }
+            cachedReplacementModes = modes;
+        }
+        return cachedReplacementModes.contains(mode);
+    }
+
     public final boolean hasReplacementEffect(final ReplacementEffect re) {
         return getReplacementEffects().contains(re);
     }
@@ -490,6 +540,7 @@ public class CardState extends GameObject {
         }
 
         replacementEffects.clear();
+        cachedReplacementModes = null;
         for (ReplacementEffect re : source.replacementEffects) {
             if (re.isIntrinsic()) {
                 replacementEffects.add(re.copy(card, lki));
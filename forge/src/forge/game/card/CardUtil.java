@@ -17,30 +17,42 @@
  */
 package forge.game.card;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import forge.ImageKeys;
+import forge.card.CardChangedType;
+import forge.card.CardRarity;
 import forge.card.CardStateName;
 import forge.card.CardType;
+import forge.card.CardTypeView;
 import forge.card.ColorSet;
 import forge.card.MagicColor;
+import forge.card.mana.ManaCost;
 import forge.game.Game;
+import forge.game.GameEntity;
 import forge.game.GameObject;
 import forge.game.ability.AbilityUtils;
 import forge.game.ability.ApiType;
+import forge.game.keyword.KeywordInterface;
+import forge.game.keyword.KeywordsChange;
 import forge.game.player.Player;
 import forge.game.replacement.ReplacementEffect;
 import forge.game.spellability.AbilityManaPart;
 import forge.game.spellability.AbilitySub;
 import forge.game.spellability.SpellAbility;
 import forge.game.spellability.TargetRestrictions;
+import forge.game.staticability.StaticAbility;
 import forge.game.trigger.Trigger;
+import forge.game.zone.Zone;
 import forge.game.zone.ZoneType;
 import forge.util.TextUtil;
 import forge.util.collect.FCollection;
@@ -198,85 +210,273 @@ public final class CardUtil {
     }
 
     /**
-     * @param in  a Card to copy.
-     * @return a copy of C with LastKnownInfo stuff retained.
+     * One thing {@link #getLKICopy(Card)} takes from a card. The copy is made by copying every part of
+     * {@link #LKI_PARTS} in turn, and {@link CardLKICache} reuses a copy only while every part still gets the same
+     * value from the card, so whatever is copied is also checked before a copy is reused.
      */
-    public static Card getLKICopy(final Card in) {
-        final Card newCopy = new Card(in.getId(), in.getPaperCard(), false, in.getGame());
-        newCopy.setSetCode(in.getSetCode());
-        newCopy.setOwner(in.getOwner());
-        newCopy.setController(in.getController(), 0);
-        newCopy.setCommander(in.isCommander());
+    abstract static class LKIPart<T> {
+        /**
+         * @return what this part of the copy is made from. Maps and other iterables are compared by their contents.
+         */
+        abstract T get(Card in);
+
+        /**
+         * Copies the value to the new copy. Does nothing for parts that are only read by the copy of the state.
+         */
+        abstract void copy(T value, Card newCopy);
+    }
 
+    private static final List<LKIPart<?>> LKI_PARTS = ImmutableList.<LKIPart<?>>of(
+        new LKIPart<String>() {
+            @Override String get(Card in) { return in.getSetCode(); }
+            @Override void copy(String setCode, Card newCopy) { newCopy.setSetCode(setCode); }
+        },
+        new LKIPart<Player>() {
+            @Override Player get(Card in) { return in.getOwner(); }
+            @Override void copy(Player owner, Card newCopy) { newCopy.setOwner(owner); }
+        },
+        new LKIPart<Player>() {
+            @Override Player get(Card in) { return in.getController(); }
+            @Override void copy(Player controller, Card newCopy) { newCopy.setController(controller, 0); }
+        },
+        new LKIPart<Boolean>() {
+            @Override Boolean get(Card in) { return in.isCommander(); }
+            @Override void copy(Boolean commander, Card newCopy) { newCopy.setCommander(commander); }
+        },
         // needed to ensure that the LKI object has correct CMC info no matter what state the original card was in
         // (e.g. Scrap Trawler + transformed Harvest Hand)
-        newCopy.setLKICMC(in.getCMC()); 
+        new LKIPart<Integer>() {
+            @Override Integer get(Card in) { return in.getCMC(); }
+            @Override void copy(Integer cmc, Card newCopy) { newCopy.setLKICMC(cmc); }
+        },
         // used for the purpose of cards that care about the zone the card was known to be in last
-        newCopy.setLastKnownZone(in.getLastKnownZone());
-
-        newCopy.getCurrentState().copyFrom(in.getState(in.getCurrentStateName()), true);
-
-        if (in.isCloned()) {
-            newCopy.addAlternateState(CardStateName.Cloner, false);
-            newCopy.getState(CardStateName.Cloner).copyFrom(in.getState(CardStateName.Cloner), true);
-        }
-
-        newCopy.setType(new CardType(in.getType()));
-        newCopy.setToken(in.isToken());
+        new LKIPart<Zone>() {
+            @Override Zone get(Card in) { return in.getLastKnownZone(); }
+            @Override void copy(Zone zone, Card newCopy) { newCopy.setLastKnownZone(zone); }
+        },
+
+        new LKIPart<CardState>() {
+            @Override CardState get(Card in) { return in.getState(in.getCurrentStateName()); }
+            @Override void copy(CardState state, Card newCopy) { newCopy.getCurrentState().copyFrom(state, true); }
+        },
+        // The copy of the state above also reads the following. Its type, colors and base power and toughness
+        // move the characteristics epoch of the card when they change, the rest doesn't.
+        new LKIPart<Integer>() {
+            @Override Integer get(Card in) { return in.getCharacteristicsEpoch(); }
+            @Override void copy(Integer epoch, Card newCopy) { }
+        },
+        new LKIPart<String>() {
+            @Override String get(Card in) { return in.getState(in.getCurrentStateName()).getName(); }
+            @Override void copy(String name, Card newCopy) { }
+        },
+        new LKIPart<ManaCost>() {
+            @Override ManaCost get(Card in) { return in.getState(in.getCurrentStateName()).getManaCost(); }
+            @Override void copy(ManaCost manaCost, Card newCopy) { }
+        },
+        new LKIPart<Integer>() {
+            @Override Integer get(Card in) { return in.getState(in.getCurrentStateName()).getBaseLoyalty(); }
+            @Override void copy(Integer loyalty, Card newCopy) { }
+        },
+        new LKIPart<Map<String, String>>() {
+            @Override Map<String, String> get(Card in) { return in.getState(in.getCurrentStateName()).getSVars(); }
+            @Override void copy(Map<String, String> sVars, Card newCopy) { }
+        },
+        new LKIPart<Iterable<KeywordInterface>>() {
+            @Override Iterable<KeywordInterface> get(Card in) { return in.getState(in.getCurrentStateName()).getIntrinsicKeywords(); }
+            @Override void copy(Iterable<KeywordInterface> keywords, Card newCopy) { }
+        },
+        new LKIPart<String>() {
+            @Override String get(Card in) { return in.getState(in.getCurrentStateName()).getImageKey(); }
+            @Override void copy(String imageKey, Card newCopy) { }
+        },
+        new LKIPart<CardRarity>() {
+            @Override CardRarity get(Card in) { return in.getState(in.getCurrentStateName()).getRarity(); }
+            @Override void copy(CardRarity rarity, Card newCopy) { }
+        },
+        new LKIPart<String>() {
+            @Override String get(Card in) { return in.getState(in.getCurrentStateName()).getSetCode(); }
+            @Override void copy(String setCode, Card newCopy) { }
+        },
+        new LKIPart<Iterable<StaticAbility>>() {
+            @Override Iterable<StaticAbility> get(Card in) { return in.getStaticAbilities(); }
+            @Override void copy(Iterable<StaticAbility> staticAbilities, Card newCopy) { }
+        },
+
+        new LKIPart<CardState>() {
+            @Override CardState get(Card in) { return in.isCloned() ? in.getState(CardStateName.Cloner) : null; }
+            @Override void copy(CardState cloner, Card newCopy) {
+                if (cloner != null) {
+                    newCopy.addAlternateState(CardStateName.Cloner, false);
+                    newCopy.getState(CardStateName.Cloner).copyFrom(cloner, true);
+                }
+            }
+        },
+        new LKIPart<CardTypeView>() {
+            @Override CardTypeView get(Card in) { return in.getType(); }
+            @Override void copy(CardTypeView type, Card newCopy) { newCopy.setType(new CardType(type)); }
+        },
+        new LKIPart<Boolean>() {
+            @Override Boolean get(Card in) { return in.isToken(); }
+            @Override void copy(Boolean token, Card newCopy) { newCopy.setToken(token); }
+        },
 
         // extra copy non Intrinsic traits
-        for (SpellAbility sa : in.getSpellAbilities()) {
-            if (!sa.isIntrinsic()) {
-                newCopy.addSpellAbility(sa.copy(newCopy, true));
+        new LKIPart<Iterable<SpellAbility>>() {
+            @Override Iterable<SpellAbility> get(Card in) { return in.getSpellAbilities(); }
+            @Override void copy(Iterable<SpellAbility> spellAbilities, Card newCopy) {
+                for (SpellAbility sa : spellAbilities) {
+                    if (!sa.isIntrinsic()) {
+                        newCopy.addSpellAbility(sa.copy(newCopy, true));
+                    }
+                }
             }
-        }
-        for (Trigger tr : in.getTriggers()) {
-            if (!tr.isIntrinsic()) {
-                newCopy.addTrigger(tr.copy(newCopy, true));
+        },
+        new LKIPart<Iterable<Trigger>>() {
+            @Override Iterable<Trigger> get(Card in) { return in.getTriggers(); }
+            @Override void copy(Iterable<Trigger> triggers, Card newCopy) {
+                for (Trigger tr : triggers) {
+                    if (!tr.isIntrinsic()) {
+                        newCopy.addTrigger(tr.copy(newCopy, true));
+                    }
+                }
             }
-        }
-        for (ReplacementEffect re : in.getReplacementEffects()) {
-            if (!re.isIntrinsic()) {
-                newCopy.addReplacementEffect(re.copy(newCopy, true));
+        },
+        new LKIPart<Iterable<ReplacementEffect>>() {
+            @Override Iterable<ReplacementEffect> get(Card in) { return in.getReplacementEffects(); }
+            @Override void copy(Iterable<ReplacementEffect> replacementEffects, Card newCopy) {
+                for (ReplacementEffect re : replacementEffects) {
+                    if (!re.isIntrinsic()) {
+                        newCopy.addReplacementEffect(re.copy(newCopy, true));
+                    }
+                }
             }
-        }
+        },
 
         // lock in the current P/T without bonus from counters
-        newCopy.setBasePower(in.getCurrentPower() + in.getTempPowerBoost() + in.getSemiPermanentPowerBoost());
-        newCopy.setBaseToughness(in.getCurrentToughness() + in.getTempToughnessBoost() + in.getSemiPermanentToughnessBoost());
-
-        newCopy.setCounters(Maps.newEnumMap(in.getCounters()));
-        newCopy.setExtrinsicKeyword(in.getExtrinsicKeyword());
-
-        newCopy.setColor(in.determineColor().getColor());
-        newCopy.setReceivedDamageFromThisTurn(in.getReceivedDamageFromThisTurn());
-        newCopy.getDamageHistory().setCreatureGotBlockedThisTurn(in.getDamageHistory().getCreatureGotBlockedThisTurn());
-        newCopy.setEnchanting(in.getEnchanting());
-        newCopy.setEnchantedBy(in.getEnchantedBy(false));
-        newCopy.setEquipping(in.getEquipping());
-        newCopy.setEquippedBy(in.getEquippedBy(false));
-        newCopy.setFortifying(in.getFortifying());
-        newCopy.setFortifiedBy(in.getFortifiedBy(false));
-        newCopy.setClones(in.getClones());
-        newCopy.setHaunting(in.getHaunting());
-        newCopy.setCopiedPermanent(in.getCopiedPermanent());
-        for (final Card haunter : in.getHauntedBy()) {
-            newCopy.addHauntedBy(haunter, false);
-        }
-        for (final Object o : in.getRemembered()) {
-            newCopy.addRemembered(o);
-        }
-        for (final Card o : in.getImprintedCards()) {
-            newCopy.addImprintedCard(o);
+        new LKIPart<Integer>() {
+            @Override Integer get(Card in) { return in.getCurrentPower() + in.getTempPowerBoost() + in.getSemiPermanentPowerBoost(); }
+            @Override void copy(Integer power, Card newCopy) { newCopy.setBasePower(power); }
+        },
+        new LKIPart<Integer>() {
+            @Override Integer get(Card in) { return in.getCurrentToughness() + in.getTempToughnessBoost() + in.getSemiPermanentToughnessBoost(); }
+            @Override void copy(Integer toughness, Card newCopy) { newCopy.setBaseToughness(toughness); }
+        },
+
+        new LKIPart<Map<CounterType, Integer>>() {
+            @Override Map<CounterType, Integer> get(Card in) { return in.getCounters(); }
+            @Override void copy(Map<CounterType, Integer> counters, Card newCopy) { newCopy.setCounters(Maps.newEnumMap(counters)); }
+        },
+        new LKIPart<Collection<KeywordInterface>>() {
+            @Override Collection<KeywordInterface> get(Card in) { return in.getExtrinsicKeyword(); }
+            @Override void copy(Collection<KeywordInterface> keywords, Card newCopy) { newCopy.setExtrinsicKeyword(keywords); }
+        },
+
+        new LKIPart<Byte>() {
+            @Override Byte get(Card in) { return in.determineColor().getColor(); }
+            @Override void copy(Byte color, Card newCopy) { newCopy.setColor(color); }
+        },
+        new LKIPart<Map<Card, Integer>>() {
+            @Override Map<Card, Integer> get(Card in) { return in.getReceivedDamageFromThisTurn(); }
+            @Override void copy(Map<Card, Integer> damage, Card newCopy) { newCopy.setReceivedDamageFromThisTurn(damage); }
+        },
+        new LKIPart<Boolean>() {
+            @Override Boolean get(Card in) { return in.getDamageHistory().getCreatureGotBlockedThisTurn(); }
+            @Override void copy(Boolean blocked, Card newCopy) { newCopy.getDamageHistory().setCreatureGotBlockedThisTurn(blocked); }
+        },
+        new LKIPart<GameEntity>() {
+            @Override GameEntity get(Card in) { return in.getEnchanting(); }
+            @Override void copy(GameEntity enchanting, Card newCopy) { newCopy.setEnchanting(enchanting); }
+        },
+        new LKIPart<CardCollectionView>() {
+            @Override CardCollectionView get(Card in) { return in.getEnchantedBy(false); }
+            @Override void copy(CardCollectionView enchantedBy, Card newCopy) { newCopy.setEnchantedBy(enchantedBy); }
+        },
+        new LKIPart<Card>() {
+            @Override Card get(Card in) { return in.getEquipping(); }
+            @Override void copy(Card equipping, Card newCopy) { newCopy.setEquipping(equipping); }
+        },
+        new LKIPart<CardCollectionView>() {
+            @Override CardCollectionView get(Card in) { return in.getEquippedBy(false); }
+            @Override void copy(CardCollectionView equippedBy, Card newCopy) { newCopy.setEquippedBy(equippedBy); }
+        },
+        new LKIPart<Card>() {
+            @Override Card get(Card in) { return in.getFortifying(); }
+            @Override void copy(Card fortifying, Card newCopy) { newCopy.setFortifying(fortifying); }
+        },
+        new LKIPart<CardCollectionView>() {
+            @Override CardCollectionView get(Card in) { return in.getFortifiedBy(false); }
+            @Override void copy(CardCollectionView fortifiedBy, Card newCopy) { newCopy.setFortifiedBy(fortifiedBy); }
+        },
+        new LKIPart<CardCollectionView>() {
+            @Override CardCollectionView get(Card in) { return in.getClones(); }
+            @Override void copy(CardCollectionView clones, Card newCopy) { newCopy.setClones(clones); }
+        },
+        new LKIPart<Card>() {
+            @Override Card get(Card in) { return in.getHaunting(); }
+            @Override void copy(Card haunting, Card newCopy) { newCopy.setHaunting(haunting); }
+        },
+        new LKIPart<Card>() {
+            @Override Card get(Card in) { return in.getCopiedPermanent(); }
+            @Override void copy(Card copied, Card newCopy) { newCopy.setCopiedPermanent(copied); }
+        },
+        new LKIPart<CardCollectionView>() {
+            @Override CardCollectionView get(Card in) { return in.getHauntedBy(); }
+            @Override void copy(CardCollectionView hauntedBy, Card newCopy) {
+                for (final Card haunter : hauntedBy) {
+                    newCopy.addHauntedBy(haunter, false);
+                }
+            }
+        },
+        new LKIPart<Iterable<Object>>() {
+            @Override Iterable<Object> get(Card in) { return in.getRemembered(); }
+            @Override void copy(Iterable<Object> remembered, Card newCopy) {
+                for (final Object o : remembered) {
+                    newCopy.addRemembered(o);
+                }
+            }
+        },
+        new LKIPart<CardCollectionView>() {
+            @Override CardCollectionView get(Card in) { return in.getImprintedCards(); }
+            @Override void copy(CardCollectionView imprinted, Card newCopy) {
+                for (final Card o : imprinted) {
+                    newCopy.addImprintedCard(o);
+                }
+            }
+        },
+
+        new LKIPart<Boolean>() {
+            @Override Boolean get(Card in) { return in.isUnearthed(); }
+            @Override void copy(Boolean unearthed, Card newCopy) { newCopy.setUnearthed(unearthed); }
+        },
+
+        new LKIPart<Map<Long, CardColor>>() {
+            @Override Map<Long, CardColor> get(Card in) { return in.getChangedCardColors(); }
+            @Override void copy(Map<Long, CardColor> colors, Card newCopy) { newCopy.setChangedCardColors(colors); }
+        },
+        new LKIPart<Map<Long, KeywordsChange>>() {
+            @Override Map<Long, KeywordsChange> get(Card in) { return in.getChangedCardKeywords(); }
+            @Override void copy(Map<Long, KeywordsChange> keywords, Card newCopy) { newCopy.setChangedCardKeywords(keywords); }
+        },
+        new LKIPart<Map<Long, CardChangedType>>() {
+            @Override Map<Long, CardChangedType> get(Card in) { return in.getChangedCardTypesMap(); }
+            @Override void copy(Map<Long, CardChangedType> types, Card newCopy) { newCopy.setChangedCardTypes(types); }
+        },
+
+        new LKIPart<Card>() {
+            @Override Card get(Card in) { return in.getMeldedWith(); }
+            @Override void copy(Card meldedWith, Card newCopy) { newCopy.setMeldedWith(meldedWith); }
         }
+    );
 
-        newCopy.setUnearthed(in.isUnearthed());
-
-        newCopy.setChangedCardColors(in.getChangedCardColors());
-        newCopy.setChangedCardKeywords(in.getChangedCardKeywords());
-        newCopy.setChangedCardTypes(in.getChangedCardTypesMap());
-
-        newCopy.setMeldedWith(in.getMeldedWith());
+    /**
+     * @param in  a Card to copy.
+     * @return a copy of C with LastKnownInfo stuff retained.
+     */
+    public static Card getLKICopy(final Card in) {
+        final Card newCopy = new Card(in.getId(), in.getPaperCard(), false, in.getGame());
+        for (final LKIPart<?> part : LKI_PARTS) {
+            copyLKIPart(part, in, newCopy);
+        }
 
         // update keyword cache on all states
         for (CardStateName s : newCopy.getStates()) {
@@ -286,6 +486,51 @@ public final class CardUtil {
         return newCopy;
     }
 
+    private static <T> void copyLKIPart(final LKIPart<T> part, final Card in, final Card newCopy) {
+        part.copy(part.get(in), newCopy);
+    }
+
+    /**
+     * Gets the values the parts of an LKI copy of the card are made from, to check with {@link #isLKIUnchanged}.
+     * Maps and other iterables are copied, since the card changes them in place.
+     */
+    static Object[] getLKIValues(final Card in) {
+        final Object[] values = new Object[LKI_PARTS.size()];
+        for (int i = 0; i < values.length; i++) {
+            final Object value = LKI_PARTS.get(i).get(in);
+            if (value instanceof Map) {
+                values[i] = Maps.newHashMap((Map<?, ?>) value);
+            } else if (value instanceof Iterable) {
+                values[i] = Lists.newArrayList((Iterable<?>) value);
+            } else {
+                values[i] = value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return whether every part of an LKI copy of the card would still be made from the given values of
+     * {@link #getLKIValues}, compared without copying anything.
+     */
+    static boolean isLKIUnchanged(final Card in, final Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            final Object value = LKI_PARTS.get(i).get(in);
+            if (value == null || values[i] == null) {
+                if (value != values[i]) {
+                    return false;
+                }
+            } else if (value instanceof Map || !(value instanceof Iterable)) {
+                if (!values[i].equals(value)) {
+                    return false;
+                }
+            } else if (!Iterables.elementsEqual((Iterable<?>) values[i], (Iterable<?>) value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static CardCollection getRadiance(final Card source, final Card origin, final String[] valid) {
         final CardCollection res = new CardCollection();
 
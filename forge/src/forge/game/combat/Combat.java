@@ -54,7 +54,8 @@ public class Combat {
 
     // Keyed by attackable defender (player or planeswalker)
     private final Multimap<GameEntity, AttackingBand> attackedByBands = Multimaps.synchronizedMultimap(ArrayListMultimap.<GameEntity, AttackingBand>create());
-    private final Multimap<AttackingBand, Card> blockedBands = Multimaps.synchronizedMultimap(ArrayListMultimap.<AttackingBand, Card>create());
+    // Bands have no stable hash code, so keep them in insertion order to make combat damage play out the same way for the same game seed
+    private final Multimap<AttackingBand, Card> blockedBands = Multimaps.synchronizedMultimap(MultimapBuilder.linkedHashKeys().arrayListValues().<AttackingBand, Card>build());
 
     private final Map<Card, Integer> defendingDamageMap = Maps.newHashMap();
 
@@ -66,6 +67,9 @@ public class Combat {
     // List holds creatures who have dealt 1st strike damage to disallow them deal damage on regular basis (unless they have double-strike KW) 
     private CardCollection combatantsThatDealtFirstStrikeDamage = new CardCollection();
 
+    // moved on whenever attackers, blockers or their damage assignment order change
+    private long stateVersion = 0;
+
     public Combat(final Player attacker) {
         playerWhoAttacks = attacker;
 
@@ -119,6 +123,17 @@ public class Combat {
         attackConstraints = new AttackConstraints(this);
     }
 
+    /**
+     * Tells apart the arrangements of this combat over time: the version changes whenever an attacker, a blocker or
+     * the damage assignment order is added, removed or changed. Used by the AI to cache its predictions per combat.
+     */
+    public final long getStateVersion() {
+        return stateVersion;
+    }
+    private void updateStateVersion() {
+        stateVersion++;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -156,6 +171,7 @@ public class Combat {
         blockersOrderedForDamageAssignment.clear();
         lkiCache.clear();
         combatantsThatDealtFirstStrikeDamage.clear();
+        updateStateVersion();
 
         //update view for all attackers and blockers
         for (Card c : attackers) {
@@ -251,6 +267,7 @@ public class Combat {
         else {
             band.addAttacker(c);
         }
+        updateStateVersion();
         c.updateAttackingForView();
     }
 
@@ -358,6 +375,7 @@ public class Combat {
     // Some cards in Alpha may UNBLOCK an attacker, so second parameter is not always-true
     public final void setBlocked(final Card attacker, boolean value) {
         getBandOfAttackerNotNull(attacker).setBlocked(value); // called by Curtain of Light, Dazzling Beauty, Trap Runner
+        updateStateVersion();
     }
 
     public final void addBlocker(final Card attacker, final Card blocker) {
@@ -367,6 +385,7 @@ public class Combat {
         if (blockersOrderedForDamageAssignment.containsKey(attacker)) {
             addBlockerToDamageAssignmentOrder(attacker, blocker);
         }
+        updateStateVersion();
         blocker.updateBlockingForView();
     }
 
@@ -377,6 +396,7 @@ public class Combat {
         if (cc != null) {
             cc.remove(blocker);
         }
+        updateStateVersion();
         blocker.updateBlockingForView();
     }
 
@@ -384,6 +404,7 @@ public class Combat {
     public final void undoBlockingAssignment(final Card blocker) {
         CardCollection toRemove = new CardCollection(blocker);
         blockedBands.values().removeAll(toRemove);
+        updateStateVersion();
         blocker.updateBlockingForView();
     }
 
@@ -495,6 +516,7 @@ public class Combat {
             }
             playerWhoAttacks.getGame().getGameLog().add(GameLogEntryType.COMBAT, sb.toString());
         }
+        updateStateVersion();
     }
     
     /**
@@ -514,6 +536,7 @@ public class Combat {
     		CardCollection orderedBlockers = playerWhoAttacks.getController().orderBlocker(attacker, blocker, oldBlockers);
             blockersOrderedForDamageAssignment.put(attacker, orderedBlockers);
     	}
+        updateStateVersion();
     }
     
     public void orderAttackersForDamageAssignment() { // this method performs controller's role
@@ -532,11 +555,13 @@ public class Combat {
 
         // Damage Ordering needs to take cards like Melee into account, is that happening?
         attackersOrderedForDamageAssignment.put(blocker, orderedAttacker);
+        updateStateVersion();
     }
 
     // removes references to this attacker from all indices and orders
     public void unregisterAttacker(final Card c, AttackingBand ab) {
         blockersOrderedForDamageAssignment.remove(c);
+        updateStateVersion();
         
         Collection<Card> blockers = blockedBands.get(ab);
         if (blockers != null) {
@@ -570,6 +595,7 @@ public class Combat {
     // removes references to this defender from all indices and orders
     public void unregisterDefender(final Card c, AttackingBand bandBeingBlocked) {
         attackersOrderedForDamageAssignment.remove(c);
+        updateStateVersion();
         for (Card atk : bandBeingBlocked.getAttackers()) {
             if (blockersOrderedForDamageAssignment.containsKey(atk)) {
                 blockersOrderedForDamageAssignment.get(atk).remove(c);
@@ -596,6 +622,7 @@ public class Combat {
         
         // remove card from map
         while (blockedBands.values().remove(c));
+        updateStateVersion();
         c.updateBlockingForView();
     }
 
@@ -633,6 +660,7 @@ public class Combat {
             Collection<Card> blockers = blockedBands.get(ab);
             boolean isBlocked = blockers != null && !blockers.isEmpty();
             ab.setBlocked(isBlocked);
+            updateStateVersion();
 
             if (!isBlocked) {
                 for (Card attacker : ab.getAttackers()) {
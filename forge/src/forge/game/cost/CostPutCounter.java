@@ -197,7 +197,7 @@ public class CostPutCounter extends CostPartWithList {
         if( c > 1 ) {
             Integer oldValue = targetCard.getCounters().get(counterType);
             int newValue = c + (oldValue == null ? 0 : oldValue.intValue()) - 1;
-            targetCard.getCounters().put(counterType, Integer.valueOf(newValue));
+            targetCard.setCounters(counterType, Integer.valueOf(newValue));
         }
         // added c - 1 without firing triggers, the last counter added should fire trigger.
         if (c > 0) {
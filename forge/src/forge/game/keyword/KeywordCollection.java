@@ -14,6 +14,7 @@ public class KeywordCollection implements Iterable<String>, Serializable {
     private boolean hidden = false;
 
     private transient KeywordCollectionView view;
+    private transient int modCount;
     private final Multimap<Keyword, KeywordInterface> map = MultimapBuilder.enumKeys(Keyword.class)
             .arrayListValues().build();
 
@@ -59,6 +60,7 @@ public class KeywordCollection implements Iterable<String>, Serializable {
         Collection<KeywordInterface> list = map.get(keyword);
         if (list.isEmpty() || !inst.redundant(list)) {
             list.add(inst);
+            modCount++;
             return true;
         }
         return false;
@@ -89,6 +91,7 @@ public class KeywordCollection implements Iterable<String>, Serializable {
             KeywordInterface k = it.next();
             if (k.getOriginal().startsWith(keyword)) {
                 it.remove();
+                modCount++;
                 result = true;
                 if(keyword.startsWith("CARDNAME can't")) {
                 	break;
@@ -113,6 +116,7 @@ public class KeywordCollection implements Iterable<String>, Serializable {
         boolean result = false;
         for (KeywordInterface k : keywords) {
             if (map.remove(k.getKeyword(), k)) {
+                modCount++;
                 result = true;
             }
         }
@@ -121,6 +125,14 @@ public class KeywordCollection implements Iterable<String>, Serializable {
 
     public void clear() {
         map.clear();
+        modCount++;
+    }
+
+    /**
+     * Returns a number that changes whenever keywords are added to or removed from this collection.
+     */
+    public int getModCount() {
+        return modCount;
     }
 
     public boolean contains(String keyword) {
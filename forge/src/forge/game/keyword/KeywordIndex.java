@@ -0,0 +1,134 @@
+package forge.game.keyword;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The keywords of a card state, reduced to the ids of their texts so that a card can tell whether it has a keyword
+ * without comparing strings. Keyword texts get their ids when the keyword instances are parsed.
+ * <p>
+ * An index is built from the keyword collections a card state currently takes its keywords from, and it stays valid
+ * until one of them is replaced or modified.
+ */
+public final class KeywordIndex {
+    /**
+     * Ids of the keyword texts seen so far. Entries are never dropped, since keyword instances and indexes keep the
+     * ids, and a text interned again after being dropped would get a second id that doesn't match them. The table
+     * doesn't need a bound: it holds one entry per distinct keyword text, and those come from the card scripts
+     * (about 1,500 distinct ones in the whole card database) plus the few texts effects build. A few AI games
+     * intern about 30.
+     */
+    private static final ConcurrentMap<String, Integer> textIds = new ConcurrentHashMap<String, Integer>();
+
+    /**
+     * Returns the id of a keyword text, assigning a new one to a text that wasn't seen before.
+     */
+    public static int intern(final String text) {
+        Integer id = textIds.get(text);
+        if (id == null) {
+            synchronized (textIds) {
+                id = textIds.get(text);
+                if (id == null) {
+                    id = textIds.size();
+                    textIds.put(text, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a keyword text, or -1 if no keyword with that text has been parsed, in which case no card
+     * can have it.
+     */
+    public static int find(final String text) {
+        final Integer id = textIds.get(text);
+        return id == null ? -1 : id;
+    }
+
+    private final KeywordCollection first, second, third;
+    private final int firstModCount, secondModCount, thirdModCount;
+
+    private final BitSet present = new BitSet();
+    private final int[] ids;
+    private final int[] counts;
+
+    /**
+     * Indexes the keywords of the given collections, any of which may be null.
+     */
+    public KeywordIndex(final KeywordCollection first0, final KeywordCollection second0, final KeywordCollection third0) {
+        first = first0;
+        second = second0;
+        third = third0;
+        firstModCount = modCount(first0);
+        secondModCount = modCount(second0);
+        thirdModCount = modCount(third0);
+
+        final int[] all = new int[size(first0) + size(second0) + size(third0)];
+        int n = addIds(all, 0, first0);
+        n = addIds(all, n, second0);
+        n = addIds(all, n, third0);
+        Arrays.sort(all);
+
+        // count the runs of equal ids
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                distinct++;
+            }
+        }
+        ids = new int[distinct];
+        counts = new int[distinct];
+        int k = -1;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                ids[++k] = all[i];
+                present.set(all[i]);
+            }
+            counts[k]++;
+        }
+    }
+
+    /**
+     * Tells whether this index was built from the given collections in their current contents.
+     */
+    public boolean isCurrent(final KeywordCollection first0, final KeywordCollection second0, final KeywordCollection third0) {
+        return first == first0 && second == second0 && third == third0
+                && firstModCount == modCount(first0) && secondModCount == modCount(second0) && thirdModCount == modCount(third0);
+    }
+
+    public boolean contains(final int textId) {
+        return textId >= 0 && present.get(textId);
+    }
+
+    /**
+     * Returns the number of keyword instances with the given text.
+     */
+    public int count(final int textId) {
+        if (!contains(textId)) {
+            return 0;
+        }
+        return counts[Arrays.binarySearch(ids, textId)];
+    }
+
+    private static int modCount(final KeywordCollection keywords) {
+        return keywords == null ? 0 : keywords.getModCount();
+    }
+
+    private static int size(final KeywordCollection keywords) {
+        return keywords == null ? 0 : keywords.size();
+    }
+
+    private static int addIds(final int[] all, int n, final KeywordCollection keywords) {
+        if (keywords != null) {
+            final Collection<KeywordInterface> values = keywords.getValues();
+            for (final KeywordInterface inst : values) {
+                all[n++] = inst.getTextId();
+            }
+        }
+        return n;
+    }
+}
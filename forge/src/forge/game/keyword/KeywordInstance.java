@@ -18,6 +18,7 @@ import forge.util.Lang;
 public abstract class KeywordInstance<T extends KeywordInstance<?>> implements KeywordInterface {
     private Keyword keyword;
     private String original;
+    private int textId;
     
     
     private boolean hidden;
@@ -35,6 +36,13 @@ public abstract class KeywordInstance<T extends KeywordInstance<?>> implements K
     public String getOriginal() {
         return original;
     }
+    /* (non-Javadoc)
+     * @see forge.game.keyword.KeywordInterface#getTextId()
+     */
+    @Override
+    public int getTextId() {
+        return textId;
+    }
     /* (non-Javadoc)
      * @see forge.game.keyword.KeywordInterface#getKeyword()
      */
@@ -66,6 +74,7 @@ public abstract class KeywordInstance<T extends KeywordInstance<?>> implements K
     }
     protected void initialize(String original0, Keyword keyword0, String details) {
         original = original0;
+        textId = KeywordIndex.intern(original0);
         keyword = keyword0;
         parse(details);
     }
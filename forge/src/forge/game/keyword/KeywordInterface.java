@@ -12,6 +12,9 @@ public interface KeywordInterface extends Cloneable {
 
     String getOriginal();
 
+    /** Gets the id of the original text, as given by {@link KeywordIndex#intern(String)}. */
+    int getTextId();
+
     Keyword getKeyword();
 
     String getReminderText();
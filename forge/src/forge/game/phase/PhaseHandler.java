@@ -103,6 +103,7 @@ public class PhaseHandler implements java.io.Serializable {
     private final void setPhase(final PhaseType phase0) {
         if (phase == phase0) { return; }
         phase = phase0;
+        game.updateStateVersion();
         game.updatePhaseForView();
     }
 
@@ -120,6 +121,7 @@ public class PhaseHandler implements java.io.Serializable {
     private final void setPlayerTurn(final Player playerTurn0) {
         if (playerTurn == playerTurn0) { return; }
         playerTurn = playerTurn0;
+        game.updateStateVersion();
         game.updatePlayerTurnForView();
         setPriority(playerTurn);
     }
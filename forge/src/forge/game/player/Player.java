@@ -416,6 +416,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         if (lifeGain > 0) {
             int oldLife = life;
             life += lifeGain;
+            game.updateStateVersion();
             view.updateLife(this);
             newLifeSet = true;
             lifeGainedThisTurn += lifeGain;
@@ -447,6 +448,7 @@ public class Player extends GameEntity implements Comparable<Player> {
     	int oldLife = life;
         life += toAdd;
         lifeLostThisTurn -= toAdd;
+        game.updateStateVersion();
         view.updateLife(this);
         game.fireEvent(new GameEventPlayerLivesChanged(this, oldLife, life));
     }
@@ -459,6 +461,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         if (toLose > 0) {
             int oldLife = life;
             life -= toLose;
+            game.updateStateVersion();
             view.updateLife(this);
             lifeLost = toLose;
             game.fireEvent(new GameEventPlayerLivesChanged(this, oldLife, life));
@@ -959,6 +962,7 @@ public class Player extends GameEntity implements Comparable<Player> {
     public void setCounters(final CounterType counterType, final Integer num, boolean fireEvents) {
         Integer old = getCounters(counterType);
         setCounters(counterType, num);
+        game.updateStateVersion();
         view.updateCounters(this);
         if (fireEvents) {
             getGame().fireEvent(new GameEventPlayerCounters(this, counterType, old, num));
@@ -27,20 +27,24 @@ import forge.util.TextUtil;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * TODO: Write javadoc for this type.
  * 
  */
 public abstract class ReplacementEffect extends TriggerReplacementBase {
-    private static int maxId = 0;
-    private static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    private static int nextId() { return maxId.incrementAndGet(); }
 
     /** The ID. */
     private int id;
 
     private ReplacementLayer layer = ReplacementLayer.Other;
 
+    /** The event this replaces. */
+    private ReplacementType mode;
+
     /** The has run. */
     private boolean hasRun = false;
 
@@ -64,6 +68,14 @@ public abstract class ReplacementEffect extends TriggerReplacementBase {
     public final void setId(final int id) {
         this.id = id;
     }
+    public ReplacementType getMode() {
+        return mode;
+    }
+
+    void setMode(final ReplacementType mode) {
+        this.mode = mode;
+    }
+
     /**
      * Checks for run.
      * 
@@ -34,6 +34,7 @@ import forge.util.Visitor;
 import org.apache.commons.lang3.StringUtils;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import java.util.*;
 
@@ -81,6 +82,8 @@ public class ReplacementHandler {
 
     public List<ReplacementEffect> getReplacementList(final Map<String, Object> runParams, final ReplacementLayer layer) {
         final List<ReplacementEffect> possibleReplacers = Lists.newArrayList();
+        final Set<ReplacementEffect> added = Sets.newHashSet();
+        final ReplacementType mode = ReplacementType.valueOf((String) runParams.get("Event"));
         // Round up Non-static replacement effects ("Until EOT," or
         // "The next time you would..." etc)
         /*for (final ReplacementEffect replacementEffect : this.tmpEffects) {
@@ -93,7 +96,16 @@ public class ReplacementHandler {
         game.forEachCardInGame(new Visitor<Card>() {
             @Override
             public boolean visit(Card crd) {
+                // Most cards have nothing that replaces this event, skip them before
+                // building their list of replacement effects.
+                if (!crd.hasReplacementEffectFor(mode)) {
+                    return true;
+                }
                 for (final ReplacementEffect replacementEffect : crd.getReplacementEffects()) {
+                    if (replacementEffect.getMode() != mode) {
+                        continue;
+                    }
+
 
                     // Use "CheckLKIZone" parameter to test for effects that care abut where the card was last (e.g. Kalitas, Traitor of Ghet
                     // getting hit by mass removal should still produce tokens).
@@ -112,8 +124,9 @@ public class ReplacementHandler {
                             && (layer == null || replacementEffect.getLayer() == layer)
                             && replacementEffect.requirementsCheck(game)
                             && replacementEffect.canReplace(runParams)
-                            && !possibleReplacers.contains(replacementEffect)
+                            && !added.contains(replacementEffect)
                             && replacementEffect.zonesCheck(cardZone)) {
+                        added.add(replacementEffect);
                         possibleReplacers.add(replacementEffect);
                     }
                 }
@@ -44,12 +44,20 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * The Class StaticAbility.
  */
 public class StaticAbility extends CardTraitBase implements Comparable<StaticAbility> {
 
+    private static final String[] AMOUNT_PARAMS = { "AddPower", "AddToughness", "SetPower", "SetToughness" };
+    private static final String[] VALID_PARAMS = { "Affected", "IsPresent" };
+    private static final Pattern FIXED_AMOUNT = Pattern.compile("[+-]?\\d+");
+    private static final Pattern FIXED_COMPARE = Pattern.compile("[A-Z]{2}\\d+");
+    private static final Pattern SVAR_COMPARE = Pattern.compile("(LT|LE|EQ|NE|GE|GT)([A-Za-z]\\w*)");
+
     private final Set<StaticAbilityLayer> layers;
     private CardCollectionView ignoreEffectCards = new CardCollection();
     private final List<Player> ignoreEffectPlayers = Lists.newArrayList();
@@ -505,6 +513,79 @@ public class StaticAbility extends CardTraitBase implements Comparable<StaticAbi
         return true;
     }
 
+    /**
+     * Whether this ability reads state that isn't covered by
+     * {@link Card#getStaticAbilityInputs()} nor by {@link #getVariableInputs()}, like a
+     * count made for each affected card, so that its effects have to be recalculated on every check
+     * of the static abilities.
+     * 
+     * @return true, if the effects of this ability can't be reused.
+     */
+    public final boolean dependsOnUntrackedState() {
+        if (hasParam("Presence") || hasParam("ManaColorConversion")) {
+            return true;
+        }
+        for (final String amount : AMOUNT_PARAMS) {
+            if (hasParam(amount) && getParam(amount).startsWith("AffectedX")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether this ability depends on the values of SVars, which then have to be part of the
+     * {@link #getVariableInputs()}.
+     */
+    public final boolean hasVariableInputs() {
+        if (hasParam("CheckSVar") || hasParam("TopCardOfLibraryIs") || hasParam("KeywordMultiplier")) {
+            return true;
+        }
+        for (final String amount : AMOUNT_PARAMS) {
+            if (hasParam(amount) && !FIXED_AMOUNT.matcher(getParam(amount)).matches()) {
+                return true;
+            }
+        }
+        if (hasParam("PresentCompare") && !FIXED_COMPARE.matcher(getParam("PresentCompare")).matches()) {
+            return true;
+        }
+        for (final String valid : VALID_PARAMS) {
+            if (hasParam(valid) && SVAR_COMPARE.matcher(getParam(valid)).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The current values of the SVars this ability depends on, or null if it doesn't apply right now.
+     */
+    public final List<Integer> getVariableInputs() {
+        if (isSuppressed() || !checkConditions()) {
+            return null;
+        }
+        final List<Integer> inputs = Lists.newArrayList();
+        for (final String amount : AMOUNT_PARAMS) {
+            if (hasParam(amount)) {
+                inputs.add(AbilityUtils.calculateAmount(hostCard, getParam(amount), this));
+            }
+        }
+        if ("X".equals(getParam("KeywordMultiplier"))) {
+            inputs.add(AbilityUtils.calculateAmount(hostCard, "X", this));
+        }
+        for (final String valid : VALID_PARAMS) {
+            if (hasParam(valid)) {
+                final Matcher m = SVAR_COMPARE.matcher(getParam(valid));
+                while (m.find()) {
+                    if (hostCard.hasSVar(m.group(2))) {
+                        inputs.add(AbilityUtils.calculateAmount(hostCard, m.group(2), this));
+                    }
+                }
+            }
+        }
+        return inputs;
+    }
+
     /**
      * Check conditions.
      * 
@@ -48,7 +48,10 @@ import com.google.common.collect.Multimaps;
 
 public class TriggerHandler {
     private final List<TriggerType> suppressedModes = Collections.synchronizedList(new ArrayList<TriggerType>());
-    private final List<Trigger> activeTriggers = Collections.synchronizedList(new ArrayList<Trigger>());
+    // Active triggers by mode, so that an event only looks at the triggers which can go off for it.
+    // Registration order is kept within each mode, since it decides the order triggers go off in.
+    private final Map<TriggerType, List<Trigger>> activeTriggers = Collections.synchronizedMap(new EnumMap<TriggerType, List<Trigger>>(TriggerType.class));
+    private final Set<Integer> activeTriggerIds = Collections.synchronizedSet(new HashSet<Integer>());
 
     private final List<Trigger> delayedTriggers = Collections.synchronizedList(new ArrayList<Trigger>());
     private final List<Trigger> thisTurnDelayedTriggers = Collections.synchronizedList(new ArrayList<Trigger>());
@@ -233,13 +236,28 @@ public class TriggerHandler {
         return mapParams;
     }
 
+    private List<Trigger> getActiveTriggers(final TriggerType mode) {
+        final List<Trigger> triggers = activeTriggers.get(mode);
+        return triggers == null ? Collections.<Trigger>emptyList() : triggers;
+    }
+
+    private void addActiveTrigger(final Trigger t) {
+        List<Trigger> triggers = activeTriggers.get(t.getMode());
+        if (triggers == null) {
+            triggers = Collections.synchronizedList(new ArrayList<Trigger>());
+            activeTriggers.put(t.getMode(), triggers);
+        }
+        triggers.add(t);
+        activeTriggerIds.add(t.getId());
+    }
+
     private void collectTriggerForWaiting() {
         for (final TriggerWaiting wt : waitingTriggers) {
             if (wt.getTriggers() != null)
                 continue;
 
             List<Trigger> trigger = Lists.newArrayList();
-            for (final Trigger t : activeTriggers) {
+            for (final Trigger t : getActiveTriggers(wt.getMode())) {
                 if (canRunTrigger(t,wt.getMode(),wt.getParams())) {
                     trigger.add(t);
                 }
@@ -250,12 +268,13 @@ public class TriggerHandler {
 
     private void buildActiveTrigger() {
         activeTriggers.clear();
+        activeTriggerIds.clear();
         game.forEachCardInGame(new Visitor<Card>() {
             @Override
             public boolean visit(Card c) {
                 for (final Trigger t : c.getTriggers()) {
                     if (isTriggerActive(t)) {
-                        activeTriggers.add(t);
+                        addActiveTrigger(t);
                     }
                 }
                 return true;
@@ -275,23 +294,22 @@ public class TriggerHandler {
     }
 
     public final void clearInstrinsicActiveTriggers(final Card c, Zone zoneFrom) {
-        final Iterator<Trigger> itr = activeTriggers.iterator();
-        Trigger t;
         final List<Trigger> toBeRemoved = new ArrayList<Trigger>();
 
-        while(itr.hasNext()) {
-            t = itr.next();
-
-            // Clear if no ZoneFrom, or not coming from the TriggerZone
-            if (c.getId() == t.getHostCard().getId() && t.isIntrinsic()) {
-                if (!c.getTriggers().contains(t) || !t.zonesCheck(zoneFrom))
-                    toBeRemoved.add(t);
+        for (final List<Trigger> triggers : activeTriggers.values()) {
+            for (final Trigger t : triggers) {
+                // Clear if no ZoneFrom, or not coming from the TriggerZone
+                if (c.getId() == t.getHostCard().getId() && t.isIntrinsic()) {
+                    if (!c.getTriggers().contains(t) || !t.zonesCheck(zoneFrom))
+                        toBeRemoved.add(t);
+                }
             }
         }
 
         for (final Trigger removed : toBeRemoved) {
             // This line was not removing the correct trigger for cloned tokens
-            activeTriggers.remove(removed);
+            getActiveTriggers(removed.getMode()).remove(removed);
+            activeTriggerIds.remove(removed.getId());
         }
     }
 
@@ -299,7 +317,7 @@ public class TriggerHandler {
         for (final Trigger t : c.getTriggers()) {
             if (!onlyExtrinsic || c.isCloned() || !t.isIntrinsic() || t instanceof TriggerAlways) {
                 if (isTriggerActive(t)) {
-                    activeTriggers.add(t);
+                    addActiveTrigger(t);
                 }
             }
         }
@@ -307,7 +325,7 @@ public class TriggerHandler {
 
     public final boolean registerOneTrigger(final Trigger t) {
         if (isTriggerActive(t)) {
-            activeTriggers.add(t);
+            addActiveTrigger(t);
             return true;
         }
         return false;
@@ -333,7 +351,7 @@ public class TriggerHandler {
         boolean checkStatics = false;
         // only cards in play can run state triggers
 
-        for (final Trigger t: activeTriggers) {
+        for (final Trigger t: getActiveTriggers(TriggerType.Always)) {
             if (canRunTrigger(t, TriggerType.Always, runParams)) {
                 runSingleTrigger(t, runParams);
                 checkStatics = true;
@@ -381,7 +399,7 @@ public class TriggerHandler {
         boolean checkStatics = false;
 
         // Static triggers
-        for (final Trigger t : Lists.newArrayList(activeTriggers)) {
+        for (final Trigger t : Lists.newArrayList(getActiveTriggers(mode))) {
             if (t.isStatic() && canRunTrigger(t, mode, runParams)) {
             	runSingleTrigger(t, runParams);
 
@@ -415,8 +433,10 @@ public class TriggerHandler {
     }
 
     public void resetTurnTriggerState()    {
-        for(final Trigger t : activeTriggers) {
-            t.resetTurnState();
+        for (final List<Trigger> triggers : activeTriggers.values()) {
+            for (final Trigger t : triggers) {
+                t.resetTurnState();
+            }
         }
         for (final Trigger t : delayedTriggers) {
             t.resetTurnState();
@@ -427,7 +447,7 @@ public class TriggerHandler {
 
         final TriggerType mode = wt.getMode(); 
         final Map<String, Object> runParams = wt.getParams();
-        final List<Trigger> triggers = (wt.getTriggers() != null && wt.getTriggers().size() > 0) ? wt.getTriggers() : activeTriggers; 
+        final List<Trigger> triggers = (wt.getTriggers() != null && wt.getTriggers().size() > 0) ? wt.getTriggers() : getActiveTriggers(mode);
 
         Card card = null;
         boolean checkStatics = false;
@@ -494,11 +514,9 @@ public class TriggerHandler {
             return false; // Host card isn't where it needs to be.
         }
 
-        for (Trigger t : this.activeTriggers) {
-            // If an ID that matches this ID is already active, don't add it
-            if (regtrig.getId() == t.getId()) {
-                return false;
-            }
+        // If an ID that matches this ID is already active, don't add it
+        if (activeTriggerIds.contains(regtrig.getId())) {
+            return false;
         }
 
         // Check if a trigger with the same ID is already in activeTriggers
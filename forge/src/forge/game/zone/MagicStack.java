@@ -488,6 +488,7 @@ public class MagicStack /* extends MyObservable */ implements Iterable<SpellAbil
         final SpellAbilityStackInstance si = new SpellAbilityStackInstance(sp);
 
         stack.addFirst(si);
+        game.updateStateVersion();
 
         // 2012-07-21 the following comparison needs to move below the pushes but somehow screws up priority
         // When it's down there. That makes absolutely no sense to me, so i'm putting it back for now
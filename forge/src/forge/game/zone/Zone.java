@@ -23,7 +23,7 @@ import forge.game.Game;
 import forge.game.card.Card;
 import forge.game.card.CardCollection;
 import forge.game.card.CardCollectionView;
-import forge.game.card.CardUtil;
+import forge.game.card.CardLKICache;
 import forge.game.event.EventValueChangeType;
 import forge.game.event.GameEventZone;
 import forge.game.player.Player;
@@ -70,6 +70,7 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     public final void reorder(final Card c, final int index) {
         cardList.remove(c);
         cardList.add(index, c);
+        game.updateStateVersion();
     }
 
     public final void add(final Card c) {
@@ -106,12 +107,18 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
         if (zoneType == ZoneType.Battlefield || zoneType == ZoneType.Command || !c.isToken()) {
             c.setZone(this);
 
+            // an equal object already in the zone stays in it
+            final boolean isNew = !cardList.contains(c);
             if (index == null) {
                 cardList.add(c);
             } else {
                 cardList.add(index.intValue(), c);
             }
+            if (isNew) {
+                game.onCardAddedToZone(c, this);
+            }
         }
+        game.updateStateVersion();
         onChanged();
         game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Added, c));
     }
@@ -126,17 +133,24 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
 
     public void remove(final Card c) {
         if (cardList.remove(c)) {
+            game.onCardRemovedFromZone(c, this);
+            game.updateStateVersion();
             onChanged();
             game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Removed, c));
         }
     }
 
     public final void setCards(final Iterable<Card> cards) {
+        for (Card c : cardList) {
+            game.onCardRemovedFromZone(c, this);
+        }
         cardList.clear();
         for (Card c : cards) {
             c.setZone(this);
             cardList.add(c);
+            game.onCardAddedToZone(c, this);
         }
+        game.updateStateVersion();
         onChanged();
         game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.ComplexUpdate, null));
     }
@@ -249,6 +263,7 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
 
     public void shuffle() {
         Collections.shuffle(cardList, MyRandom.getRandom());
+        game.updateStateVersion();
         onChanged();
     }
 
@@ -257,12 +272,12 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
         return zoneType.toString();
     }
     
-    public Zone getLKICopy() {
+    public Zone getLKICopy(final CardLKICache copies) {
         Zone result = new Zone(zoneType, game);
 
         final CardCollection list = new CardCollection();
         for (final Card c : getCards()) {
-            list.add(CardUtil.getLKICopy(c));
+            list.add(copies.getLKICopy(c));
         }
         result.setCards(list);
 
@@ -1,15 +1,18 @@
 package forge.gauntlet;
 
-import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map.Entry;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -25,6 +28,7 @@ import forge.item.PaperCard;
 import forge.model.FModel;
 import forge.properties.ForgeConstants;
 import forge.util.IgnoringXStream;
+import forge.util.SectionedSaveFile;
 
 public class GauntletIO {
     /** Prompt in text field for new (unsaved) built gauntlets. */
@@ -37,6 +41,8 @@ public class GauntletIO {
     public static final String PREFIX_CUSTOM = "Custom_";
     /** Regex for locked gauntlet save files. */
     public static final String PREFIX_LOCKED = "LOCKED_";
+    /** Name of the save file section holding the gauntlet. */
+    private static final String SECTION_GAUNTLET = "gauntlet";
 
     protected static XStream getSerializer(final boolean isIgnoring) {
         final XStream xStream = isIgnoring ? new IgnoringXStream() : new XStream();
@@ -82,11 +88,18 @@ public class GauntletIO {
     }
 
     public static GauntletData loadGauntlet(final File xmlSaveFile) {
-        GZIPInputStream zin = null;
+        InputStream zin = null;
         boolean isCorrupt = false;
         try {
-            zin = new GZIPInputStream(new FileInputStream(xmlSaveFile));
-            final InputStreamReader reader = new InputStreamReader(zin);
+            final InputStreamReader reader;
+            if (SectionedSaveFile.isSectioned(xmlSaveFile)) {
+                zin = SectionedSaveFile.read(xmlSaveFile).openSection(SECTION_GAUNTLET);
+                reader = new InputStreamReader(zin, StandardCharsets.UTF_8);
+            }
+            else {
+                zin = new GZIPInputStream(new FileInputStream(xmlSaveFile));
+                reader = new InputStreamReader(zin);
+            }
 
             final GauntletData data = (GauntletData)GauntletIO.getSerializer(true).fromXML(reader);
 
@@ -130,11 +143,12 @@ public class GauntletIO {
     }
 
     private static void savePacked(final XStream xStream0, final GauntletData gd0) throws IOException {
-        final BufferedOutputStream bout = new BufferedOutputStream(new FileOutputStream(getGauntletFile(gd0)));
-        final GZIPOutputStream zout = new GZIPOutputStream(bout);
-        xStream0.toXML(gd0, zout);
-        zout.flush();
-        zout.close();
+        final ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        final Writer writer = new OutputStreamWriter(xml, StandardCharsets.UTF_8);
+        xStream0.toXML(gd0, writer);
+        writer.flush();
+        // the file is left alone if the gauntlet hasn't changed since it was last saved
+        SectionedSaveFile.save(getGauntletFile(gd0), null, Collections.singletonList(new SectionedSaveFile.Section(SECTION_GAUNTLET, xml.toByteArray())));
     }
 
     private static class DeckSectionToXml implements Converter {
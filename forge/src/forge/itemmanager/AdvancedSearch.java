@@ -24,6 +24,8 @@ import forge.deck.DeckSection;
 import forge.game.GameFormat;
 import forge.game.keyword.Keyword;
 import forge.interfaces.IButton;
+import forge.itemmanager.CardSearchIndex.NumberAttribute;
+import forge.itemmanager.CardSearchIndex.TextAttribute;
 import forge.item.InventoryItem;
 import forge.item.PaperCard;
 import forge.model.FModel;
@@ -37,18 +39,8 @@ import forge.util.gui.SOptionPane;
 public class AdvancedSearch {
     public enum FilterOption {
         NONE("(none)", null, null, null),
-        CARD_NAME("Name", PaperCard.class, FilterOperator.STRING_OPS, new StringEvaluator<PaperCard>() {
-            @Override
-            protected String getItemValue(PaperCard input) {
-                return input.getName();
-            }
-        }),
-        CARD_RULES_TEXT("Rules Text", PaperCard.class, FilterOperator.STRING_OPS, new StringEvaluator<PaperCard>() {
-            @Override
-            protected String getItemValue(PaperCard input) {
-                return input.getRules().getOracleText();
-            }
-        }),
+        CARD_NAME("Name", PaperCard.class, FilterOperator.STRING_OPS, new CardTextEvaluator(TextAttribute.NAME)),
+        CARD_RULES_TEXT("Rules Text", PaperCard.class, FilterOperator.STRING_OPS, new CardTextEvaluator(TextAttribute.RULES_TEXT)),
         CARD_KEYWORDS("Keywords", PaperCard.class, FilterOperator.COLLECTION_OPS, new CustomListEvaluator<PaperCard, Keyword>(Keyword.getAllKeywords()) {
             @Override
             protected Keyword getItemValue(PaperCard input) {
@@ -125,12 +117,7 @@ public class AdvancedSearch {
                 return input.getRules().getColorIdentity().toEnumSet();
             }
         }),
-        CARD_COLOR_COUNT("Color Count", PaperCard.class, FilterOperator.NUMBER_OPS, new NumericEvaluator<PaperCard>(0, 5) {
-            @Override
-            protected Integer getItemValue(PaperCard input) {
-                return input.getRules().getColor().countColors();
-            }
-        }),
+        CARD_COLOR_COUNT("Color Count", PaperCard.class, FilterOperator.NUMBER_OPS, new CardNumberEvaluator(0, 5, NumberAttribute.COLOR_COUNT)),
         CARD_TYPE("Type", PaperCard.class, FilterOperator.COMBINATION_OPS, new CustomListEvaluator<PaperCard, String>(CardType.getCombinedSuperAndCoreTypes()) {
             @Override
             protected String getItemValue(PaperCard input) {
@@ -159,44 +146,11 @@ public class AdvancedSearch {
                 return (Set<String>)input.getRules().getType().getSubtypes();
             }
         }),
-        CARD_CMC("CMC", PaperCard.class, FilterOperator.NUMBER_OPS, new NumericEvaluator<PaperCard>(0, 20) {
-            @Override
-            protected Integer getItemValue(PaperCard input) {
-                return input.getRules().getManaCost().getCMC();
-            }
-        }),
-        CARD_GENERIC_COST("Generic Cost", PaperCard.class, FilterOperator.NUMBER_OPS, new NumericEvaluator<PaperCard>(0, 20) {
-            @Override
-            protected Integer getItemValue(PaperCard input) {
-                return input.getRules().getManaCost().getGenericCost();
-            }
-        }),
-        CARD_POWER("Power", PaperCard.class, FilterOperator.NUMBER_OPS, new NumericEvaluator<PaperCard>(0, 20) {
-            @Override
-            protected Integer getItemValue(PaperCard input) {
-                CardRules rules = input.getRules();
-                if (rules.getType().isCreature()) {
-                    return rules.getIntPower();
-                }
-                return null;
-            }
-        }),
-        CARD_TOUGHNESS("Toughness", PaperCard.class, FilterOperator.NUMBER_OPS, new NumericEvaluator<PaperCard>(0, 20) {
-            @Override
-            protected Integer getItemValue(PaperCard input) {
-                CardRules rules = input.getRules();
-                if (rules.getType().isCreature()) {
-                    return rules.getIntToughness();
-                }
-                return null;
-            }
-        }),
-        CARD_MANA_COST("Mana Cost", PaperCard.class, FilterOperator.STRING_OPS, new StringEvaluator<PaperCard>() {
-            @Override
-            protected String getItemValue(PaperCard input) {
-                return input.getRules().getManaCost().toString();
-            }
-        }),
+        CARD_CMC("CMC", PaperCard.class, FilterOperator.NUMBER_OPS, new CardNumberEvaluator(0, 20, NumberAttribute.CMC)),
+        CARD_GENERIC_COST("Generic Cost", PaperCard.class, FilterOperator.NUMBER_OPS, new CardNumberEvaluator(0, 20, NumberAttribute.GENERIC_COST)),
+        CARD_POWER("Power", PaperCard.class, FilterOperator.NUMBER_OPS, new CardNumberEvaluator(0, 20, NumberAttribute.POWER)),
+        CARD_TOUGHNESS("Toughness", PaperCard.class, FilterOperator.NUMBER_OPS, new CardNumberEvaluator(0, 20, NumberAttribute.TOUGHNESS)),
+        CARD_MANA_COST("Mana Cost", PaperCard.class, FilterOperator.STRING_OPS, new CardTextEvaluator(TextAttribute.MANA_COST)),
         CARD_RARITY("Rarity", PaperCard.class, FilterOperator.SINGLE_LIST_OPS, new CustomListEvaluator<PaperCard, CardRarity>(Arrays.asList(CardRarity.FILTER_OPTIONS), CardRarity.FN_GET_LONG_NAME, CardRarity.FN_GET_LONG_NAME) {
             @Override
             protected CardRarity getItemValue(PaperCard input) {
@@ -719,22 +673,24 @@ public class AdvancedSearch {
             String caption = getCaption(values, option, operator);
 
             final OperatorEvaluator<V> evaluator = (OperatorEvaluator<V>)operator.evaluator;
-            Predicate<T> predicate;
-            if (option.operatorOptions == FilterOperator.MULTI_LIST_OPS || option.operatorOptions == FilterOperator.COMBINATION_OPS || option.operatorOptions == FilterOperator.COLLECTION_OPS) {
-                predicate = new Predicate<T>() {
-                    @Override
-                    public boolean apply(T input) {
-                        return evaluator.apply(getItemValues(input), values);
-                    }
-                };
-            }
-            else {
-                predicate = new Predicate<T>() {
-                    @Override
-                    public boolean apply(T input) {
-                        return evaluator.apply(getItemValue(input), values);
-                    }
-                };
+            Predicate<T> predicate = createIndexedPredicate(evaluator, values);
+            if (predicate == null) {
+                if (option.operatorOptions == FilterOperator.MULTI_LIST_OPS || option.operatorOptions == FilterOperator.COMBINATION_OPS || option.operatorOptions == FilterOperator.COLLECTION_OPS) {
+                    predicate = new Predicate<T>() {
+                        @Override
+                        public boolean apply(T input) {
+                            return evaluator.apply(getItemValues(input), values);
+                        }
+                    };
+                }
+                else {
+                    predicate = new Predicate<T>() {
+                        @Override
+                        public boolean apply(T input) {
+                            return evaluator.apply(getItemValue(input), values);
+                        }
+                    };
+                }
             }
             return new Filter<T>(option, operator, caption, predicate);
         }
@@ -746,6 +702,10 @@ public class AdvancedSearch {
         protected Set<V> getItemValues(T input) { //available for options that have multiple inputs
             return null;
         }
+
+        protected Predicate<T> createIndexedPredicate(OperatorEvaluator<V> evaluator, List<V> values) { //available for options over card rules
+            return null;
+        }
     }
 
     private static abstract class BooleanEvaluator<T extends InventoryItem> extends FilterEvaluator<T, Boolean> {
@@ -836,6 +796,66 @@ public class AdvancedSearch {
         }
     }
 
+    private static class CardTextEvaluator extends StringEvaluator<PaperCard> {
+        private final TextAttribute attribute;
+
+        public CardTextEvaluator(TextAttribute attribute0) {
+            attribute = attribute0;
+        }
+
+        @Override
+        protected String getItemValue(PaperCard input) {
+            return attribute.getValue(input.getRules());
+        }
+
+        @Override
+        protected Predicate<PaperCard> createIndexedPredicate(final OperatorEvaluator<String> evaluator, final List<String> values) {
+            CardSearchIndex index = CardSearchIndex.getIfReady();
+            if (index == null) {
+                return null;
+            }
+            return CardSearchIndex.forPrintings(index.text(attribute, values.get(0), new Predicate<CardRules>() {
+                @Override
+                public boolean apply(CardRules input) {
+                    return evaluator.apply(attribute.getValue(input), values);
+                }
+            }));
+        }
+    }
+
+    private static class CardNumberEvaluator extends NumericEvaluator<PaperCard> {
+        private final NumberAttribute attribute;
+
+        public CardNumberEvaluator(int min0, int max0, NumberAttribute attribute0) {
+            super(min0, max0);
+            attribute = attribute0;
+        }
+
+        @Override
+        protected Integer getItemValue(PaperCard input) {
+            return attribute.getValue(input.getRules());
+        }
+
+        @Override
+        protected Predicate<PaperCard> createIndexedPredicate(final OperatorEvaluator<Integer> evaluator, final List<Integer> values) {
+            CardSearchIndex index = CardSearchIndex.getIfReady();
+            if (index == null) {
+                return null;
+            }
+            return CardSearchIndex.forPrintings(index.number(attribute, new Predicate<Integer>() {
+                @Override
+                public boolean apply(Integer input) {
+                    return evaluator.apply(input, values);
+                }
+            }, new Predicate<CardRules>() {
+                @Override
+                public boolean apply(CardRules input) {
+                    return evaluator.apply(attribute.getValue(input), values);
+                }
+            }));
+        }
+    }
+
     private static abstract class CustomListEvaluator<T extends InventoryItem, V> extends FilterEvaluator<T, V> {
         private final Collection<V> choices;
         private final Function<V, String> toShortString, toLongString;
@@ -1096,17 +1116,17 @@ public class AdvancedSearch {
                     predPiece = ((AdvancedSearch.Filter<T>) piece).getPredicate();
                 }
                 if (applyNot) {
-                    predPiece = Predicates.not(predPiece);
+                    predPiece = CardSearchIndex.not(predPiece);
                     applyNot = false;
                 }
                 if (pred == null) {
                     pred = predPiece;
                 }
                 else if (operator == Operator.AND) {
-                    pred = Predicates.and(pred, predPiece);
+                    pred = CardSearchIndex.and(pred, predPiece);
                 }
                 else if (operator == Operator.OR) {
-                    pred = Predicates.or(pred, predPiece);
+                    pred = CardSearchIndex.or(pred, predPiece);
                 }
                 operator = null;
             }
@@ -5,6 +5,7 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import forge.card.CardRules;
 import forge.card.CardRulesPredicates;
+import forge.itemmanager.CardSearchIndex.TextAttribute;
 import forge.util.PredicateString.StringOp;
 
 import java.util.*;
@@ -120,18 +121,18 @@ public class BooleanExpression {
                 operators.pop();
                 right = operands.pop();
                 left = operands.pop();
-                operands.push(Predicates.and(left, right));
+                operands.push(CardSearchIndex.and(left, right));
                 break;
             case OR:
                 operators.pop();
                 right = operands.pop();
                 left = operands.pop();
-                operands.push(Predicates.or(left, right));
+                operands.push(CardSearchIndex.or(left, right));
                 break;
             case NOT:
                 operators.pop();
                 left = operands.pop();
-                operands.push(Predicates.not(left));
+                operands.push(CardSearchIndex.not(left));
                 break;
             default:
                 if (alwaysPopOperator) {
@@ -146,19 +147,19 @@ public class BooleanExpression {
 
         List<Predicate<CardRules>> predicates = new ArrayList<>();
         if (inName) {
-            predicates.add(CardRulesPredicates.name(StringOp.CONTAINS_IC, value));
+            predicates.add(CardSearchIndex.textIfReady(TextAttribute.NAME, value, CardRulesPredicates.name(StringOp.CONTAINS_IC, value)));
         }
         if (inType) {
-            predicates.add(CardRulesPredicates.joinedType(StringOp.CONTAINS_IC, value));
+            predicates.add(CardSearchIndex.textIfReady(TextAttribute.TYPE, value, CardRulesPredicates.joinedType(StringOp.CONTAINS_IC, value)));
         }
         if (inText) {
-            predicates.add(CardRulesPredicates.rules(StringOp.CONTAINS_IC, value));
+            predicates.add(CardSearchIndex.textIfReady(TextAttribute.RULES_TEXT, value, CardRulesPredicates.rules(StringOp.CONTAINS_IC, value)));
         }
         if (inCost) {
-            predicates.add(CardRulesPredicates.cost(StringOp.CONTAINS_IC, value));
+            predicates.add(CardSearchIndex.textIfReady(TextAttribute.MANA_COST, value, CardRulesPredicates.cost(StringOp.CONTAINS_IC, value)));
         }
         if (!predicates.isEmpty()) {
-            return Predicates.or(predicates);
+            return CardSearchIndex.or(predicates);
         }
         return Predicates.alwaysTrue();
 
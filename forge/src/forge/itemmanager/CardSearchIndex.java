@@ -0,0 +1,364 @@
+package forge.itemmanager;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+
+import forge.FThreads;
+import forge.StaticData;
+import forge.card.CardRules;
+import forge.item.PaperCard;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prebuilt index over the rules of every card in the database, used by the card
+ * search filters instead of testing every printing in a pool.
+ * <br><br>
+ * Text attributes are indexed by the trigrams of their case folded value, so that
+ * a substring search only tests the cards containing its rarest trigram. Numeric
+ * attributes are indexed by value. Searches produce an {@link IndexedPredicate}
+ * holding a bitmap of matching cards, and and/or/not combine those bitmaps
+ * directly. Cards created after the index was built are tested the usual way.
+ * Until the index is built, searches from the UI use their plain predicates, see
+ * {@link #getIfReady()}.
+ * <br><br>
+ * The index is immutable once built, so filters can be applied from any thread.
+ */
+public final class CardSearchIndex {
+
+    public enum TextAttribute {
+        NAME {
+            @Override public String getValue(CardRules rules) { return rules.getName(); }
+        },
+        TYPE {
+            @Override public String getValue(CardRules rules) { return rules.getType().toString(); }
+        },
+        RULES_TEXT {
+            @Override public String getValue(CardRules rules) { return rules.getOracleText(); }
+        },
+        MANA_COST {
+            @Override public String getValue(CardRules rules) { return rules.getManaCost().toString(); }
+        };
+
+        public abstract String getValue(CardRules rules);
+    }
+
+    public enum NumberAttribute {
+        CMC {
+            @Override public Integer getValue(CardRules rules) { return rules.getManaCost().getCMC(); }
+        },
+        GENERIC_COST {
+            @Override public Integer getValue(CardRules rules) { return rules.getManaCost().getGenericCost(); }
+        },
+        COLOR_COUNT {
+            @Override public Integer getValue(CardRules rules) { return rules.getColor().countColors(); }
+        },
+        POWER {
+            @Override public Integer getValue(CardRules rules) { return rules.getType().isCreature() ? rules.getIntPower() : null; }
+        },
+        TOUGHNESS {
+            @Override public Integer getValue(CardRules rules) { return rules.getType().isCreature() ? rules.getIntToughness() : null; }
+        };
+
+        /** Returns the value of the attribute, or null if the card has none. */
+        public abstract Integer getValue(CardRules rules);
+    }
+
+    private static volatile CardSearchIndex instance;
+    private static final AtomicBoolean preparing = new AtomicBoolean();
+
+    /** Returns the index, building it on first use. */
+    public static CardSearchIndex getInstance() {
+        CardSearchIndex index = instance;
+        if (index == null) {
+            synchronized (CardSearchIndex.class) {
+                if (instance == null) {
+                    instance = new CardSearchIndex();
+                }
+                index = instance;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index if it is built, otherwise starts building it in the background and
+     * returns null. Used on the EDT, which must not wait for the index to be built.
+     */
+    public static CardSearchIndex getIfReady() {
+        CardSearchIndex index = instance;
+        if (index == null) {
+            prepare();
+        }
+        return index;
+    }
+
+    /** Returns {@link #text} of the index if it is built, otherwise exact itself. */
+    public static Predicate<CardRules> textIfReady(TextAttribute attribute, String needle, Predicate<CardRules> exact) {
+        CardSearchIndex index = getIfReady();
+        return index == null ? exact : index.text(attribute, needle, exact);
+    }
+
+    /** Builds the index in the background if it has not been built yet. */
+    public static void prepare() {
+        if (instance != null || !preparing.compareAndSet(false, true)) {
+            return;
+        }
+        FThreads.invokeInBackgroundThread(new Runnable() {
+            @Override
+            public void run() {
+                getInstance();
+            }
+        });
+    }
+
+    private final CardRules[] cards;
+    private final IdentityHashMap<CardRules, Integer> ids;
+    private final EnumMap<TextAttribute, String[]> foldedTexts = new EnumMap<>(TextAttribute.class);
+    private final EnumMap<TextAttribute, Map<Long, Postings>> trigrams = new EnumMap<>(TextAttribute.class);
+    private final EnumMap<NumberAttribute, Map<Integer, BitSet>> numbers = new EnumMap<>(NumberAttribute.class);
+    private final EnumMap<NumberAttribute, BitSet> noNumbers = new EnumMap<>(NumberAttribute.class);
+
+    private CardSearchIndex() {
+        ids = new IdentityHashMap<>();
+        List<CardRules> list = new ArrayList<>();
+        for (Iterable<PaperCard> db : Arrays.asList(StaticData.instance().getCommonCards().getAllCards(),
+                StaticData.instance().getVariantCards().getAllCards())) {
+            for (PaperCard pc : db) {
+                CardRules rules = pc.getRules();
+                if (rules != null && !ids.containsKey(rules)) {
+                    ids.put(rules, list.size());
+                    list.add(rules);
+                }
+            }
+        }
+        cards = list.toArray(new CardRules[0]);
+
+        for (TextAttribute attribute : TextAttribute.values()) {
+            String[] texts = new String[cards.length];
+            Map<Long, Postings> index = new HashMap<>();
+            for (int id = 0; id < cards.length; id++) {
+                texts[id] = fold(attribute.getValue(cards[id]));
+                for (long trigram : getTrigrams(texts[id])) {
+                    Postings postings = index.get(trigram);
+                    if (postings == null) {
+                        postings = new Postings();
+                        index.put(trigram, postings);
+                    }
+                    postings.add(id);
+                }
+            }
+            foldedTexts.put(attribute, texts);
+            trigrams.put(attribute, index);
+        }
+
+        for (NumberAttribute attribute : NumberAttribute.values()) {
+            Map<Integer, BitSet> index = new HashMap<>();
+            BitSet none = new BitSet(cards.length);
+            for (int id = 0; id < cards.length; id++) {
+                Integer value = attribute.getValue(cards[id]);
+                if (value == null) {
+                    none.set(id);
+                    continue;
+                }
+                BitSet bits = index.get(value);
+                if (bits == null) {
+                    bits = new BitSet(cards.length);
+                    index.put(value, bits);
+                }
+                bits.set(id);
+            }
+            numbers.put(attribute, index);
+            noNumbers.put(attribute, none);
+        }
+    }
+
+    /**
+     * Returns a predicate for a search on a text attribute. Only cards whose attribute contains
+     * the needle, ignoring case, are tested with exact, which must not accept any other card.
+     */
+    public Predicate<CardRules> text(TextAttribute attribute, String needle, Predicate<CardRules> exact) {
+        String[] texts = foldedTexts.get(attribute);
+        String foldedNeedle = fold(needle);
+        BitSet result = new BitSet(cards.length);
+
+        Postings rarest = null;
+        for (long trigram : getTrigrams(foldedNeedle)) {
+            Postings postings = trigrams.get(attribute).get(trigram);
+            if (postings == null) {
+                return new IndexedPredicate<>(this, result, exact, Functions.<CardRules>identity());
+            }
+            if (rarest == null || postings.size < rarest.size) {
+                rarest = postings;
+            }
+        }
+        if (rarest == null) { //too short to have trigrams, so test every card
+            for (int id = 0; id < cards.length; id++) {
+                if (texts[id].contains(foldedNeedle) && exact.apply(cards[id])) {
+                    result.set(id);
+                }
+            }
+        }
+        else {
+            for (int i = 0; i < rarest.size; i++) {
+                int id = rarest.ids[i];
+                if (texts[id].contains(foldedNeedle) && exact.apply(cards[id])) {
+                    result.set(id);
+                }
+            }
+        }
+        return new IndexedPredicate<>(this, result, exact, Functions.<CardRules>identity());
+    }
+
+    /**
+     * Returns a predicate for a search on a numeric attribute, accepting the cards whose value
+     * is accepted by valueFilter. Cards without a value are passed as null. exact must be
+     * equivalent for cards outside the index.
+     */
+    public Predicate<CardRules> number(NumberAttribute attribute, Predicate<Integer> valueFilter, Predicate<CardRules> exact) {
+        BitSet result = new BitSet(cards.length);
+        for (Map.Entry<Integer, BitSet> e : numbers.get(attribute).entrySet()) {
+            if (valueFilter.apply(e.getKey())) {
+                result.or(e.getValue());
+            }
+        }
+        if (valueFilter.apply(null)) {
+            result.or(noNumbers.get(attribute));
+        }
+        return new IndexedPredicate<>(this, result, exact, Functions.<CardRules>identity());
+    }
+
+    /** Applies a predicate over card rules to printings, keeping its bitmap if it has one. */
+    @SuppressWarnings("unchecked")
+    public static Predicate<PaperCard> forPrintings(Predicate<CardRules> predicate) {
+        if (predicate instanceof IndexedPredicate) {
+            IndexedPredicate<CardRules> p = (IndexedPredicate<CardRules>) predicate;
+            return new IndexedPredicate<>(p.index, p.matches, p.exact, PaperCard.FN_GET_RULES);
+        }
+        return Predicates.compose(predicate, PaperCard.FN_GET_RULES);
+    }
+
+    public static <T> Predicate<T> and(Predicate<T> left, Predicate<T> right) {
+        IndexedPredicate<T> l = asIndexed(left, right), r = asIndexed(right, left);
+        if (l == null || r == null) {
+            return Predicates.and(left, right);
+        }
+        BitSet matches = (BitSet) l.matches.clone();
+        matches.and(r.matches);
+        return new IndexedPredicate<>(l.index, matches, Predicates.and(l.exact, r.exact), l.toRules);
+    }
+
+    public static <T> Predicate<T> or(Predicate<T> left, Predicate<T> right) {
+        IndexedPredicate<T> l = asIndexed(left, right), r = asIndexed(right, left);
+        if (l == null || r == null) {
+            return Predicates.or(left, right);
+        }
+        BitSet matches = (BitSet) l.matches.clone();
+        matches.or(r.matches);
+        return new IndexedPredicate<>(l.index, matches, Predicates.or(l.exact, r.exact), l.toRules);
+    }
+
+    public static <T> Predicate<T> and(List<Predicate<T>> predicates) {
+        if (predicates.isEmpty()) {
+            return Predicates.alwaysTrue();
+        }
+        Predicate<T> result = predicates.get(0);
+        for (int i = 1; i < predicates.size(); i++) {
+            result = and(result, predicates.get(i));
+        }
+        return result;
+    }
+
+    public static <T> Predicate<T> or(List<Predicate<T>> predicates) {
+        if (predicates.isEmpty()) {
+            return Predicates.alwaysFalse();
+        }
+        Predicate<T> result = predicates.get(0);
+        for (int i = 1; i < predicates.size(); i++) {
+            result = or(result, predicates.get(i));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Predicate<T> not(Predicate<T> predicate) {
+        if (!(predicate instanceof IndexedPredicate)) {
+            return Predicates.not(predicate);
+        }
+        IndexedPredicate<T> p = (IndexedPredicate<T>) predicate;
+        BitSet matches = (BitSet) p.matches.clone();
+        matches.flip(0, p.index.cards.length);
+        return new IndexedPredicate<>(p.index, matches, Predicates.not(p.exact), p.toRules);
+    }
+
+    /** Returns the predicate as indexed if it can be combined with the other one, otherwise null. */
+    @SuppressWarnings("unchecked")
+    private static <T> IndexedPredicate<T> asIndexed(Predicate<T> predicate, Predicate<T> other) {
+        if (!(predicate instanceof IndexedPredicate) || !(other instanceof IndexedPredicate)) {
+            return null;
+        }
+        IndexedPredicate<T> p = (IndexedPredicate<T>) predicate, o = (IndexedPredicate<T>) other;
+        return p.index == o.index && p.toRules.equals(o.toRules) ? p : null;
+    }
+
+    /** Case folds the way String.equalsIgnoreCase compares characters. */
+    private static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static Set<Long> getTrigrams(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+
+    /** The ids of the cards containing a trigram, in increasing order. */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    /**
+     * A predicate answered from a bitmap of matching card ids, falling back on an
+     * equivalent predicate for cards that are not in the index.
+     */
+    public static final class IndexedPredicate<T> implements Predicate<T> {
+        private final CardSearchIndex index;
+        private final BitSet matches;
+        private final Predicate<CardRules> exact;
+        private final Function<? super T, CardRules> toRules;
+
+        private IndexedPredicate(CardSearchIndex index, BitSet matches, Predicate<CardRules> exact, Function<? super T, CardRules> toRules) {
+            this.index = index;
+            this.matches = matches;
+            this.exact = exact;
+            this.toRules = toRules;
+        }
+
+        @Override
+        public boolean apply(T input) {
+            CardRules rules = toRules.apply(input);
+            Integer id = index.ids.get(rules);
+            return id != null ? matches.get(id) : exact.apply(rules);
+        }
+    }
+}
@@ -724,12 +724,14 @@ public abstract class ItemManager<T extends InventoryItem> extends JPanel implem
             return;
         }
         this.pool.add(item, qty);
-        if (this.isUnfiltered()) {
-            this.model.addItem(item, qty);
+        if (this.isUnfiltered() || this.canUpdateIncrementally()) {
+            if (this.isUnfiltered() || this.filterPredicate.apply(item)) {
+                this.model.addItem(item, qty);
+            }
         }
         final List<T> items = new ArrayList<T>();
         items.add(item);
-        this.updateView(false, items);
+        this.updateViewAfterChange(items);
     }
 
     /**
@@ -747,12 +749,16 @@ public abstract class ItemManager<T extends InventoryItem> extends JPanel implem
         if (this.isUnfiltered()) {
             this.model.addItems(itemsToAdd);
         }
+        else if (this.canUpdateIncrementally()) {
+            final Predicate<Entry<T, Integer>> pred = Predicates.compose(this.filterPredicate, this.pool.FN_GET_KEY);
+            this.model.addItems(Iterables.filter(itemsToAdd, pred));
+        }
 
         final List<T> items = new ArrayList<T>();
         for (final Map.Entry<T, Integer> item : itemsToAdd) {
             items.add(item.getKey());
         }
-        this.updateView(false, items);
+        this.updateViewAfterChange(items);
     }
 
     /**
@@ -767,10 +773,10 @@ public abstract class ItemManager<T extends InventoryItem> extends JPanel implem
         final Iterable<T> itemsToSelect = this.currentView == this.listView ? this.getSelectedItems() : null;
 
         this.pool.remove(item, qty);
-        if (this.isUnfiltered()) {
+        if (this.isUnfiltered() || this.canUpdateIncrementally()) {
             this.model.removeItem(item, qty);
         }
-        this.updateView(false, itemsToSelect);
+        this.updateViewAfterChange(itemsToSelect);
     }
 
     /**
@@ -785,11 +791,11 @@ public abstract class ItemManager<T extends InventoryItem> extends JPanel implem
 
         for (final Map.Entry<T, Integer> item : itemsToRemove) {
             this.pool.remove(item.getKey(), item.getValue());
-            if (this.isUnfiltered()) {
+            if (this.isUnfiltered() || this.canUpdateIncrementally()) {
                 this.model.removeItem(item.getKey(), item.getValue());
             }
         }
-        this.updateView(false, itemsToSelect);
+        this.updateViewAfterChange(itemsToSelect);
     }
 
     /**
@@ -1028,6 +1034,33 @@ public abstract class ItemManager<T extends InventoryItem> extends JPanel implem
         this.updateView(true, this.getSelectedItems());
     }
 
+    /**
+     *
+     * canUpdateIncrementally.
+     *
+     * @return true if changes to the pool can be passed through the filter
+     * to the model one item at a time, rather than filtering the whole pool again
+     */
+    private boolean canUpdateIncrementally() {
+        //showing one item per name depends on the rest of the pool
+        return !this.wantUnique;
+    }
+
+    /**
+     *
+     * updateViewAfterChange.
+     *
+     * @param itemsToSelect
+     */
+    private void updateViewAfterChange(final Iterable<T> itemsToSelect) {
+        if (this.isUnfiltered() || !this.canUpdateIncrementally()) {
+            this.updateView(false, itemsToSelect);
+        }
+        else { //model already holds the filtered change
+            this.refreshView(true, false, itemsToSelect);
+        }
+    }
+
     protected Iterable<Entry<T, Integer>> getUnique(final Iterable<Entry<T, Integer>> items) {
         return Aggregates.uniqueByLast(items, this.pool.FN_GET_NAME);
     }
@@ -1062,6 +1095,10 @@ public abstract class ItemManager<T extends InventoryItem> extends JPanel implem
             this.model.addItems(this.pool);
         }
 
+        this.refreshView(useFilter, forceFilter, itemsToSelect);
+    }
+
+    private void refreshView(final boolean useFilter, final boolean forceFilter, final Iterable<T> itemsToSelect) {
         this.currentView.refresh(itemsToSelect, this.getSelectedIndex(), forceFilter ? 0 : this.currentView.getScrollValue());
 
         for (final ItemFilter<? extends T> filter : this.orderedFilters) {
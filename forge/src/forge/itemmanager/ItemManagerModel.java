@@ -17,9 +17,11 @@
  */
 package forge.itemmanager;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -43,29 +45,48 @@ public final class ItemManagerModel<T extends InventoryItem> {
 
     public void clear() {
         data.clear();
+        entries.clear();
+        itemsOrdered.clear();
+        sortedBy = null;
     }
 
     // same thing as above, it was copied to provide sorting (needed by table
-    // views in deck editors)
+    // views in deck editors). It is kept in step with the pool as items are
+    // added and removed, in sorted order once it has been sorted.
     private final transient List<Entry<T, Integer>> itemsOrdered = new ArrayList<Map.Entry<T, Integer>>();
+    private final transient Map<T, Entry<T, Integer>> entries = new HashMap<T, Entry<T, Integer>>();
+    // the sorter the ordered list was last sorted with, or null if it is out of order
+    private transient CascadeManager.Sorter sortedBy = null;
 
-    protected transient boolean isListInSync = false;
+    /** Batches larger than this are appended and sorted once, rather than inserted one by one. */
+    private static final int maxIncrementalBatch = 16;
 
     public List<Entry<T, Integer>> getOrderedList() {
-        if (!isListInSync) {
-            rebuildOrderedList();
-        }
         return itemsOrdered;
     }
 
-    private void rebuildOrderedList() {
-        itemsOrdered.clear();
-        if (data != null) {
-            for (final Entry<T, Integer> e : data) {
-                itemsOrdered.add(e);
+    /**
+     * Returns the position of the item in the ordered list, or -1 if it is not in the model.
+     */
+    public int indexOf(final T item) {
+        final Entry<T, Integer> entry = entries.get(item);
+        if (entry == null) {
+            return -1;
+        }
+        if (sortedBy != null) {
+            //find any entry sorting equal to this one, then look for it among its neighbours
+            final MyComparator comparator = new MyComparator(sortedBy);
+            final int found = Collections.binarySearch(itemsOrdered, entry, comparator);
+            if (found >= 0) {
+                for (int i = found; i >= 0 && comparator.compare(itemsOrdered.get(i), entry) == 0; i--) {
+                    if (itemsOrdered.get(i) == entry) { return i; }
+                }
+                for (int i = found + 1; i < itemsOrdered.size() && comparator.compare(itemsOrdered.get(i), entry) == 0; i++) {
+                    if (itemsOrdered.get(i) == entry) { return i; }
+                }
             }
         }
-        isListInSync = true;
+        return itemsOrdered.indexOf(entry);
     }
 
     public int countDistinct() {
@@ -84,7 +105,7 @@ public final class ItemManagerModel<T extends InventoryItem> {
             else {
                 data.remove(item0, qty);
             }
-            isListInSync = false;
+            updateEntry(item0, true);
         }
     }
 
@@ -93,18 +114,62 @@ public final class ItemManagerModel<T extends InventoryItem> {
         if (count > 0) {
             data.removeAll(item0);
             data.add(replacement0, count);
-            isListInSync = false;
+            updateEntry(item0, true);
+            updateEntry(replacement0, true);
         }
     }
 
     public void addItem(final T item0, final int qty) {
         data.add(item0, qty);
-        isListInSync = false;
+        updateEntry(item0, true);
     }
 
     public void addItems(final Iterable<Entry<T, Integer>> items0) {
-        data.addAll(items0);
-        isListInSync = false;
+        final List<T> added = new ArrayList<T>();
+        for (final Entry<T, Integer> e : items0) {
+            data.add(e.getKey(), e.getValue());
+            added.add(e.getKey());
+        }
+        final boolean keepSorted = added.size() <= maxIncrementalBatch;
+        for (final T item : added) {
+            updateEntry(item, keepSorted);
+        }
+    }
+
+    /**
+     * Brings the ordered list entry of an item in line with its count in the pool,
+     * moving it to its sorted position if the list is sorted and keepSorted is set,
+     * otherwise leaving the list to be sorted on the next refresh.
+     */
+    private void updateEntry(final T item, final boolean keepSorted) {
+        final int count = data.count(item);
+        Entry<T, Integer> entry = entries.get(item);
+        if (entry != null && entry.getValue() == count) {
+            return;
+        }
+        if (entry != null) {
+            //the count may be sorted on, so take the entry out and put it back in place
+            itemsOrdered.remove(indexOf(item));
+            if (count == 0) {
+                entries.remove(item);
+                return;
+            }
+            entry.setValue(count);
+        }
+        else {
+            if (count == 0) { return; }
+            entry = new AbstractMap.SimpleEntry<T, Integer>(item, count);
+            entries.put(item, entry);
+        }
+
+        if (keepSorted && sortedBy != null && sortedBy == cascadeManager.getSorter()) {
+            final int found = Collections.binarySearch(itemsOrdered, entry, new MyComparator(sortedBy));
+            itemsOrdered.add(found < 0 ? -found - 1 : found, entry);
+        }
+        else {
+            itemsOrdered.add(entry);
+            sortedBy = null;
+        }
     }
 
     /**
@@ -123,10 +188,26 @@ public final class ItemManagerModel<T extends InventoryItem> {
         return cascadeManager;
     }
 
+    /**
+     * Sorts the ordered list, unless it is still sorted by the current sort columns.
+     */
     public void refreshSort() {
-        if (getOrderedList().isEmpty()) { return; }
+        final CascadeManager.Sorter sorter = cascadeManager.getSorter();
+        final MyComparator comparator = new MyComparator(sorter);
+        //sort keys such as favorites or prices can change outside the model, so check the order is still right
+        if (sortedBy == sorter && isSorted(comparator)) { return; }
 
-        Collections.sort(getOrderedList(), new MyComparator());
+        Collections.sort(itemsOrdered, comparator);
+        sortedBy = sorter;
+    }
+
+    private boolean isSorted(final MyComparator comparator) {
+        for (int i = 1; i < itemsOrdered.size(); i++) {
+            if (comparator.compare(itemsOrdered.get(i - 1), itemsOrdered.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     //Manages sorting orders for multiple depths of sorting
@@ -223,10 +304,16 @@ public final class ItemManagerModel<T extends InventoryItem> {
     }
 
     private final class MyComparator implements Comparator<Entry<T, Integer>> {
+        private final CascadeManager.Sorter sorter;
+
+        private MyComparator(final CascadeManager.Sorter sorter0) {
+            sorter = sorter0;
+        }
+
         @SuppressWarnings("unchecked")
         @Override
         public int compare(final Entry<T, Integer> o1, final Entry<T, Integer> o2) {
-            return cascadeManager.getSorter().compare((Entry<InventoryItem, Integer>)o1, (Entry<InventoryItem, Integer>)o2);
+            return sorter.compare((Entry<InventoryItem, Integer>)o1, (Entry<InventoryItem, Integer>)o2);
         }
     }
 }
@@ -9,6 +9,7 @@ import forge.game.GameFormat;
 import forge.interfaces.IButton;
 import forge.item.InventoryItem;
 import forge.item.PaperCard;
+import forge.itemmanager.CardSearchIndex.TextAttribute;
 import forge.itemmanager.SItemManagerUtil.StatTypes;
 import forge.model.FModel;
 import forge.properties.ForgePreferences;
@@ -42,7 +43,7 @@ public class SFilterUtil {
             try {
                 Predicate<CardRules> filter = expression.evaluate();
                 if (filter != null) {
-                    return Predicates.compose(invert ? Predicates.not(filter) : filter, PaperCard.FN_GET_RULES);
+                    return CardSearchIndex.forPrintings(invert ? CardSearchIndex.not(filter) : filter);
                 }
             }
             catch (Exception ignored) {
@@ -56,16 +57,16 @@ public class SFilterUtil {
         for (String s : splitText) {
             List<Predicate<CardRules>> subands = new ArrayList<>();
 
-            if (inName) { subands.add(CardRulesPredicates.name(StringOp.CONTAINS_IC, s));       }
-            if (inType) { subands.add(CardRulesPredicates.joinedType(StringOp.CONTAINS_IC, s)); }
-            if (inText) { subands.add(CardRulesPredicates.rules(StringOp.CONTAINS_IC, s));      }
-            if (inCost) { subands.add(CardRulesPredicates.cost(StringOp.CONTAINS_IC, s));       }
+            if (inName) { subands.add(CardSearchIndex.textIfReady(TextAttribute.NAME, s, CardRulesPredicates.name(StringOp.CONTAINS_IC, s)));            }
+            if (inType) { subands.add(CardSearchIndex.textIfReady(TextAttribute.TYPE, s, CardRulesPredicates.joinedType(StringOp.CONTAINS_IC, s)));      }
+            if (inText) { subands.add(CardSearchIndex.textIfReady(TextAttribute.RULES_TEXT, s, CardRulesPredicates.rules(StringOp.CONTAINS_IC, s)));     }
+            if (inCost) { subands.add(CardSearchIndex.textIfReady(TextAttribute.MANA_COST, s, CardRulesPredicates.cost(StringOp.CONTAINS_IC, s)));       }
 
-            terms.add(Predicates.or(subands));
+            terms.add(CardSearchIndex.or(subands));
         }
-        Predicate<CardRules> textFilter = invert ? Predicates.not(Predicates.or(terms)) : Predicates.and(terms);
+        Predicate<CardRules> textFilter = invert ? CardSearchIndex.not(CardSearchIndex.or(terms)) : CardSearchIndex.and(terms);
 
-        return Predicates.compose(textFilter, PaperCard.FN_GET_RULES);
+        return CardSearchIndex.forPrintings(textFilter);
     }
 
     private static List<String> getSplitText(String text) {
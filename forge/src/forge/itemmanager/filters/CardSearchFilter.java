@@ -5,6 +5,7 @@ import com.google.common.base.Predicate;
 import forge.UiCommand;
 import forge.item.InventoryItem;
 import forge.item.PaperCard;
+import forge.itemmanager.CardSearchIndex;
 import forge.itemmanager.ItemManager;
 import forge.itemmanager.SFilterUtil;
 import forge.toolbox.FComboBoxWrapper;
@@ -52,6 +53,7 @@ public class CardSearchFilter extends TextSearchFilter<PaperCard> {
     @Override
     protected final void buildWidget(JPanel widget) {
         super.buildWidget(widget);
+        CardSearchIndex.prepare(); //build the index before the first search needs it
 
         cbSearchMode = new FComboBoxWrapper<String>();
         cbSearchMode.addItem("in");
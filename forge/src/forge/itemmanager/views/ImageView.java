@@ -30,6 +30,7 @@ import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
 
 import forge.ImageCache;
+import forge.ImageFetcher;
 import forge.assets.FSkinProp;
 import forge.deck.DeckProxy;
 import forge.game.card.Card;
@@ -980,7 +981,7 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
     }
 
     @SuppressWarnings("serial")
-    private class CardViewDisplay extends JPanel implements ILocalRepaint {
+    private class CardViewDisplay extends JPanel implements ILocalRepaint, ImageFetcher.Callback {
         private CardViewDisplay() {
             setOpaque(false);
             setFocusable(true);
@@ -991,6 +992,11 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
             repaint(getVisibleRect());
         }
 
+        @Override
+        public void onImageFetched() {
+            repaintSelf(); //images are drawn with their name until decoded
+        }
+
         @Override
         public final void paintComponent(final Graphics g) {
             if (groups.isEmpty() || groups.get(0).getBounds().width <= 0) {
@@ -1128,7 +1134,7 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
             g.fillRoundRect(bounds.x, bounds.y, bounds.width, bounds.height, cornerSize, cornerSize);
 
             InventoryItem item = itemInfo.item;
-            BufferedImage img = ImageCache.getImage(itemInfo.item, bounds.width - 2 * borderSize, bounds.height - 2 * borderSize);
+            BufferedImage img = ImageCache.getImageAsync(item.getImageKey(false), bounds.width - 2 * borderSize, bounds.height - 2 * borderSize, true, this);
             if (img != null) {
                 g.drawImage(img, null, bounds.x + borderSize, bounds.y + borderSize);
             }
@@ -604,14 +604,8 @@ public final class ItemListView<T extends InventoryItem> extends ItemView<T> {
          * @param item - the item
          * @return the row
          */
-        public int itemToRow(final T item) { //TODO: Consider optimizing this if used frequently
-            final List<Entry<T, Integer>> orderedList = this.model.getOrderedList();
-            for (int i = 0; i < orderedList.size(); i++) {
-                if (orderedList.get(i).getKey() == item) {
-                    return i;
-                }
-            }
-            return -1;
+        public int itemToRow(final T item) {
+            return this.model.indexOf(item);
         }
 
         private final ListSelectionListener listSelectionListener = new ListSelectionListener() {
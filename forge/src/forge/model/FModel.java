@@ -284,6 +284,7 @@ public final class FModel {
                     }
                 }
             }
+            CardType.Constant.CREATURE_TYPE_SET.addAll(CardType.Constant.CREATURE_TYPES);
             CardType.Constant.LOADED.set();
         }
 
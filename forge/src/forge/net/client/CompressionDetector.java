@@ -0,0 +1,31 @@
+package forge.net.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.compression.JdkZlibDecoder;
+import io.netty.handler.codec.compression.ZlibWrapper;
+
+import java.util.List;
+
+/**
+ * Looks at the first byte received from the server to find out whether it compresses what it
+ * sends, and if so puts a decompressor in front of the decoder.
+ */
+final class CompressionDetector extends ByteToMessageDecoder {
+
+    // first byte of a zlib header, a length prefixed object frame never starts with it
+    private static final int ZLIB_HEADER = 0x78;
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out) {
+        if (!in.isReadable()) {
+            return;
+        }
+        if (in.getUnsignedByte(in.readerIndex()) == ZLIB_HEADER) {
+            ctx.pipeline().addAfter(ctx.name(), "inflater", new JdkZlibDecoder(ZlibWrapper.ZLIB));
+        }
+        // anything already received is passed on to the next handler
+        ctx.pipeline().remove(this);
+    }
+}
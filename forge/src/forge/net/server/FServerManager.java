@@ -13,6 +13,8 @@ import forge.net.event.MessageEvent;
 import forge.net.event.NetEvent;
 import forge.net.event.UpdateLobbyPlayerEvent;
 import forge.properties.ForgeConstants;
+import forge.properties.ForgeProfileProperties;
+import forge.trackable.TrackableDelta;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -26,7 +28,8 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.serialization.ClassResolvers;
 import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
+import io.netty.handler.codec.compression.JdkZlibEncoder;
+import io.netty.handler.codec.compression.ZlibWrapper;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 
@@ -100,8 +103,12 @@ public final class FServerManager {
                     .childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override public final void initChannel(final SocketChannel ch) {
                             final ChannelPipeline p = ch.pipeline();
+                            if (ForgeProfileProperties.isServerCompression()) {
+                                // clients find out by themselves
+                                p.addLast(new JdkZlibEncoder(ZlibWrapper.ZLIB));
+                            }
                             p.addLast(
-                                    new ObjectEncoder(),
+                                    new GameViewEncoder(),
                                     new ObjectDecoder(ClassResolvers.cacheDisabled(null)),
                                     new MessageHandler(),
                                     new RegisterClientHandler(),
@@ -127,6 +134,7 @@ public final class FServerManager {
             mapNatPort(port);
             Runtime.getRuntime().addShutdownHook(shutdownHook);
             isHosting = true;
+            TrackableDelta.setEnabled(true);
         } catch (final InterruptedException e) {
             e.printStackTrace();
         }
@@ -146,6 +154,7 @@ public final class FServerManager {
             Runtime.getRuntime().removeShutdownHook(shutdownHook);
         }
         isHosting = false;
+        TrackableDelta.setEnabled(false);
         // create new EventLoopGroups for potential restart
         bossGroup = new NioEventLoopGroup(1);
         workerGroup = new NioEventLoopGroup();
@@ -0,0 +1,56 @@
+package forge.net.server;
+
+import forge.net.event.GuiGameEvent;
+import forge.trackable.TrackableDelta;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.serialization.ObjectEncoder;
+
+import java.io.Serializable;
+
+/**
+ * Encoder for the events sent to a client, which only writes the part of the game view that
+ * changed since the last one it got.
+ */
+final class GameViewEncoder extends ObjectEncoder {
+
+    private final TrackableDelta delta = new TrackableDelta();
+
+    @Override
+    protected void encode(final ChannelHandlerContext ctx, final Serializable msg, final ByteBuf out) throws Exception {
+        if (!(msg instanceof GuiGameEvent)) {
+            super.encode(ctx, msg, out);
+            return;
+        }
+
+        final GuiGameEvent event = (GuiGameEvent) msg;
+        switch (event.getMethod()) {
+        case openView:
+        case afterGameEnd:
+            // the client starts over with a new view
+            delta.reset();
+            super.encode(ctx, msg, out);
+            return;
+        case setGameView:
+            if (event.getObjects()[0] == null) {
+                delta.reset();
+                super.encode(ctx, msg, out);
+                return;
+            }
+            break;
+        default:
+            // any views in other events are kept as they are by the client, so write them in full
+            super.encode(ctx, msg, out);
+            return;
+        }
+
+        boolean written = false;
+        delta.begin();
+        try {
+            super.encode(ctx, msg, out);
+            written = true;
+        } finally {
+            delta.end(written);
+        }
+    }
+}
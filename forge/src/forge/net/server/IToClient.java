@@ -1,6 +1,9 @@
 package forge.net.server;
 
 import forge.net.IRemote;
+import forge.net.event.NetEvent;
 
 public interface IToClient extends IRemote {
+    /** Queue an event without flushing, it goes out together with the next event sent. */
+    void write(NetEvent event);
 }
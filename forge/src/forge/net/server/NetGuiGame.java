@@ -22,14 +22,19 @@ import forge.item.PaperCard;
 import forge.match.AbstractGuiGame;
 import forge.net.GameProtocolSender;
 import forge.net.ProtocolMethod;
+import forge.net.event.GuiGameEvent;
 import forge.player.PlayerZoneUpdate;
 import forge.trackable.TrackableCollection;
+import forge.trackable.TrackableDelta;
 import forge.util.ITriggerEvent;
 
 public class NetGuiGame extends AbstractGuiGame {
 
+    private final IToClient client;
     private final GameProtocolSender sender;
+    private long gameViewVersion = -1;
     public NetGuiGame(final IToClient client) {
+        this.client = client;
         this.sender = new GameProtocolSender(client);
     }
 
@@ -41,20 +46,33 @@ public class NetGuiGame extends AbstractGuiGame {
         return sender.sendAndWait(method, args);
     }
 
+    // only to be called right before sending another event, which the update is batched with
     private void updateGameView() {
+        if (TrackableDelta.isEnabled()) {
+            final long version = TrackableDelta.getVersion();
+            if (version == gameViewVersion) {
+                return; // nothing changed since the last update
+            }
+            gameViewVersion = version;
+        }
+        client.write(new GuiGameEvent(ProtocolMethod.setGameView, getGameView()));
+    }
+
+    private void sendGameView() {
+        gameViewVersion = TrackableDelta.getVersion();
         send(ProtocolMethod.setGameView, getGameView());
     }
 
     @Override
     public void setGameView(final GameView gameView) {
         super.setGameView(gameView);
-        updateGameView();
+        sendGameView();
     }
 
     @Override
     public void openView(final TrackableCollection<PlayerView> myPlayers) {
         send(ProtocolMethod.openView, myPlayers);
-        updateGameView();
+        sendGameView();
     }
 
     @Override
@@ -27,6 +27,20 @@ public final class RemoteClient implements IToClient {
         }
     }
 
+    @Override
+    public void write(final NetEvent event) {
+        try {
+            // wait for the event to be encoded, as the caller may change the game right after
+            channel.eventLoop().submit(new Runnable() {
+                @Override public void run() {
+                    channel.write(event);
+                }
+            }).sync();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
     @Override
     public Object sendAndWait(final IdentifiableNetEvent event) throws TimeoutException {
         replies.initialize(event.getId());
@@ -1083,7 +1083,7 @@ public class HumanCostDecision extends CostDecisionMakerBase {
                     continue;
                 }
                 final int oldVal = crd.getCounters().get(cost.counter).intValue();
-                crd.getCounters().put(cost.counter, Integer.valueOf(oldVal - removed + 1));
+                crd.setCounters(cost.counter, Integer.valueOf(oldVal - removed + 1));
             }
             return PaymentDecision.card(inp.getSelected(), 1);
         }
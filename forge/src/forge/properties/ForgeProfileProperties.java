@@ -44,6 +44,7 @@ public class ForgeProfileProperties {
     private static String decksDir;
     private static String decksConstructedDir;
     private static int serverPort;
+    private static boolean serverCompression;
 
     private static final String USER_DIR_KEY      = "userDir";
     private static final String CACHE_DIR_KEY     = "cacheDir";
@@ -52,6 +53,7 @@ public class ForgeProfileProperties {
     private static final String DECKS_DIR_KEY      = "decksDir";
     private static final String DECKS_CONSTRUCTED_DIR_KEY = "decksConstructedDir";
     private static final String SERVER_PORT_KEY = "serverPort";
+    private static final String SERVER_COMPRESSION_KEY = "serverCompression";
 
     private ForgeProfileProperties() {
         //prevent initializing static class
@@ -76,6 +78,7 @@ public class ForgeProfileProperties {
         decksDir    = getDir(props, DECKS_DIR_KEY, userDir + "decks" + File.separator);
         decksConstructedDir = getDir(props, DECKS_CONSTRUCTED_DIR_KEY, decksDir + "constructed" + File.separator);;
         serverPort = getInt(props, SERVER_PORT_KEY, 36743); // "Forge" using phone keypad
+        serverCompression = getBoolean(props, SERVER_COMPRESSION_KEY, false);
 
         //ensure directories exist
         FileUtil.ensureDirectoryExists(userDir);
@@ -131,6 +134,11 @@ public class ForgeProfileProperties {
         return serverPort;
     }
 
+    // whether a hosted server compresses what it sends to the clients
+    public static boolean isServerCompression() {
+        return serverCompression;
+    }
+
     private static Map<String, String> getMap(final Properties props, final String propertyKey) {
         final String strMap = props.getProperty(propertyKey, "").trim();
         return FileSection.parseToMap(strMap, "->", "|");
@@ -144,6 +152,14 @@ public class ForgeProfileProperties {
         return defaultValue;
     }
 
+    private static boolean getBoolean(final Properties props, final String propertyKey, final boolean defaultValue) {
+        final String strValue = props.getProperty(propertyKey, "").trim();
+        if (StringUtils.isNotBlank(strValue)) {
+            return Boolean.parseBoolean(strValue);
+        }
+        return defaultValue;
+    }
+
     private static String getDir(final Properties props, final String propertyKey, final String defaultVal) {
         String retDir = props.getProperty(propertyKey, defaultVal).trim();
         if (retDir.isEmpty()) {
@@ -231,7 +247,10 @@ public class ForgeProfileProperties {
             sb.append("\n");
         }
         if (serverPort != 0) {
-            sb.append(SERVER_PORT_KEY + "=" + serverPort);
+            sb.append(SERVER_PORT_KEY + "=" + serverPort + "\n");
+        }
+        if (serverCompression) {
+            sb.append(SERVER_COMPRESSION_KEY + "=" + serverCompression + "\n");
         }
         if (sb.length() > 0) {
             FileUtil.writeFile(ForgeConstants.PROFILE_FILE, sb.toString());
@@ -40,6 +40,9 @@ import forge.quest.data.*;
 import forge.util.FileUtil;
 import forge.util.IgnoringXStream;
 import forge.util.ItemPool;
+import forge.util.SectionedSaveFile;
+import forge.util.SectionedSaveFile.Fingerprint;
+import forge.util.SectionedSaveFile.Section;
 import forge.util.XmlUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.*;
@@ -51,10 +54,10 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * <p>
@@ -70,6 +73,17 @@ public class QuestDataIO {
         FileUtil.ensureDirectoryExists(ForgeConstants.QUEST_SAVE_DIR);
     }
 
+    // Quests are saved in sections, so that a save only rewrites the parts that changed. The card pools and every
+    // deck have sections of their own, everything else is kept in the quest section. The card pool grows after most
+    // matches, so it is split by a hash of the cards into buckets that are saved separately.
+    private static final String SECTION_QUEST = "quest";
+    private static final String SECTION_CARD_POOL_PREFIX = "cardPool/";
+    private static final int CARD_POOL_BUCKET_BITS = 5;
+    private static final String SECTION_NEW_CARDS = "newCardList";
+    private static final String SECTION_SHOP = "shopList";
+    private static final String SECTION_DRAFT_DECKS = "draftDecks";
+    private static final String SECTION_DECK_PREFIX = "deck/";
+
     /**
      * Gets the serializer.
      *
@@ -93,6 +107,19 @@ public class QuestDataIO {
         return xStream;
     }
 
+    /**
+     * Gets the serializer for the quest section, which leaves out the assets that are saved in sections of their own.
+     */
+    private static XStream getQuestSectionSerializer(final boolean isIgnoring) {
+        final XStream xStream = QuestDataIO.getSerializer(isIgnoring);
+        xStream.omitField(QuestAssets.class, "cardPool");
+        xStream.omitField(QuestAssets.class, SECTION_NEW_CARDS);
+        xStream.omitField(QuestAssets.class, SECTION_SHOP);
+        xStream.omitField(QuestAssets.class, SECTION_DRAFT_DECKS);
+        xStream.omitField(QuestAssets.class, "myDecks");
+        return xStream;
+    }
+
     /**
      * <p>
      * loadData.
@@ -104,28 +131,19 @@ public class QuestDataIO {
      */
     public static QuestData loadData(final File xmlSaveFile) {
         try {
-            QuestData data;
-
-            final GZIPInputStream zin = new GZIPInputStream(new FileInputStream(xmlSaveFile));
-            final StringBuilder xml = new StringBuilder();
-            final char[] buf = new char[1024];
-            final InputStreamReader reader = new InputStreamReader(zin);
-            while (reader.ready()) {
-                final int len = reader.read(buf);
-                if (len == -1) {
-                    break;
-                } // when end of stream was reached
-                xml.append(buf, 0, len);
+            if (SectionedSaveFile.isSectioned(xmlSaveFile)) {
+                return QuestDataIO.loadSections(xmlSaveFile);
             }
 
-            zin.close();
-
-            String bigXML = xml.toString();
-            data = (QuestData) QuestDataIO.getSerializer(true).fromXML(bigXML);
+            QuestData data;
+            try (Reader reader = new InputStreamReader(new GZIPInputStream(new BufferedInputStream(new FileInputStream(xmlSaveFile))))) {
+                data = (QuestData) QuestDataIO.getSerializer(true).fromXML(reader);
+            }
 
             if (data.getVersionNumber() != QuestData.CURRENT_VERSION_NUMBER) {
                 try {
-                    QuestDataIO.updateSaveFile(data, bigXML, xmlSaveFile.getName().replace(".dat", ""));
+                    // the migration passes look at the raw document, which is only needed for outdated saves
+                    QuestDataIO.updateSaveFile(data, QuestDataIO.readPacked(xmlSaveFile), xmlSaveFile.getName().replace(".dat", ""));
                 }
                 catch (final Exception e) {
                     //BugReporter.reportException(e);
@@ -141,6 +159,84 @@ public class QuestDataIO {
         }
     }
 
+    private static String readPacked(final File xmlSaveFile) throws IOException {
+        final StringBuilder xml = new StringBuilder();
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(new FileInputStream(xmlSaveFile)))) {
+            final char[] buf = new char[8192];
+            int len;
+            while ((len = reader.read(buf)) != -1) {
+                xml.append(buf, 0, len);
+            }
+        }
+        return xml.toString();
+    }
+
+    private static QuestData loadSections(final File saveFile) throws Exception {
+        final SectionedSaveFile file = SectionedSaveFile.read(saveFile);
+        final XStream xStream = QuestDataIO.getSerializer(true);
+
+        final String questXml = QuestDataIO.readSection(file, SECTION_QUEST);
+        final QuestData data = (QuestData) QuestDataIO.getQuestSectionSerializer(true).fromXML(questXml);
+        final QuestAssets assets = data.getAssets();
+
+        final ItemPool<InventoryItem> cardPool = new ItemPool<>(InventoryItem.class);
+        final HashMap<String, Deck> myDecks = new HashMap<>();
+        for (final String section : file.getSectionNames()) {
+            if (section.startsWith(SECTION_CARD_POOL_PREFIX)) {
+                cardPool.addAll(QuestDataIO.readPool(file, section, xStream));
+            }
+            else if (section.startsWith(SECTION_DECK_PREFIX)) {
+                final Deck deck = (Deck) QuestDataIO.readSection(file, section, xStream);
+                myDecks.put(deck.getName(), deck);
+            }
+        }
+        HashMap<?, ?> draftDecks = (HashMap<?, ?>) QuestDataIO.readSection(file, SECTION_DRAFT_DECKS, xStream);
+        if (draftDecks == null) {
+            draftDecks = new HashMap<String, DeckGroup>();
+        }
+
+        QuestDataIO.setFinalField(QuestAssets.class, "cardPool", assets, cardPool);
+        QuestDataIO.setFinalField(QuestAssets.class, SECTION_NEW_CARDS, assets, QuestDataIO.readPool(file, SECTION_NEW_CARDS, xStream));
+        QuestDataIO.setFinalField(QuestAssets.class, SECTION_SHOP, assets, QuestDataIO.readPool(file, SECTION_SHOP, xStream));
+        QuestDataIO.setFinalField(QuestAssets.class, SECTION_DRAFT_DECKS, assets, draftDecks);
+        QuestDataIO.setFinalField(QuestAssets.class, "myDecks", assets, myDecks);
+
+        if (data.getVersionNumber() != QuestData.CURRENT_VERSION_NUMBER) {
+            QuestDataIO.updateSaveFile(data, questXml, saveFile.getName().replace(".dat", ""));
+        }
+        return data;
+    }
+
+    private static String readSection(final SectionedSaveFile file, final String section) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = file.openSection(section)) {
+            if (in == null) {
+                throw new IOException("Quest save is missing its " + section + " section");
+            }
+            final byte[] buf = new byte[8192];
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                bytes.write(buf, 0, len);
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Object readSection(final SectionedSaveFile file, final String section, final XStream xStream) throws IOException {
+        try (InputStream in = file.openSection(section)) {
+            if (in == null) {
+                return null;
+            }
+            return xStream.fromXML(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ItemPool<InventoryItem> readPool(final SectionedSaveFile file, final String section, final XStream xStream) throws IOException {
+        final ItemPool<InventoryItem> pool = (ItemPool<InventoryItem>) QuestDataIO.readSection(file, section, xStream);
+        return pool == null ? new ItemPool<>(InventoryItem.class) : pool;
+    }
+
     private static <T> void setFinalField(final Class<T> clasz, final String fieldName, final T instance,
             final Object newValue) throws IllegalAccessException, NoSuchFieldException {
         final Field field = clasz.getDeclaredField(fieldName);
@@ -386,9 +482,9 @@ public class QuestDataIO {
             final XStream xStream = QuestDataIO.getSerializer(false);
 
             final File f = new File(ForgeConstants.QUEST_SAVE_DIR, qd.getName());
-            //Copy the save file in case the save fails
-            FileUtil.copyFile(f + ".dat", f + ".dat.bak");
-            QuestDataIO.savePacked(f + ".dat", xStream, qd);
+            // Sections are appended to the save file, which is only rewritten once it holds mostly stale data.
+            // The previous file is kept as the backup when that happens.
+            SectionedSaveFile.save(new File(f + ".dat"), new File(f + ".dat.bak"), QuestDataIO.getSections(xStream, qd));
             //QuestDataIO.saveUnpacked(f + ".xml", xStream, qd);
         }
         catch (final Exception ex) {
@@ -397,12 +493,110 @@ public class QuestDataIO {
         }
     }
 
-    private static void savePacked(final String f, final XStream xStream, final QuestData qd) throws IOException {
-        final BufferedOutputStream bout = new BufferedOutputStream(new FileOutputStream(f));
-        final GZIPOutputStream zout = new GZIPOutputStream(bout);
-        xStream.toXML(qd, zout);
-        zout.flush();
-        zout.close();
+    private static List<Section> getSections(final XStream xStream, final QuestData qd) {
+        final QuestAssets assets = qd.getAssets();
+        final List<Section> sections = new ArrayList<>();
+
+        sections.add(new Section(SECTION_QUEST, QuestDataIO.toXml(QuestDataIO.getQuestSectionSerializer(false), qd)));
+
+        QuestDataIO.addCardPoolSections(sections, assets.getCardPool(), xStream);
+        sections.add(QuestDataIO.toSection(SECTION_NEW_CARDS, QuestDataIO.fingerprint(assets.getNewCardList()).get(), assets.getNewCardList(), xStream));
+        sections.add(QuestDataIO.toSection(SECTION_SHOP, QuestDataIO.fingerprint(assets.getShopList()).get(), assets.getShopList(), xStream));
+        for (final Deck deck : assets.getDeckStorage()) {
+            sections.add(QuestDataIO.toSection(SECTION_DECK_PREFIX + deck.getName(), QuestDataIO.fingerprint(deck).get(), deck, xStream));
+        }
+
+        // draft decks are few and small, so they are fingerprinted by their serialized form
+        sections.add(new Section(SECTION_DRAFT_DECKS, QuestDataIO.toXml(xStream, QuestDataIO.getDraftDecks(assets))));
+        return sections;
+    }
+
+    private static byte[] toXml(final XStream xStream, final Object value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8);
+        xStream.toXML(value, writer);
+        try {
+            writer.flush();
+        }
+        catch (final IOException e) {
+            throw new RuntimeException(e); // cannot happen with an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Section toSection(final String name, final long fingerprint, final Object value, final XStream xStream) {
+        return new Section(name, fingerprint, new SectionedSaveFile.SectionWriter() {
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                xStream.toXML(value, writer);
+                writer.flush();
+            }
+        });
+    }
+
+    private static HashMap<String, DeckGroup> getDraftDecks(final QuestAssets assets) {
+        final HashMap<String, DeckGroup> draftDecks = new HashMap<>();
+        for (final DeckGroup group : assets.getDraftDeckStorage()) {
+            draftDecks.put(group.getName(), group);
+        }
+        return draftDecks;
+    }
+
+    /**
+     * Fingerprints what {@link DeckToXml} writes of a deck, that is its name and the cards of its sections.
+     */
+    private static Fingerprint fingerprint(final Deck deck) {
+        final Fingerprint result = new Fingerprint().add(deck.getName());
+        for (final Entry<DeckSection, CardPool> ds : deck) {
+            result.add(ds.getKey().ordinal()).add(QuestDataIO.fingerprint(ds.getValue()).get());
+        }
+        return result;
+    }
+
+    private static void addCardPoolSections(final List<Section> sections, final ItemPool<PaperCard> cardPool, final XStream xStream) {
+        final int bucketCount = 1 << CARD_POOL_BUCKET_BITS;
+        final List<ItemPool<PaperCard>> buckets = new ArrayList<>(Collections.<ItemPool<PaperCard>>nCopies(bucketCount, null));
+        final long[] entries = new long[bucketCount];
+        for (final Entry<PaperCard, Integer> e : cardPool) {
+            final long item = QuestDataIO.fingerprint(e.getKey()).get();
+            final int bucket = (int) (item >>> (64 - CARD_POOL_BUCKET_BITS));
+            if (buckets.get(bucket) == null) {
+                buckets.set(bucket, new ItemPool<>(PaperCard.class));
+            }
+            buckets.get(bucket).add(e.getKey(), e.getValue());
+            entries[bucket] += new Fingerprint().add(item).add(e.getValue()).get();
+        }
+        for (int i = 0; i < bucketCount; i++) {
+            final ItemPool<PaperCard> bucket = buckets.get(i);
+            if (bucket != null) {
+                final long fingerprint = new Fingerprint().add(entries[i]).add(bucket.countDistinct()).get();
+                sections.add(QuestDataIO.toSection(SECTION_CARD_POOL_PREFIX + i, fingerprint, bucket, xStream));
+            }
+        }
+    }
+
+    /**
+     * Fingerprints what {@link ItemPoolToXml} writes of a pool. The entries are combined regardless of their order,
+     * since equal pools don't always iterate in the same order.
+     */
+    private static Fingerprint fingerprint(final ItemPool<? extends InventoryItem> pool) {
+        long entries = 0;
+        for (final Entry<? extends InventoryItem, Integer> e : pool) {
+            entries += QuestDataIO.fingerprint(e.getKey()).add(e.getValue()).get();
+        }
+        return new Fingerprint().add(entries).add(pool.countDistinct());
+    }
+
+    private static Fingerprint fingerprint(final InventoryItem item) {
+        final Fingerprint result = new Fingerprint().add(item.getItemType()).add(item.getName());
+        if (item instanceof InventoryItemFromSet) {
+            result.add(((InventoryItemFromSet) item).getEdition());
+        }
+        if (item instanceof PaperCard) {
+            result.add(((PaperCard) item).getArtIndex()).add(((PaperCard) item).isFoil());
+        }
+        return result;
     }
 
     @SuppressWarnings("unused") // used only for debug purposes
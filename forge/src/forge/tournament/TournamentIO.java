@@ -11,12 +11,14 @@ import forge.item.PaperCard;
 import forge.model.FModel;
 import forge.properties.ForgeConstants;
 import forge.util.IgnoringXStream;
+import forge.util.SectionedSaveFile;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 public class TournamentIO {
     /** Prompt in text field for new (unsaved) built gauntlets. */
@@ -29,6 +31,8 @@ public class TournamentIO {
     public static final String PREFIX_CUSTOM = "Custom_";
     /** Regex for locked tournament save files. */
     public static final String PREFIX_LOCKED = "LOCKED_";
+    /** Name of the save file section holding the tournament. */
+    private static final String SECTION_TOURNAMENT = "tournament";
 
     protected static XStream getSerializer(final boolean isIgnoring) {
         final XStream xStream = isIgnoring ? new IgnoringXStream() : new XStream();
@@ -74,11 +78,18 @@ public class TournamentIO {
     }
 
     public static TournamentData loadTournament(final File xmlSaveFile) {
-        GZIPInputStream zin = null;
+        InputStream zin = null;
         boolean isCorrupt = false;
         try {
-            zin = new GZIPInputStream(new FileInputStream(xmlSaveFile));
-            final InputStreamReader reader = new InputStreamReader(zin);
+            final InputStreamReader reader;
+            if (SectionedSaveFile.isSectioned(xmlSaveFile)) {
+                zin = SectionedSaveFile.read(xmlSaveFile).openSection(SECTION_TOURNAMENT);
+                reader = new InputStreamReader(zin, StandardCharsets.UTF_8);
+            }
+            else {
+                zin = new GZIPInputStream(new FileInputStream(xmlSaveFile));
+                reader = new InputStreamReader(zin);
+            }
 
             final TournamentData data = (TournamentData)TournamentIO.getSerializer(true).fromXML(reader);
 
@@ -122,11 +133,12 @@ public class TournamentIO {
     }
 
     private static void savePacked(final XStream xStream0, final TournamentData gd0) throws IOException {
-        final BufferedOutputStream bout = new BufferedOutputStream(new FileOutputStream(getTournamentFile(gd0)));
-        final GZIPOutputStream zout = new GZIPOutputStream(bout);
-        xStream0.toXML(gd0, zout);
-        zout.flush();
-        zout.close();
+        final ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        final Writer writer = new OutputStreamWriter(xml, StandardCharsets.UTF_8);
+        xStream0.toXML(gd0, writer);
+        writer.flush();
+        // the file is left alone if the tournament hasn't changed since it was last saved
+        SectionedSaveFile.save(getTournamentFile(gd0), null, Collections.singletonList(new SectionedSaveFile.Section(SECTION_TOURNAMENT, xml.toByteArray())));
     }
 
     private static class DeckSectionToXml implements Converter {
@@ -0,0 +1,100 @@
+package forge.trackable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of what a remote client already knows about the trackable objects of a game,
+ * so that serializing a view again only writes what changed since it was last sent.
+ *
+ * While enabled, every property change is stamped with a version. Objects the client hasn't
+ * seen yet are written in full, objects it has seen only with the properties changed after the
+ * version of the last update sent, plus the properties referring to other trackable objects so
+ * that the client can still walk down to everything that changed.
+ */
+public final class TrackableDelta {
+    private static final AtomicLong changeCounter = new AtomicLong();
+    private static volatile boolean enabled;
+    private static final ThreadLocal<TrackableDelta> current = new ThreadLocal<TrackableDelta>();
+
+    // the client merges objects by id, which some objects share (like the states of a split card),
+    // so only the instance it got last counts as known
+    private final Map<TrackableObject, TrackableObject> knownObjects = new HashMap<TrackableObject, TrackableObject>();
+    private long sentVersion = -1;
+    private long pendingVersion;
+    private int fullDepth;
+
+    /**
+     * Enable versioning of property changes, needed before any delta can be written. Changes
+     * made before are considered part of the first full update.
+     */
+    public static void setEnabled(final boolean enabled0) {
+        enabled = enabled0;
+    }
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The version of the latest property change. */
+    public static long getVersion() {
+        return changeCounter.get();
+    }
+    static long nextVersion() {
+        return changeCounter.incrementAndGet();
+    }
+
+    static TrackableDelta current() {
+        return current.get();
+    }
+
+    /** Forget everything sent so far, the next update will be written in full. */
+    public void reset() {
+        knownObjects.clear();
+        sentVersion = -1;
+    }
+
+    /** Use this delta for objects serialized by the current thread until {@link #end(boolean)}. */
+    public void begin() {
+        pendingVersion = changeCounter.get();
+        fullDepth = 0;
+        current.set(this);
+    }
+
+    /**
+     * Stop using this delta. If the update wasn't written completely, the client can't be
+     * expected to know any of it and the next one is written in full.
+     */
+    public void end(final boolean written) {
+        current.remove();
+        if (written) {
+            sentVersion = pendingVersion;
+        }
+        else {
+            reset();
+        }
+    }
+
+    long getSentVersion() {
+        return sentVersion;
+    }
+
+    boolean isKnown(final TrackableObject obj) {
+        return fullDepth == 0 && knownObjects.get(obj) == obj;
+    }
+
+    // objects written outside of tracked properties aren't merged into the client's tracker,
+    // so they can't be relied upon later on
+    void markKnown(final TrackableObject obj) {
+        if (fullDepth == 0) {
+            knownObjects.put(obj, obj);
+        }
+    }
+
+    void enterFull() {
+        fullDepth++;
+    }
+    void exitFull() {
+        fullDepth--;
+    }
+}
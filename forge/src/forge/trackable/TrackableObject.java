@@ -1,8 +1,12 @@
 package forge.trackable;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -15,8 +19,10 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
 
     private final int id;
     protected transient Tracker tracker;
-    private final Map<TrackableProperty, Object> props;
-    private final Set<TrackableProperty> changedProps;
+    //props are written by hand, see writeObject
+    private transient Map<TrackableProperty, Object> props;
+    private transient Set<TrackableProperty> changedProps;
+    private transient Map<TrackableProperty, Long> changeVersions; //only kept while TrackableDelta is enabled
     private boolean copyingProps;
 
     protected TrackableObject(final int id0, final Tracker tracker) {
@@ -80,15 +86,37 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
         if (value == null || value.equals(key.getDefaultValue())) {
             if (props.remove(key) != null) {
                 changedProps.add(key);
+                recordChange(key);
                 key.updateObjLookup(tracker, value);
             }
         }
-        else if (!value.equals(props.put(key, value))) {
-            changedProps.add(key);
-            key.updateObjLookup(tracker, value);
+        else {
+            final Object oldValue = props.put(key, value);
+            if (!value.equals(oldValue)) {
+                changedProps.add(key);
+                recordChange(key);
+                key.updateObjLookup(tracker, value);
+            }
+            else if (oldValue == value && !isImmutable(value)) {
+                //the same instance may have been changed in place since it was set
+                recordChange(key);
+            }
         }
     }
 
+    private void recordChange(final TrackableProperty key) {
+        if (TrackableDelta.isEnabled()) {
+            if (changeVersions == null) {
+                changeVersions = new EnumMap<TrackableProperty, Long>(TrackableProperty.class);
+            }
+            changeVersions.put(key, TrackableDelta.nextVersion());
+        }
+    }
+
+    private static boolean isImmutable(final Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Enum;
+    }
+
     public final void updateObjLookup() {
         for (final Entry<TrackableProperty, Object> prop : props.entrySet()) {
             prop.getKey().updateObjLookup(tracker, prop.getValue());
@@ -110,9 +138,101 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
     //use when updating collection type properties with using set
     protected final void flagAsChanged(final TrackableProperty key) {
         changedProps.add(key);
+        recordChange(key);
         key.updateObjLookup(tracker, props.get(key));
     }
 
+    /**
+     * Writes the properties along with whether they're changed. When the object is written for a
+     * client that already knows it, only what changed since the last update is written instead.
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        final TrackableDelta delta = TrackableDelta.current();
+        if (delta == null) {
+            out.defaultWriteObject();
+        }
+        else {
+            //objects only referred to by fields aren't merged by the client
+            delta.enterFull();
+            try {
+                out.defaultWriteObject();
+            }
+            finally {
+                delta.exitFull();
+            }
+        }
+
+        final boolean known = delta != null && delta.isKnown(this) && !refersToNewObject(delta);
+        final Set<TrackableProperty> keys = EnumSet.copyOf(changedProps);
+        keys.addAll(props.keySet());
+        if (known) {
+            final long sentVersion = delta.getSentVersion();
+            for (final Iterator<TrackableProperty> it = keys.iterator(); it.hasNext();) {
+                final TrackableProperty key = it.next();
+                if (key.holdsTrackableObjects() && props.containsKey(key)) {
+                    continue;
+                }
+                final Long version = changeVersions == null ? null : changeVersions.get(key);
+                if (version == null || version <= sentVersion || !changedProps.contains(key)) {
+                    it.remove();
+                }
+            }
+        }
+        else if (delta != null) {
+            delta.markKnown(this);
+        }
+
+        out.writeShort(keys.size());
+        for (final TrackableProperty key : keys) {
+            out.writeShort(TrackableProperty.serialize(key));
+            //everything written for a known object has to be copied over by the client
+            out.writeBoolean(known || changedProps.contains(key));
+            if (delta == null || key.holdsTrackableObjects()) {
+                out.writeObject(props.get(key));
+            }
+            else {
+                //any trackable objects inside other values are just kept as they are by the client
+                delta.enterFull();
+                try {
+                    out.writeObject(props.get(key));
+                }
+                finally {
+                    delta.exitFull();
+                }
+            }
+        }
+    }
+
+    //new objects are kept by the client as they are, including what they refer to by fields
+    //(like a card state to its card), so anything they might refer to has to be written in full
+    private boolean refersToNewObject(final TrackableDelta delta) {
+        for (final Entry<TrackableProperty, Object> prop : props.entrySet()) {
+            if (prop.getValue() instanceof TrackableObject && !delta.isKnown((TrackableObject) prop.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        props = new EnumMap<TrackableProperty, Object>(TrackableProperty.class);
+        changedProps = EnumSet.noneOf(TrackableProperty.class);
+        final int count = in.readShort();
+        for (int i = 0; i < count; i++) {
+            final TrackableProperty key = TrackableProperty.deserialize(in.readShort());
+            final boolean changed = in.readBoolean();
+            final Object value = in.readObject();
+            if (value != null) {
+                props.put(key, value);
+            }
+            if (changed) {
+                changedProps.add(key);
+            }
+        }
+    }
+
     public final void serialize(final TrackableSerializer ts) {
         ts.write(changedProps.size());
         for (TrackableProperty key : changedProps) {
@@ -193,6 +193,11 @@ public enum TrackableProperty {
         type.copyChangedProps(from, to, this);
     }
 
+    //whether the value refers to other trackable objects, which get merged on the client one by one
+    boolean holdsTrackableObjects() {
+        return type.holdsTrackableObjects();
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T getDefaultValue() {
         return ((TrackableType<T>)type).getDefaultValue();
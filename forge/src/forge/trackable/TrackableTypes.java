@@ -31,6 +31,9 @@ public class TrackableTypes {
         protected void copyChangedProps(TrackableObject from, TrackableObject to, TrackableProperty prop) {
             to.set(prop, from.get(prop));
         }
+        protected boolean holdsTrackableObjects() {
+            return false;
+        }
         protected abstract T getDefaultValue();
         protected abstract T deserialize(TrackableDeserializer td, T oldValue);
         protected abstract void serialize(TrackableSerializer ts, T value);
@@ -50,6 +53,11 @@ public class TrackableTypes {
             return to;
         }
 
+        @Override
+        protected boolean holdsTrackableObjects() {
+            return true;
+        }
+
         @Override
         protected void updateObjLookup(Tracker tracker, T newObj) {
             if (tracker == null) { return; }
@@ -64,13 +72,14 @@ public class TrackableTypes {
             T newObj = from.get(prop);
             if (newObj != null) {
                 T existingObj = newObj.getTracker().getObj(this, newObj.getId());
-                if (existingObj != null) { //if object exists already, update its changed properties
+                if (existingObj == null) { //if object is new, cache in object lookup
+                    newObj.getTracker().putObj(this, newObj.getId(), newObj);
+                    newObj.copyChangedProps(newObj); //and have it refer to the objects that exist already
+                }
+                else if (existingObj != newObj) { //if object exists already, update its changed properties
                     existingObj.copyChangedProps(newObj);
                     newObj = existingObj;
                 }
-                else { //if object is new, cache in object lookup
-                    newObj.getTracker().putObj(this, newObj.getId(), newObj);
-                }
             }
             to.set(prop, newObj);
         }
@@ -83,6 +92,11 @@ public class TrackableTypes {
             itemType = itemType0;
         }
 
+        @Override
+        protected boolean holdsTrackableObjects() {
+            return true;
+        }
+
         @Override
         protected void updateObjLookup(Tracker tracker, TrackableCollection<T> newCollection) {
             if (newCollection != null) {
@@ -103,14 +117,15 @@ public class TrackableTypes {
                     T newObj = newCollection.get(i);
                     if (newObj != null) {
                         T existingObj = from.getTracker().getObj(itemType, newObj.getId());
-                        if (existingObj != null) { //if object exists already, update its changed properties
+                        if (existingObj == null) { //if object is new, cache in object lookup
+                            from.getTracker().putObj(itemType, newObj.getId(), newObj);
+                            newObj.copyChangedProps(newObj); //and have it refer to the objects that exist already
+                        }
+                        else if (existingObj != newObj) { //if object exists already, update its changed properties
                             existingObj.copyChangedProps(newObj);
                             newCollection.remove(i);
                             newCollection.add(i, existingObj);
                         }
-                        else { //if object is new, cache in object lookup
-                            from.getTracker().putObj(itemType, newObj.getId(), newObj);
-                        }
                     }
                 }
             }
@@ -322,6 +337,31 @@ public class TrackableTypes {
             return null;
         }
 
+        //cards and players are looked up with their own types
+        @Override
+        protected void updateObjLookup(Tracker tracker, GameEntityView newObj) {
+            if (newObj instanceof CardView) {
+                CardViewType.updateObjLookup(tracker, (CardView) newObj);
+            }
+            else if (newObj instanceof PlayerView) {
+                PlayerViewType.updateObjLookup(tracker, (PlayerView) newObj);
+            }
+        }
+
+        @Override
+        protected void copyChangedProps(TrackableObject from, TrackableObject to, TrackableProperty prop) {
+            Object newObj = from.get(prop);
+            if (newObj instanceof CardView) {
+                CardViewType.copyChangedProps(from, to, prop);
+            }
+            else if (newObj instanceof PlayerView) {
+                PlayerViewType.copyChangedProps(from, to, prop);
+            }
+            else {
+                super.copyChangedProps(from, to, prop);
+            }
+        }
+
         @Override
         protected GameEntityView deserialize(TrackableDeserializer td, GameEntityView oldValue) {
             switch (td.readInt()) {
@@ -24,10 +24,13 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.Vector;
 
 import forge.game.player.RegisteredPlayer;
@@ -35,25 +38,34 @@ import forge.game.player.RegisteredPlayer;
 /**
  * <p>
  * MyRandom class.<br>
- * Preferably all Random numbers should be retrieved using this wrapper class
+ * Preferably all Random numbers should be retrieved using this wrapper class.
+ * While a game is played, the thread playing it gets the game's own seeded random, see {@link #setGameRandom(Random)}.
  * </p>
  * 
  * @author Forge
  * @version $Id$
  */
 public class MyRandom {
-    /** Constant <code>random</code>. */
-    private static Random random = new SecureRandom();
+    /** Constant <code>random</code>, used outside of games. */
+    private static final Random random = new Random();
+    private static final SecureRandom seedSource = new SecureRandom();
+    private static final ThreadLocal<Random> gameRandom = new ThreadLocal<>();
 
-    private static byte[] currentSeed;
-    private static String matchDesc = "";
     private static Vector<String> loadedSeeds = null;
+    private static final Set<Long> seedsFromFile = new HashSet<>();
 
-    public static void saveSeed(String startPlayer) {
-        String seed = "";
-        for(byte b : currentSeed) {
-            seed += String.format("%02x", b);
-        }
+    public static String seedToString(long seed) {
+        return String.format("%016x", seed);
+    }
+
+    public static long parseSeed(String seed) {
+        return new BigInteger(seed, 16).longValue();
+    }
+
+    public static synchronized void saveSeed(long gameSeed, List<RegisteredPlayer> players, int match, String startPlayer) {
+        String matchDesc = seedsFromFile.remove(gameSeed) ? "Loaded seed -> " : "";
+        matchDesc += players.get(0).getDeck().getName() + "|" + players.get(1).getDeck().getName() + "|" + match;
+        String seed = seedToString(gameSeed);
         try {
             FileOutputStream stream = new FileOutputStream("save.txt", true);
             OutputStreamWriter writer = new OutputStreamWriter(stream);
@@ -75,7 +87,7 @@ public class MyRandom {
         }
     }
 
-    private static byte[] loadSeed() {
+    private static synchronized Long loadSeed() {
         if(!new File("load.txt").exists()) {
             return null;
         }
@@ -87,7 +99,7 @@ public class MyRandom {
                 BufferedReader buf = new BufferedReader(reader);
                 String line = null;
                 while((line = buf.readLine()) != null) {
-                    if(line.length() == 32 && !line.contains(":") && !line.contains("|") && !line.contains("->")) {
+                    if(line.length() == 16 && line.matches("[0-9a-fA-F]+")) {
                         loadedSeeds.add(line);
                     }
                 }
@@ -101,16 +113,12 @@ public class MyRandom {
         if(!loadedSeeds.isEmpty()) {
             String seed = loadedSeeds.get(0);
             loadedSeeds.remove(0);
-            byte[] bytes = new byte[16];
-            for(int i = 0; i < 16; i++) {
-                bytes[i] = (byte)Integer.parseInt(seed.substring(i * 2, i * 2 + 2), 16);
-            }
-            return bytes;
+            return parseSeed(seed);
         }
         return null;
     }
 
-    public static void reloadSeed() {
+    public static synchronized void reloadSeed() {
     	if(loadedSeeds != null) {
     		loadedSeeds.clear();
     		loadedSeeds = null;
@@ -129,17 +137,31 @@ public class MyRandom {
         }
     }
 
-    public static void updateSeed(List<RegisteredPlayer> players, int match) {
-        byte[] loadSeed = loadSeed();
-        if(loadSeed == null) {
-            currentSeed = SecureRandom.getSeed(16);
-            matchDesc = "";
+    /**
+     * Returns the seed for a new game: the next one listed in load.txt, if there is any, otherwise a fresh one.
+     */
+    public static synchronized long nextSeed() {
+        Long loaded = loadSeed();
+        if(loaded == null) {
+            return seedSource.nextLong();
+        }
+        seedsFromFile.add(loaded);
+        return loaded;
+    }
+
+    /**
+     * Makes {@link #getRandom()} return the given random on the current thread, or the shared one if null.
+     *
+     * @return the random that was set before, so that it can be restored
+     */
+    public static Random setGameRandom(final Random rnd) {
+        Random previous = gameRandom.get();
+        if (rnd == null) {
+            gameRandom.remove();
         } else {
-            currentSeed = loadSeed;
-            matchDesc = "Loaded seed -> ";
+            gameRandom.set(rnd);
         }
-        matchDesc += players.get(0).getDeck().getName() + "|" + players.get(1).getDeck().getName() + "|" + match;
-        random = new SecureRandom(currentSeed);
+        return previous;
     }
 
     /**
@@ -162,14 +184,15 @@ public class MyRandom {
      * @return the random
      */
     public static Random getRandom() {
-        return MyRandom.random;
+        Random rnd = gameRandom.get();
+        return rnd != null ? rnd : MyRandom.random;
     }
 
     public static int[] splitIntoRandomGroups(final int value, final int numGroups) {
         int[] groups = new int[numGroups];
         
         for (int i = 0; i < value; i++) {
-            groups[random.nextInt(numGroups)]++;
+            groups[getRandom().nextInt(numGroups)]++;
         }
 
         return groups;
@@ -0,0 +1,455 @@
+package forge.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A save file made of named sections, each stored as a separately deflated record tagged with a fingerprint of
+ * its contents. Saving appends records only for the sections whose fingerprint differs from the one on disk, and
+ * an empty record for each section that is no longer saved, so a large save that changed in one place costs one
+ * small write. Once stale records take up most of the file, it is rewritten with only the live ones.
+ * <p>
+ * The records of each save are followed by a commit record holding the generation of the save and a checksum
+ * of the records before it. Reading keeps the last committed record of every section. A save cut short by a
+ * crash has no valid commit record, so all of its records are dropped together with anything after them, which
+ * leaves the previous save as a whole rather than a mix of old and new sections.
+ */
+public final class SectionedSaveFile {
+    private static final int MAGIC = 0x46534156; // "FSAV"
+    private static final int VERSION = 2;
+    private static final int UNBATCHED_VERSION = 1; // before commit records, every record counts as saved
+    private static final int HEADER_SIZE = 8;
+    private static final int REMOVED = -1;
+    private static final int COMMIT = -2;
+    private static final long MIN_COMPACT_SIZE = 64 * 1024;
+
+    /** Writes the contents of a section, the stream is compressed and closed by the caller. */
+    public interface SectionWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /** A section to save, along with the fingerprint used to tell whether it needs to be written. */
+    public static final class Section {
+        private final String name;
+        private final long fingerprint;
+        private final SectionWriter writer;
+        private final byte[] data;
+
+        /**
+         * Creates a section that is only serialized when the fingerprint differs from the saved one. The fingerprint
+         * must cover everything the writer writes.
+         */
+        public Section(final String name0, final long fingerprint0, final SectionWriter writer0) {
+            name = name0;
+            fingerprint = fingerprint0;
+            writer = writer0;
+            data = null;
+        }
+
+        /** Creates a section from already serialized data, fingerprinted by its contents. */
+        public Section(final String name0, final byte[] data0) {
+            name = name0;
+            fingerprint = new Fingerprint().add(data0).get();
+            writer = null;
+            data = data0;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private byte[] compress() throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+                if (writer != null) {
+                    writer.write(out);
+                }
+                else {
+                    out.write(data);
+                }
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    /** An order dependent 64 bit hash, used to fingerprint the contents of sections. */
+    public static final class Fingerprint {
+        private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+        private long hash = GOLDEN_GAMMA;
+
+        public Fingerprint add(final long value) {
+            hash = mix64(hash + GOLDEN_GAMMA + value);
+            return this;
+        }
+
+        public Fingerprint add(final boolean value) {
+            return add(value ? 1 : 0);
+        }
+
+        public Fingerprint add(final String value) {
+            if (value == null) {
+                return add(-1);
+            }
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * FNV_PRIME;
+            }
+            return add(h).add(value.length());
+        }
+
+        public Fingerprint add(final byte[] value) {
+            long h = 0xcbf29ce484222325L;
+            for (final byte b : value) {
+                h = (h ^ (b & 0xff)) * FNV_PRIME;
+            }
+            return add(h).add(value.length);
+        }
+
+        public long get() {
+            return hash;
+        }
+
+        private static long mix64(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    private static final class Record {
+        private final long fingerprint;
+        private final long offset; // of the payload
+        private final int length;
+        private final byte[] payload;
+
+        private Record(final long fingerprint0, final long offset0, final int length0, final byte[] payload0) {
+            fingerprint = fingerprint0;
+            offset = offset0;
+            length = length0;
+            payload = payload0;
+        }
+    }
+
+    private final Map<String, Record> records;
+    private final int version;
+    private final long generation;
+    private final long validLength;
+    private final long liveLength;
+
+    private SectionedSaveFile(final Map<String, Record> records0, final int version0, final long generation0, final long validLength0) {
+        records = records0;
+        version = version0;
+        generation = generation0;
+        validLength = validLength0;
+        long live = HEADER_SIZE + recordSize("", 0);
+        for (final Map.Entry<String, Record> e : records.entrySet()) {
+            live += recordSize(e.getKey(), e.getValue().length);
+        }
+        liveLength = live;
+    }
+
+    /** Tells whether the file starts like a sectioned save, as opposed to a save in an older format. */
+    public static boolean isSectioned(final File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        }
+        catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /** Reads the current contents of every section of the file. */
+    public static SectionedSaveFile read(final File file) throws IOException {
+        final SectionedSaveFile result = scan(file, true);
+        if (result == null) {
+            throw new IOException(file + " is not a sectioned save file");
+        }
+        return result;
+    }
+
+    public Set<String> getSectionNames() {
+        return records.keySet();
+    }
+
+    public boolean hasSection(final String name) {
+        return records.containsKey(name);
+    }
+
+    /** Opens the uncompressed contents of a section, or returns null if the file has no such section. */
+    public InputStream openSection(final String name) {
+        final Record record = records.get(name);
+        if (record == null) {
+            return null;
+        }
+        return new InflaterInputStream(new ByteArrayInputStream(record.payload));
+    }
+
+    /**
+     * Saves the given sections, which replace whatever sections the file had before. Sections the file already holds
+     * with the same fingerprint are not serialized again. When the file has to be rewritten, the old file is kept
+     * as the backup if one is given.
+     */
+    public static void save(final File file, final File backup, final Collection<Section> sections) throws IOException {
+        final SectionedSaveFile existing = file.exists() ? scan(file, false) : null;
+        if (existing == null || existing.version != VERSION) {
+            rewrite(file, backup, sections, null);
+            return;
+        }
+
+        final List<Section> changed = new ArrayList<>();
+        final Set<String> removed = new HashSet<>(existing.records.keySet());
+        for (final Section s : sections) {
+            removed.remove(s.name);
+            final Record saved = existing.records.get(s.name);
+            if (saved == null || saved.fingerprint != s.fingerprint) {
+                changed.add(s);
+            }
+        }
+        if (changed.isEmpty() && removed.isEmpty() && existing.validLength == file.length()) {
+            return;
+        }
+
+        final ByteArrayOutputStream appended = new ByteArrayOutputStream();
+        final CheckedOutputStream checked = new CheckedOutputStream(appended, new CRC32());
+        final DataOutputStream out = new DataOutputStream(checked);
+        long liveLength = existing.liveLength;
+        for (final Section s : changed) {
+            final byte[] payload = s.compress();
+            writeRecord(out, s.name, s.fingerprint, payload);
+            final Record saved = existing.records.get(s.name);
+            if (saved != null) {
+                liveLength -= recordSize(s.name, saved.length);
+            }
+            liveLength += recordSize(s.name, payload.length);
+        }
+        for (final String name : removed) {
+            writeRecord(out, name, 0, null);
+            liveLength -= recordSize(name, existing.records.get(name).length);
+        }
+        writeCommit(out, existing.generation + 1, checked);
+        out.flush();
+
+        final long totalLength = existing.validLength + appended.size();
+        if (totalLength > MIN_COMPACT_SIZE && totalLength > 2 * liveLength) {
+            rewrite(file, backup, sections, existing);
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(existing.validLength);
+            raf.seek(existing.validLength);
+            raf.write(appended.toByteArray());
+            raf.getFD().sync();
+        }
+    }
+
+    private static void rewrite(final File file, final File backup, final Collection<Section> sections, final SectionedSaveFile existing) throws IOException {
+        final File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp);
+             CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(stream), new CRC32());
+             DataOutputStream out = new DataOutputStream(checked);
+             RandomAccessFile source = existing == null ? null : new RandomAccessFile(file, "r")) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            checked.getChecksum().reset(); // the commit covers the records only
+            for (final Section s : sections) {
+                final Record saved = existing == null ? null : existing.records.get(s.name);
+                final byte[] payload;
+                if (saved != null && saved.fingerprint == s.fingerprint) {
+                    payload = new byte[saved.length]; // unchanged, copy the compressed data as it is
+                    source.seek(saved.offset);
+                    source.readFully(payload);
+                }
+                else {
+                    payload = s.compress();
+                }
+                writeRecord(out, s.name, s.fingerprint, payload);
+            }
+            writeCommit(out, 1, checked);
+            out.flush();
+            stream.getFD().sync();
+        }
+        if (file.exists()) {
+            if (backup != null) {
+                Files.move(file.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeRecord(final DataOutputStream out, final String name, final long fingerprint, final byte[] payload) throws IOException {
+        out.writeUTF(name);
+        out.writeLong(fingerprint);
+        if (payload == null) {
+            out.writeInt(REMOVED);
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(payload.length);
+        out.writeInt(checksum(payload, payload.length));
+        out.write(payload);
+    }
+
+    private static void writeCommit(final DataOutputStream out, final long generation, final CheckedOutputStream checked) throws IOException {
+        final int batchChecksum = (int) checked.getChecksum().getValue();
+        out.writeUTF("");
+        out.writeLong(generation);
+        out.writeInt(COMMIT);
+        out.writeInt(batchChecksum);
+    }
+
+    private static long recordSize(final String name, final int length) {
+        // name (assuming single byte characters), fingerprint, length, checksum, payload
+        return 2 + name.length() + 8 + 4 + 4 + Math.max(length, 0);
+    }
+
+    private static int checksum(final byte[] data, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reads and verifies the records of the file, keeping the payloads only if asked to. Returns null if the file
+     * isn't a sectioned save.
+     */
+    private static SectionedSaveFile scan(final File file, final boolean readPayloads) throws IOException {
+        final Map<String, Record> records = new LinkedHashMap<>();
+        final Map<String, Record> batch = new LinkedHashMap<>(); // records since the last commit, null if removed
+        final CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+        final CheckedInputStream checked = new CheckedInputStream(counter, new CRC32());
+        int version = 0;
+        long generation = 0;
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            version = in.readInt();
+            if (version != VERSION && version != UNBATCHED_VERSION) {
+                return null;
+            }
+            validLength = HEADER_SIZE;
+            checked.getChecksum().reset();
+            final long fileLength = file.length();
+            byte[] buffer = new byte[0];
+            while (true) {
+                final int batchChecksum = (int) checked.getChecksum().getValue();
+                final String name = in.readUTF();
+                final long fingerprint = in.readLong();
+                final int length = in.readInt();
+                final int crc = in.readInt();
+                if (length == COMMIT) {
+                    if (version != VERSION || crc != batchChecksum || fingerprint != generation + 1) {
+                        break;
+                    }
+                    commit(records, batch);
+                    generation = fingerprint;
+                    validLength = counter.position;
+                    checked.getChecksum().reset();
+                    continue;
+                }
+                if (length == REMOVED) {
+                    batch.remove(name);
+                    batch.put(name, null);
+                }
+                else {
+                    final long offset = counter.position;
+                    if (length < 0 || offset + length > fileLength) {
+                        break;
+                    }
+                    if (buffer.length < length) {
+                        buffer = new byte[length];
+                    }
+                    in.readFully(buffer, 0, length);
+                    if (checksum(buffer, length) != crc) {
+                        break;
+                    }
+                    final byte[] payload = readPayloads ? Arrays.copyOf(buffer, length) : null;
+                    batch.remove(name); // keep sections in the order they were last written
+                    batch.put(name, new Record(fingerprint, offset, length, payload));
+                }
+                if (version == UNBATCHED_VERSION) {
+                    commit(records, batch);
+                    validLength = counter.position;
+                }
+            }
+        }
+        catch (final EOFException e) {
+            // truncated tail, everything up to validLength is intact
+        }
+        // whatever is left in the batch was never committed
+        return new SectionedSaveFile(records, version, generation, validLength);
+    }
+
+    private static void commit(final Map<String, Record> records, final Map<String, Record> batch) {
+        for (final Map.Entry<String, Record> e : batch.entrySet()) {
+            records.remove(e.getKey());
+            if (e.getValue() != null) {
+                records.put(e.getKey(), e.getValue());
+            }
+        }
+        batch.clear();
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long position;
+
+        private CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                position++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            position += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package forge.util;
+
+import java.util.Random;
+
+/**
+ * A fast random number generator based on SplitMix64, used as the random source of a game.
+ * Unlike {@link java.security.SecureRandom}, the same seed always produces the same sequence,
+ * so a game can be replayed from its seed. Instances are not meant to be shared between threads,
+ * use {@link #split()} to give other threads a generator of their own.
+ */
+public class SplitMixRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    public SplitMixRandom(long seed) {
+        super(seed); // calls setSeed
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = seed;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    /**
+     * Returns a new generator whose sequence is independent of this one. This advances this generator by one step,
+     * so splitting at the same points of a game gives the same generators again.
+     */
+    public SplitMixRandom split() {
+        return new SplitMixRandom(mix64(nextLong() ^ GOLDEN_GAMMA));
+    }
+}
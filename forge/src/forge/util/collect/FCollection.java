@@ -4,16 +4,17 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
-import com.google.common.collect.Sets;
 
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
@@ -23,6 +24,9 @@ import java.util.Set;
  * Collection with unique elements ({@link Set}) that maintains the order in
  * which the elements are added to it ({@link List}).
  *
+ * The elements are kept in an array, so indexed access is O(1), and in a hash
+ * index, so lookups of elements are O(1) as well.
+ *
  * This object is serializable if all elements it contains are.
  *
  * @param <T> the type of the elements this collection contains.
@@ -39,14 +43,41 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
     }
 
     /**
-     * The {@link Set} representation of this collection.
+     * The elements of this collection, each mapped to itself, so that
+     * {@link #get(Object)} can return the instance held by this collection.
      */
-    private final Set<T> set = Sets.newHashSet();
+    private final HashMap<T, T> index = new HashMap<>();
 
     /**
      * The {@link List} representation of this collection.
      */
-    private final LinkedList<T> list = Lists.newLinkedList();
+    private final ArrayList<T> list = new ArrayList<>();
+
+    /**
+     * Incremented on every change, used to tell whether {@link #snapshot} is
+     * still current.
+     */
+    private transient volatile int version;
+
+    /**
+     * The last copy handed out by {@link #threadSafeIterable()}, reused until
+     * this collection changes.
+     */
+    private transient volatile Snapshot<T> snapshot;
+
+    private static final class Snapshot<T> {
+        private final int version;
+        private final List<T> items;
+
+        private Snapshot(final int version, final List<T> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+
+    private void changed() {
+        version++;
+    }
 
     /**
      * Create an empty {@link FCollection}.
@@ -171,7 +202,10 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public T getFirst() {
-        return list.getFirst();
+        if (list.isEmpty()) {
+            throw new NoSuchElementException("Collection is empty");
+        }
+        return list.get(0);
     }
 
     /**
@@ -182,7 +216,10 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public T getLast() {
-        return list.getLast();
+        if (list.isEmpty()) {
+            throw new NoSuchElementException("Collection is empty");
+        }
+        return list.get(list.size() - 1);
     }
 
     /**
@@ -190,7 +227,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public int size() {
-        return set.size();
+        return list.size();
     }
 
     /**
@@ -198,11 +235,14 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean isEmpty() {
-        return set.isEmpty();
+        return list.isEmpty();
     }
-    
+
+    /**
+     * @return an unmodifiable {@link Set} view of this collection.
+     */
     public Set<T> asSet() {
-        return set;
+        return Collections.unmodifiableSet(index.keySet());
     }
 
     /**
@@ -213,7 +253,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean contains(final Object o) {
-        return set.contains(o);
+        return index.containsKey(o);
     }
 
     /**
@@ -221,7 +261,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public Iterator<T> iterator() {
-        return list.iterator();
+        return new Itr(0);
     }
 
     /**
@@ -250,11 +290,13 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean add(final T e) {
-        if (set.add(e)) {
-            list.add(e);
-            return true;
+        if (index.containsKey(e)) {
+            return false;
         }
-        return false;
+        index.put(e, e);
+        list.add(e);
+        changed();
+        return true;
     }
 
     /**
@@ -266,11 +308,13 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean remove(final Object o) {
-        if (set.remove(o)) {
-            list.remove(o);
-            return true;
+        if (!index.containsKey(o)) {
+            return false;
         }
-        return false;
+        index.remove(o);
+        list.remove(o);
+        changed();
+        return true;
     }
 
     /**
@@ -278,7 +322,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean containsAll(final Collection<?> c) {
-        return set.containsAll(c);
+        return index.keySet().containsAll(c);
     }
 
     /**
@@ -374,8 +418,9 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean retainAll(final Collection<?> c) {
-        if (set.retainAll(c)) {
+        if (index.keySet().retainAll(c)) {
             list.retainAll(c);
+            changed();
             return true;
         }
         return false;
@@ -386,9 +431,10 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public void clear() {
-        if (set.isEmpty()) { return; }
-        set.clear();
+        if (list.isEmpty()) { return; }
+        index.clear();
         list.clear();
+        changed();
     }
 
     /**
@@ -401,12 +447,19 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
 
     /**
      * Set the element at an index to a value. WARNING: this method doesn't
-     * update the set and should only be used in a situation where the set of
-     * elements in this collection is invariant.
+     * check whether the element is already present at another index, and
+     * should only be used when changing the order of the elements or
+     * replacing an element with one that isn't in this collection.
      */
     @Override
-    public T set(final int index, final T element) { //assume this isn't called except when changing list order, so don't worry about updating set
-        return list.set(index, element);
+    public T set(final int i, final T element) {
+        final T old = list.set(i, element);
+        if (old != element) {
+            index.remove(old);
+            index.put(element, element);
+        }
+        changed();
+        return old;
     }
 
     /**
@@ -427,8 +480,10 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      * @return whether this collection changed as a result of this method call.
      */
     private boolean insert(int index, final T element) {
-        if (set.add(element)) {
+        if (!this.index.containsKey(element)) {
+            this.index.put(element, element);
             list.add(index, element);
+            changed();
             return true;
         }
         //re-position in list if needed
@@ -442,6 +497,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
         }
         list.remove(oldIndex);
         list.add(index, element);
+        changed();
         return true;
     }
 
@@ -449,11 +505,10 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      * {@inheritDoc}
      */
     @Override
-    public T remove(final int index) {
-        final T removedItem = list.remove(index);
-        if (removedItem != null) {
-            set.remove(removedItem);
-        }
+    public T remove(final int i) {
+        final T removedItem = list.remove(i);
+        index.remove(removedItem);
+        changed();
         return removedItem;
     }
 
@@ -462,6 +517,9 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public int indexOf(final Object o) {
+        if (!index.containsKey(o)) {
+            return -1;
+        }
         return list.indexOf(o);
     }
 
@@ -470,7 +528,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public int lastIndexOf(final Object o) {
-        return list.lastIndexOf(o);
+        return indexOf(o); // elements are unique
     }
 
     /**
@@ -478,7 +536,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public ListIterator<T> listIterator() {
-        return list.listIterator();
+        return new Itr(0);
     }
 
     /**
@@ -486,7 +544,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public ListIterator<T> listIterator(final int index) {
-        return list.listIterator(index);
+        return new Itr(index);
     }
 
     /**
@@ -519,6 +577,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     public void sort(final Comparator<? super T> comparator) {
         Collections.sort(list, comparator);
+        changed();
     }
 
     /**
@@ -526,8 +585,17 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public Iterable<T> threadSafeIterable() {
-        //create a new linked list for iterating to make it thread safe and avoid concurrent modification exceptions
-        return Iterables.unmodifiableIterable(new LinkedList<T>(list));
+        //iterate over a copy to make it thread safe and avoid concurrent modification exceptions,
+        //the copy is immutable, so it can be shared until this collection changes
+        final int currentVersion = version;
+        Snapshot<T> current = snapshot;
+        if (current == null || current.version != currentVersion) {
+            @SuppressWarnings("unchecked")
+            final List<T> items = Collections.unmodifiableList(Arrays.asList((T[]) list.toArray()));
+            current = new Snapshot<>(currentVersion, items);
+            snapshot = current;
+        }
+        return current.items;
     }
 
     @Override
@@ -535,12 +603,71 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
         if (obj == null) {
             return null;
         }
-        for(T x : this) {
-            if (x.equals(obj)) {
-                return x;
+        final T x = index.get(obj);
+        return x != null ? x : obj;
+    }
+
+    /**
+     * Iterator over the backing list that keeps the index up to date when
+     * elements are removed or replaced through it.
+     */
+    private final class Itr implements ListIterator<T> {
+        private final ListIterator<T> it;
+        private T lastReturned;
+
+        private Itr(final int i) {
+            it = list.listIterator(i);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+        @Override
+        public T next() {
+            return lastReturned = it.next();
+        }
+        @Override
+        public boolean hasPrevious() {
+            return it.hasPrevious();
+        }
+        @Override
+        public T previous() {
+            return lastReturned = it.previous();
+        }
+        @Override
+        public int nextIndex() {
+            return it.nextIndex();
+        }
+        @Override
+        public int previousIndex() {
+            return it.previousIndex();
+        }
+        @Override
+        public void remove() {
+            it.remove();
+            index.remove(lastReturned);
+            changed();
+        }
+        @Override
+        public void set(final T e) {
+            it.set(e);
+            if (lastReturned != e) {
+                index.remove(lastReturned);
+                index.put(e, e);
+                lastReturned = e;
+            }
+            changed();
+        }
+        @Override
+        public void add(final T e) {
+            if (index.containsKey(e)) {
+                return;
             }
+            it.add(e);
+            index.put(e, e);
+            changed();
         }
-        return obj;
     }
     /**
      * An unmodifiable, empty {@link FCollection}. Overrides all methods with
@@ -3,6 +3,11 @@ package forge.view;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -22,8 +27,11 @@ import forge.game.player.RegisteredPlayer;
 import forge.model.FModel;
 import forge.player.GamePlayerUtil;
 import forge.util.Lang;
+import forge.util.MyRandom;
 
 public class SimulateMatch {
+    private static boolean outputCacheStatistics = false;
+
     public static void simulate(String[] args) {
         FModel.initialize(null, null);
 
@@ -71,7 +79,20 @@ public class SimulateMatch {
             matchSize = Integer.parseInt(params.get("m").get(0));
         }
 
+        int threads = 1;
+        if (params.containsKey("j")) {
+            // Number of games played at the same time
+            threads = Math.max(1, Integer.parseInt(params.get("j").get(0)));
+        }
+
+        Long replaySeed = null;
+        if (params.containsKey("s")) {
+            // Seed of a recorded game to play again
+            replaySeed = MyRandom.parseSeed(params.get("s").get(0));
+        }
+
         boolean outputGamelog = !params.containsKey("q");
+        outputCacheStatistics = params.containsKey("c");
 
         GameType type = GameType.Constructed;
         if (params.containsKey("f")) {
@@ -91,11 +112,9 @@ public class SimulateMatch {
             return;
         }
 
-        List<RegisteredPlayer> pp = new ArrayList<>();
+        final List<Deck> decks = new ArrayList<>();
         StringBuilder sb = new StringBuilder();
 
-        int i = 1;
-
         if (params.containsKey("d")) {
             for(String deck : params.get("d")) {
                 Deck d = deckFromCommandLineParameter(deck, type);
@@ -103,22 +122,11 @@ public class SimulateMatch {
                     System.out.println(TextUtil.concatNoSpace("Could not load deck - ", deck, ", match cannot start"));
                     return;
                 }
-                if (i > 1) {
+                if (!decks.isEmpty()) {
                     sb.append(" vs ");
                 }
-                String name = TextUtil.concatNoSpace("Ai(", String.valueOf(i), ")-", d.getName());
-                sb.append(name);
-
-                RegisteredPlayer rp;
-
-                if (type.equals(GameType.Commander)) {
-                    rp = RegisteredPlayer.forCommander(d);
-                } else {
-                    rp = new RegisteredPlayer(d);
-                }
-                rp.setPlayer(GamePlayerUtil.createAiPlayer(name, i - 1));
-                pp.add(rp);
-                i++;
+                decks.add(d);
+                sb.append(playerName(decks.size(), d));
             }
         }
 
@@ -126,9 +134,20 @@ public class SimulateMatch {
 
         System.out.println(sb.toString());
 
-        Match mc = new Match(rules, pp, "Test");
+        if (matchSize == 0 && threads > 1 && nGames > 1) {
+            // games of a match don't depend on each other here, so each one gets its own match and worker
+            simulateParallelGames(rules, decks, nGames, Math.min(threads, nGames), replaySeed, outputGamelog);
+            System.out.flush();
+            return;
+        }
+
+        Match mc = new Match(rules, registerPlayers(decks, type), "Test");
 
         if (matchSize != 0) {
+            if (replaySeed != null) {
+                // only the first game of a match can be replayed on its own
+                mc.setNextGameSeed(replaySeed);
+            }
             int iGame = 0;
             while(!mc.isMatchOver()) {
                 // play games until the match ends
@@ -137,6 +156,11 @@ public class SimulateMatch {
             }
         } else {
             for (int iGame = 0; iGame < nGames; iGame++) {
+                if (replaySeed != null) {
+                    // a replayed game must be the first of its match, since who starts later games depends on the previous ones
+                    mc = new Match(rules, registerPlayers(decks, type), "Test");
+                    mc.setNextGameSeed(replaySeed);
+                }
                 simulateSingleMatch(mc, iGame, outputGamelog);
             }
         }
@@ -144,8 +168,95 @@ public class SimulateMatch {
         System.out.flush();
     }
 
+    private static String playerName(int index, Deck deck) {
+        return TextUtil.concatNoSpace("Ai(", String.valueOf(index), ")-", deck.getName());
+    }
+
+    private static List<RegisteredPlayer> registerPlayers(List<Deck> decks, GameType type) {
+        List<RegisteredPlayer> pp = new ArrayList<>();
+        int i = 1;
+        for (Deck d : decks) {
+            RegisteredPlayer rp;
+            if (type.equals(GameType.Commander)) {
+                rp = RegisteredPlayer.forCommander(d);
+            } else {
+                rp = new RegisteredPlayer(d);
+            }
+            rp.setPlayer(GamePlayerUtil.createAiPlayer(playerName(i, d), i - 1));
+            pp.add(rp);
+            i++;
+        }
+        return pp;
+    }
+
+    /**
+     * Plays nGames independent games on a pool of worker threads. Every game gets its own match and players,
+     * and its log is printed as one block as soon as it finishes, so the output of games never interleaves.
+     */
+    private static void simulateParallelGames(final GameRules rules, final List<Deck> decks, int nGames, int threads,
+            final Long replaySeed, final boolean outputGamelog) {
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        final List<Future<String>> results = new ArrayList<>();
+        final StopWatch sw = new StopWatch();
+        sw.start();
+
+        for (int iGame = 0; iGame < nGames; iGame++) {
+            final int gameNumber = iGame;
+            results.add(pool.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    Match mc = new Match(rules, registerPlayers(decks, rules.getGameType()), "Test");
+                    if (replaySeed != null) {
+                        mc.setNextGameSeed(replaySeed);
+                    }
+                    String output = playSingleGame(mc, gameNumber, outputGamelog);
+                    synchronized (System.out) {
+                        System.out.print(output);
+                    }
+                    for (GameOutcome outcome : mc.getOutcomes()) {
+                        LobbyPlayer winner = outcome.getWinningLobbyPlayer();
+                        return winner == null ? null : winner.getName();
+                    }
+                    return null;
+                }
+            }));
+        }
+        pool.shutdown();
+
+        final Map<String, Integer> wins = new TreeMap<>();
+        int draws = 0;
+        for (Future<String> result : results) {
+            String winner;
+            try {
+                winner = result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                winner = null;
+            }
+            if (winner == null) {
+                draws++;
+            } else {
+                Integer count = wins.get(winner);
+                wins.put(winner, count == null ? 1 : count + 1);
+            }
+        }
+        sw.stop();
+
+        System.out.println(TextUtil.concatNoSpace("Played ", Lang.nounWithNumeral(nGames, "game"), " on ",
+                Lang.nounWithNumeral(threads, "thread"), " in ", String.valueOf(sw.getTime()), " ms"));
+        for (Map.Entry<String, Integer> kv : wins.entrySet()) {
+            System.out.println(TextUtil.concatNoSpace(kv.getKey(), " won ", Lang.nounWithNumeral(kv.getValue(), "game")));
+        }
+        if (draws > 0) {
+            System.out.println(TextUtil.concatNoSpace("Draws: ", String.valueOf(draws)));
+        }
+    }
+
     private static void argumentHelp() {
-        System.out.println("Syntax: forge.exe sim -d <deck1[.dck]> ... <deckX[.dck]> -D [D] -n [N] -m [M] -t [T] -p [P] -f [F] -q");
+        System.out.println("Syntax: forge.exe sim -d <deck1[.dck]> ... <deckX[.dck]> -D [D] -n [N] -m [M] -t [T] -p [P] -f [F] -j [J] -s [S] -q -c");
         System.out.println("\tsim - stands for simulation mode");
         System.out.println("\tdeck1 (or deck2,...,X) - constructed deck name or filename (has to be quoted when contains multiple words)");
         System.out.println("\tdeck is treated as file if it ends with a dot followed by three numbers or letters");
@@ -155,12 +266,20 @@ public class SimulateMatch {
         System.out.println("\tT - Type of tournament to run with all provided decks (Bracket, RoundRobin, Swiss)");
         System.out.println("\tP - Amount of players per match (used only with Tournaments, defaults to 2)");
         System.out.println("\tF - format of games, defaults to constructed");
+        System.out.println("\tJ - number of games to play at the same time, defaults to 1 (Ignored by matches and tournaments)");
+        System.out.println("\tS - seed of a game to replay, as printed at the end of its log (replays the first game of a match)");
         System.out.println("\tq - Quiet flag. Output just the game result, not the entire game log.");
+        System.out.println("\tc - Output the hit rates of the AI's cached queries after each game.");
     }
 
 
 
     public static void simulateSingleMatch(final Match mc, int iGame, boolean outputGamelog) {
+        System.out.print(playSingleGame(mc, iGame, outputGamelog));
+    }
+
+    private static String playSingleGame(final Match mc, int iGame, boolean outputGamelog) {
+        final StringBuilder sb = new StringBuilder();
         final StopWatch sw = new StopWatch();
         sw.start();
 
@@ -178,7 +297,7 @@ public class SimulateMatch {
             }, 120, TimeUnit.SECONDS);
         }
         catch (TimeoutException e) {
-            System.out.println("Stopping slow match as draw");
+            sb.append("Stopping slow match as draw\n");
             g1.setGameOver(GameEndReason.Draw);
             sw.stop();
         }catch (Exception e){
@@ -199,10 +318,15 @@ public class SimulateMatch {
         }
         Collections.reverse(log);
         for(GameLogEntry l : log) {
-            System.out.println(l);
+            sb.append(l).append('\n');
+        }
+        if (outputCacheStatistics) {
+            sb.append("\nAI state cache:\n").append(g1.getStateCache().getStatistics());
         }
 
-        System.out.println(String.format("\nGame %d ended in %d ms. %s has won!\n", 1+iGame, sw.getTime(), g1.getOutcome().getWinningLobbyPlayer().getName()));
+        LobbyPlayer winner = g1.getOutcome().getWinningLobbyPlayer();
+        sb.append(String.format("\nGame %d ended in %d ms. %s has won!\n\n", 1+iGame, sw.getTime(), winner == null ? "Nobody" : winner.getName()));
+        return sb.toString();
     }
 
     private static void simulateTournament(Map<String, List<String>> params, GameRules rules, boolean outputGamelog) {
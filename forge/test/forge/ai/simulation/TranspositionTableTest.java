@@ -0,0 +1,99 @@
+package forge.ai.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import forge.ai.simulation.GameStateEvaluator.Score;
+
+/**
+ * Checks of {@link TranspositionTable}. There is no test framework on the class path, so this runs
+ * from main with the compiled classes of forge/src on the class path, and throws on the first
+ * failed check.
+ */
+public class TranspositionTableTest {
+    public static void main(String[] args) {
+        testLookupNeedsDeepEnoughEntry();
+        testShallowerStoreKeepsDeeperEntry();
+        testStatesWithSameHashCodeDontCollide();
+        testLineIsStoredDetached();
+        testEldestEntriesAreDropped();
+        System.out.println("TranspositionTableTest passed");
+    }
+
+    private static void testLookupNeedsDeepEnoughEntry() {
+        TranspositionTable table = new TranspositionTable();
+        table.store("state", 1, new Score(10), Collections.<Plan.Decision>emptyList());
+
+        check(table.lookup("state", 0).getScore().value == 10, "an entry searched deeper answers a shallower lookup");
+        check(table.lookup("state", 1).getScore().value == 10, "an entry answers a lookup of its own depth");
+        check(table.lookup("state", 2) == null, "an entry doesn't answer a deeper lookup");
+        check(table.lookup("other state", 0) == null, "an unknown state isn't found");
+        check(table.getHits() == 2 && table.getMisses() == 2, "hits and misses are counted");
+    }
+
+    private static void testShallowerStoreKeepsDeeperEntry() {
+        TranspositionTable table = new TranspositionTable();
+        table.store("state", 2, new Score(20), Collections.<Plan.Decision>emptyList());
+        table.store("state", 0, new Score(5), Collections.<Plan.Decision>emptyList());
+        check(table.lookup("state", 0).getScore().value == 20, "a shallower result doesn't replace a deeper one");
+
+        table.store("state", 3, new Score(30), Collections.<Plan.Decision>emptyList());
+        check(table.lookup("state", 3).getScore().value == 30, "a deeper result replaces a shallower one");
+    }
+
+    private static void testStatesWithSameHashCodeDontCollide() {
+        // "Aa" and "BB" have the same String hash code.
+        String state1 = "Aa\nBattlefield Grizzly Bears of 0";
+        String state2 = "BB\nBattlefield Grizzly Bears of 0";
+        check(state1.hashCode() == state2.hashCode(), "the states share a hash code");
+
+        TranspositionTable table = new TranspositionTable();
+        table.store(state1, 1, new Score(10), Collections.<Plan.Decision>emptyList());
+        check(table.lookup(state2, 0) == null, "a different state with the same hash code isn't found");
+
+        table.store(state2, 1, new Score(-10), Collections.<Plan.Decision>emptyList());
+        check(table.lookup(state1, 0).getScore().value == 10, "the first state keeps its score");
+        check(table.lookup(state2, 0).getScore().value == -10, "the second state has its own score");
+    }
+
+    private static void testLineIsStoredDetached() {
+        Plan.Decision searched = new Plan.Decision(new Score(0), null, new int[] { 0 }, "searched");
+        Plan.Decision first = new Plan.Decision(new Score(5), searched, new int[] { 1 }, "first");
+        Plan.Decision second = new Plan.Decision(new Score(8), first, new int[] { 2 }, "second");
+        List<Plan.Decision> line = new ArrayList<>();
+        line.add(first);
+        line.add(second);
+
+        TranspositionTable table = new TranspositionTable();
+        table.store("state", 2, new Score(12), line);
+        List<Plan.Decision> stored = table.lookup("state", 2).getLine();
+        check(stored.size() == 2, "the line is stored");
+        check(stored.get(0) != first && stored.get(1) != second, "the stored line is a copy");
+        check(stored.get(0).prevDecision == null, "the stored line doesn't lead back into the search that found it");
+        check(stored.get(1).prevDecision == stored.get(0), "the stored line is linked in order");
+        check("second".equals(stored.get(1).modesStr), "the decisions keep their choices");
+
+        Plan.Decision other = new Plan.Decision(new Score(0), null, new int[] { 3 }, "other");
+        List<Plan.Decision> followed = Plan.Decision.copyLine(stored, other);
+        check(followed.get(0).prevDecision == other, "a line can be followed from another decision");
+        check(followed.get(1).prevDecision == followed.get(0), "the followed line is linked in order");
+        check(stored.get(0).prevDecision == null, "following a line doesn't change the stored one");
+    }
+
+    private static void testEldestEntriesAreDropped() {
+        TranspositionTable table = new TranspositionTable(2);
+        table.store("state 1", 0, new Score(1), Collections.<Plan.Decision>emptyList());
+        table.store("state 2", 0, new Score(2), Collections.<Plan.Decision>emptyList());
+        table.lookup("state 1", 0);
+        table.store("state 3", 0, new Score(3), Collections.<Plan.Decision>emptyList());
+        check(table.lookup("state 2", 0) == null, "the least recently used entry is dropped");
+        check(table.lookup("state 1", 0) != null && table.lookup("state 3", 0) != null, "the other entries are kept");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package forge.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import forge.util.SectionedSaveFile.Section;
+
+/**
+ * Checks of {@link SectionedSaveFile}. There is no test framework on the class path, so this runs
+ * from main with the compiled classes of forge/src on the class path, and throws on the first
+ * failed check.
+ */
+public class SectionedSaveFileTest {
+    public static void main(String[] args) throws IOException {
+        testRoundTrip();
+        testTruncatedTailKeepsPreviousSave();
+        testCorruptBatchKeepsPreviousSave();
+        testCompaction();
+        System.out.println("SectionedSaveFileTest passed");
+    }
+
+    private static void testRoundTrip() throws IOException {
+        File file = tempFile();
+        SectionedSaveFile.save(file, null, sections("credits", "100", "pool", "Forest x 10"));
+        SectionedSaveFile saved = SectionedSaveFile.read(file);
+        check(saved.getSectionNames().equals(new LinkedHashSet<>(Arrays.asList("credits", "pool"))), "both sections are saved");
+        check(readSection(saved, "credits").equals("100"), "a section reads back as saved");
+        check(readSection(saved, "pool").equals("Forest x 10"), "another section reads back as saved");
+
+        long firstLength = file.length();
+        List<Section> next = sections("pool", "Forest x 10", "decks", "Elves");
+        next.add(new Section("credits", 7, new SectionedSaveFile.SectionWriter() {
+            @Override
+            public void write(OutputStream out) throws IOException {
+                out.write("250".getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        SectionedSaveFile.save(file, null, next);
+        check(file.length() > firstLength, "a small change is appended");
+        saved = SectionedSaveFile.read(file);
+        check(readSection(saved, "credits").equals("250"), "a changed section reads back");
+        check(readSection(saved, "pool").equals("Forest x 10"), "an unchanged section reads back");
+        check(readSection(saved, "decks").equals("Elves"), "a new section reads back");
+
+        long secondLength = file.length();
+        SectionedSaveFile.save(file, null, next);
+        check(file.length() == secondLength, "a save without changes writes nothing");
+
+        SectionedSaveFile.save(file, null, sections("credits", "250"));
+        saved = SectionedSaveFile.read(file);
+        check(!saved.hasSection("pool") && !saved.hasSection("decks"), "sections no longer saved are removed");
+        check(readSection(saved, "credits").equals("250"), "the remaining section reads back");
+    }
+
+    private static void testTruncatedTailKeepsPreviousSave() throws IOException {
+        File file = tempFile();
+        SectionedSaveFile.save(file, null, sections("credits", "old credits", "pool", "old pool", "decks", "old decks"));
+        long oldLength = file.length();
+        SectionedSaveFile.save(file, null, sections("credits", "new credits", "pool", "new pool", "decks", "old decks"));
+        long newLength = file.length();
+        check(newLength > oldLength, "the second save is appended");
+
+        byte[] full = Files.readAllBytes(file.toPath());
+        File torn = tempFile();
+        for (long cut = oldLength; cut < newLength; cut++) {
+            Files.write(torn.toPath(), Arrays.copyOf(full, (int) cut));
+            SectionedSaveFile saved = SectionedSaveFile.read(torn);
+            check(readSection(saved, "credits").equals("old credits"), "a save cut at " + cut + " keeps the old credits");
+            check(readSection(saved, "pool").equals("old pool"), "a save cut at " + cut + " keeps the old pool");
+            check(readSection(saved, "decks").equals("old decks"), "a save cut at " + cut + " keeps the old decks");
+        }
+
+        Files.write(torn.toPath(), Arrays.copyOf(full, (int) (newLength - 1)));
+        SectionedSaveFile.save(torn, null, sections("credits", "third credits", "pool", "old pool", "decks", "old decks"));
+        SectionedSaveFile saved = SectionedSaveFile.read(torn);
+        check(readSection(saved, "credits").equals("third credits"), "saving over a torn tail replaces it");
+        check(readSection(saved, "pool").equals("old pool"), "saving over a torn tail keeps the committed sections");
+    }
+
+    private static void testCorruptBatchKeepsPreviousSave() throws IOException {
+        File file = tempFile();
+        SectionedSaveFile.save(file, null, sections("credits", "old credits", "pool", "old pool"));
+        long oldLength = file.length();
+        SectionedSaveFile.save(file, null, sections("credits", "new credits", "pool", "new pool"));
+
+        // change the fingerprint of the first appended record, which only the commit checksum covers
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(oldLength + 2 + "credits".length());
+            raf.writeLong(12345);
+        }
+        SectionedSaveFile saved = SectionedSaveFile.read(file);
+        check(readSection(saved, "credits").equals("old credits"), "a batch failing its commit checksum is dropped");
+        check(readSection(saved, "pool").equals("old pool"), "the whole batch is dropped");
+    }
+
+    private static void testCompaction() throws IOException {
+        File file = tempFile();
+        File backup = new File(file.getPath() + ".bak");
+        backup.deleteOnExit();
+        Random random = new Random(42);
+        byte[] big = null;
+        for (int i = 0; i < 6; i++) {
+            big = new byte[40 * 1024];
+            random.nextBytes(big); // doesn't compress, so each save appends about 40 KB
+            List<Section> list = new ArrayList<>();
+            list.add(new Section("big", big));
+            list.add(new Section("small", ("save " + i).getBytes(StandardCharsets.UTF_8)));
+            SectionedSaveFile.save(file, backup, list);
+            check(file.length() < 3 * big.length, "stale records are compacted away, save " + i);
+        }
+        check(backup.exists(), "the file before compaction is kept as the backup");
+        SectionedSaveFile.read(backup); // throws if the backup isn't a valid save
+
+        SectionedSaveFile saved = SectionedSaveFile.read(file);
+        check(Arrays.equals(readBytes(saved, "big"), big), "the big section survives compaction");
+        check(readSection(saved, "small").equals("save 5"), "the small section survives compaction");
+
+        check(!new File(file.getPath() + ".tmp").exists(), "no temporary file is left behind");
+        SectionedSaveFile.save(file, backup, sections("small", "save 6"));
+        saved = SectionedSaveFile.read(file);
+        check(!saved.hasSection("big") && readSection(saved, "small").equals("save 6"), "saving after compaction appends to the rewritten file");
+    }
+
+    private static List<Section> sections(String... namesAndValues) {
+        List<Section> result = new ArrayList<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            result.add(new Section(namesAndValues[i], namesAndValues[i + 1].getBytes(StandardCharsets.UTF_8)));
+        }
+        return result;
+    }
+
+    private static String readSection(SectionedSaveFile file, String name) throws IOException {
+        return new String(readBytes(file, name), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(SectionedSaveFile file, String name) throws IOException {
+        check(file.hasSection(name), "the file has section " + name);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = file.openSection(name)) {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                bytes.write(buffer, 0, n);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("sectioned", ".dat");
+        file.delete();
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            throw new AssertionError(what);
+        }
+    }
+}